@@ -0,0 +1,178 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import math.Complex;
+import math.ComplexAccumulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * The {@code ComplexBenchmark} class measures the arithmetic of {@link Complex}.
+ * Every operation creates a new object, so the allocation rate matters as much as the time.
+ * Chains of products and divisions are also run through {@link ComplexAccumulator},
+ * which changes a single object in place, and the division in polar form
+ * used before is kept here as a baseline.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexBenchmark
+{
+	/** Amount of numbers operated on **/
+	@Param({"16", "256", "4096"})
+	int roots;
+
+	/** Numbers operated on **/
+	Complex[] numbers = null;
+
+	/**
+	 * Creates the numbers.
+	 */
+	@Setup
+	public void setUp()
+	{
+		numbers = new RandomSystems().numbers(roots);
+	}
+
+	/**
+	 * Adds every number to the next one.
+	 *
+	 * @param sink receives the results.
+	 */
+	@Benchmark
+	public void add(Blackhole sink)
+	{
+		for(int i = 1; i < numbers.length; i++)
+		{
+			sink.consume(numbers[i - 1].add(numbers[i]));
+		}
+	}
+
+	/**
+	 * Multiplies every number by the next one.
+	 *
+	 * @param sink receives the results.
+	 */
+	@Benchmark
+	public void multiply(Blackhole sink)
+	{
+		for(int i = 1; i < numbers.length; i++)
+		{
+			sink.consume(numbers[i - 1].multiply(numbers[i]));
+		}
+	}
+
+	/**
+	 * Divides every number by the next one.
+	 *
+	 * @param sink receives the results.
+	 */
+	@Benchmark
+	public void divide(Blackhole sink)
+	{
+		for(int i = 1; i < numbers.length; i++)
+		{
+			sink.consume(numbers[i - 1].divide(numbers[i]));
+		}
+	}
+
+	/**
+	 * Calculates module and phase of every number.
+	 *
+	 * @param sink receives the results.
+	 */
+	@Benchmark
+	public void polar(Blackhole sink)
+	{
+		for(int i = 0; i < numbers.length; i++)
+		{
+			sink.consume(numbers[i].getModule());
+			sink.consume(numbers[i].getPhase());
+		}
+	}
+
+	/**
+	 * Divides every number by the next one in polar form, as {@link Complex} used to.
+	 *
+	 * @param sink receives the results.
+	 */
+	@Benchmark
+	public void polarDivide(Blackhole sink)
+	{
+		for(int i = 1; i < numbers.length; i++)
+		{
+			double radius = numbers[i - 1].getModule()/numbers[i].getModule();
+			double angle = numbers[i - 1].getPhase() - numbers[i].getPhase();
+			sink.consume(new Complex(radius*Math.cos(angle), radius*Math.sin(angle)));
+		}
+	}
+
+	/**
+	 * Multiplies by every number and divides by the next, creating objects along the chain.
+	 *
+	 * @return the whole product.
+	 */
+	@Benchmark
+	public Complex chain()
+	{
+		Complex product = new Complex(1, 0);
+		for(int i = 1; i < numbers.length; i += 2)
+		{
+			product = product.multiply(numbers[i - 1]).divide(numbers[i]);
+		}
+		return product;
+	}
+
+	/**
+	 * Multiplies by every number and divides by the next, in place.
+	 *
+	 * @return the whole product.
+	 */
+	@Benchmark
+	public Complex chainAccumulated()
+	{
+		ComplexAccumulator product = new ComplexAccumulator(1, 0);
+		for(int i = 1; i < numbers.length; i += 2)
+		{
+			product.multiply(numbers[i - 1]).divide(numbers[i]);
+		}
+		return product.toComplex();
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import math.Evaluation;
+import math.PhaseFunction;
+import math.Precision;
+import math.TransferFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * The {@code FunctionBenchmark} class measures module and phase of whole systems over a grid,
+ * one frequency at a time and as a single batch.
+ * The precision only changes the batches, single frequencies are always exact.
+ * The evaluation changes both, summing one logarithm per root or taking one per frequency.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark
+{
+	/** Amount of roots of the system **/
+	@Param({"4", "16", "64"})
+	int roots;
+	/** Amount of frequencies in the grid **/
+	@Param({"100", "1000", "10000"})
+	int points;
+	/** How closely grids are evaluated **/
+	@Param({"EXACT", "FAST"})
+	Precision precision;
+	/** How the roots are combined **/
+	@Param({"SUM", "PRODUCT"})
+	Evaluation evaluation;
+
+	/** Module of the system **/
+	TransferFunction module = null;
+	/** Phase of the system **/
+	PhaseFunction phase = null;
+	/** Frequencies of the grid **/
+	double[] grid = null;
+	/** Values of the grid **/
+	double[] values = null;
+
+	/**
+	 * Creates the system and the grid.
+	 */
+	@Setup
+	public void setUp()
+	{
+		module = new RandomSystems().fill(new TransferFunction(), roots);
+		phase = new RandomSystems().fill(new PhaseFunction(), roots);
+		module.setPrecision(precision);
+		phase.setPrecision(precision);
+		module.setEvaluation(evaluation);
+		phase.setEvaluation(evaluation);
+		grid = RandomSystems.grid(0.01, 1000, points);
+		values = new double[points];
+	}
+
+	/**
+	 * Calculates the module one frequency at a time.
+	 *
+	 * @return sum of the values in dB.
+	 */
+	@Benchmark
+	public double transferValue()
+	{
+		double sum = 0;
+		for(int k = 0; k < grid.length; k++)
+		{
+			sum += module.getValue(grid[k]);
+		}
+		return sum;
+	}
+
+	/**
+	 * Calculates the phase one frequency at a time.
+	 *
+	 * @return sum of the values in degrees.
+	 */
+	@Benchmark
+	public double phaseValue()
+	{
+		double sum = 0;
+		for(int k = 0; k < grid.length; k++)
+		{
+			sum += phase.getValue(grid[k]);
+		}
+		return sum;
+	}
+
+	/**
+	 * Calculates the module of the whole grid at once.
+	 *
+	 * @return the values in dB.
+	 */
+	@Benchmark
+	public double[] transferValues()
+	{
+		module.getValues(grid, values);
+		return values;
+	}
+
+	/**
+	 * Calculates the phase of the whole grid at once.
+	 *
+	 * @return the values in degrees.
+	 */
+	@Benchmark
+	public double[] phaseValues()
+	{
+		phase.getValues(grid, values);
+		return values;
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import math.Evaluation;
+import math.FrequencyResponse;
+import math.PolynomialTransferFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * The {@code PolynomialBenchmark} class measures module and phase of a whole grid
+ * with the system written as polynomials against the same system written as roots.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolynomialBenchmark
+{
+	/** Amount of roots of the system **/
+	@Param({"16", "64", "256"})
+	int roots;
+	/** Amount of frequencies in the grid **/
+	@Param({"1000"})
+	int points;
+
+	/** System written as roots, summing one logarithm per root **/
+	FrequencyResponse sum = null;
+	/** System written as roots, taking one logarithm per frequency **/
+	FrequencyResponse product = null;
+	/** Same system written as polynomials **/
+	PolynomialTransferFunction polynomial = null;
+	/** Frequencies of the grid **/
+	double[] grid = null;
+	/** Module of the grid **/
+	double[] module = null;
+	/** Phase of the grid **/
+	double[] phase = null;
+
+	/**
+	 * Creates the system and the grid.
+	 */
+	@Setup
+	public void setUp()
+	{
+		sum = new RandomSystems().next(roots);
+		product = new RandomSystems().next(roots);
+		product.setEvaluation(Evaluation.PRODUCT);
+		polynomial = new PolynomialTransferFunction(sum);
+		grid = RandomSystems.grid(0.01, 1000, points);
+		module = new double[points];
+		phase = new double[points];
+	}
+
+	/**
+	 * Calculates the grid with the polynomials.
+	 *
+	 * @return the module in dB.
+	 */
+	@Benchmark
+	public double[] polynomial()
+	{
+		polynomial.getResponse(grid, module, phase);
+		return module;
+	}
+
+	/**
+	 * Calculates the grid with one logarithm per root.
+	 *
+	 * @return the module in dB.
+	 */
+	@Benchmark
+	public double[] sum()
+	{
+		sum.getResponse(grid, module, phase);
+		return module;
+	}
+
+	/**
+	 * Calculates the grid with one logarithm per frequency.
+	 *
+	 * @return the module in dB.
+	 */
+	@Benchmark
+	public double[] product()
+	{
+		product.getResponse(grid, module, phase);
+		return module;
+	}
+}
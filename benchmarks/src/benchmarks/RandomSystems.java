@@ -0,0 +1,161 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.util.Random;
+
+import math.FrequencyResponse;
+import math.Function;
+import math.Pole;
+import math.Zero;
+
+
+/**
+ * The {@code RandomSystems} class creates synthetic systems for the benchmarks.
+ * The same seed always gives the same systems, so results can be compared between runs.
+ * Poles are stable, a third of the roots are zeros, and half of the poles come
+ * in complex conjugate pairs, spread over five decades around 1 rad/s.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class RandomSystems
+{
+	/** Seed used when none is given **/
+	public static final long SEED = 20070101L;
+	/** Lowest decade of the roots **/
+	static final double LOWEST = -2;
+	/** Decades spanned by the roots **/
+	static final double DECADES = 5;
+
+	/** Source of every random value **/
+	Random random = null;
+
+	/**
+	 * Default constructor using the default seed.
+	 */
+	public RandomSystems()
+	{
+		this(SEED);
+	}
+
+	/**
+	 * Constructor defining the seed.
+	 *
+	 * @param seed defines the seed of the random values.
+	 */
+	public RandomSystems(long seed)
+	{
+		random = new Random(seed);
+	}
+
+	/**
+	 * Creates a system with random roots and constant.
+	 *
+	 * @param roots defines the amount of roots, counting each conjugate twice.
+	 * @return a new system.
+	 */
+	public FrequencyResponse next(int roots)
+	{
+		FrequencyResponse system = new FrequencyResponse();
+		system.setConstant(Math.pow(10, 2*random.nextDouble() - 1));
+		return fill(system, roots);
+	}
+
+	/**
+	 * Adds random roots to a function.
+	 *
+	 * @param function specifies the function receiving the roots.
+	 * @param roots defines the amount of roots, counting each conjugate twice.
+	 * @return the same function.
+	 */
+	public <T extends Function> T fill(T function, int roots)
+	{
+		int zeros = roots/3;
+		for(int i = 0; i < zeros; i++)
+		{
+			double sign = random.nextBoolean() ? 1 : -1;
+			function.addZero(new Zero(sign*magnitude(), 0));
+		}
+		int poles = roots - zeros;
+		while(poles > 0)
+		{
+			if(poles > 1 && random.nextBoolean())
+			{
+				double real = -magnitude();
+				double imaginary = magnitude();
+				function.addPole(new Pole(real, imaginary));
+				function.addPole(new Pole(real, -imaginary));
+				poles -= 2;
+			}
+			else
+			{
+				function.addPole(new Pole(-magnitude(), 0));
+				poles--;
+			}
+		}
+		return function;
+	}
+
+	/**
+	 * Creates random complex numbers.
+	 *
+	 * @param amount defines how many numbers are created.
+	 * @return the numbers, as zeros so they can also be evaluated.
+	 */
+	public Zero[] numbers(int amount)
+	{
+		Zero[] numbers = new Zero[amount];
+		for(int i = 0; i < amount; i++)
+		{
+			numbers[i] = new Zero(random.nextGaussian()*magnitude(), random.nextGaussian()*magnitude());
+		}
+		return numbers;
+	}
+
+	/**
+	 * Draws a positive value spread evenly over the decades of the roots.
+	 *
+	 * @return the value.
+	 */
+	double magnitude()
+	{
+		return Math.pow(10, LOWEST + DECADES*random.nextDouble());
+	}
+
+	/**
+	 * Creates a grid of frequencies evenly spaced in a logarithmic scale.
+	 *
+	 * @param from defines the lowest frequency in rad/s.
+	 * @param to defines the highest frequency in rad/s.
+	 * @param points defines the amount of frequencies, at least 2.
+	 * @return the frequencies.
+	 */
+	public static double[] grid(double from, double to, int points)
+	{
+		double[] grid = new double[points];
+		double first = Math.log10(from);
+		double step = (Math.log10(to) - first)/(points - 1);
+		for(int k = 0; k < points; k++)
+		{
+			grid[k] = Math.pow(10, first + k*step);
+		}
+		return grid;
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import math.PlottingCanvas;
+import math.TransferFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * The {@code RenderBenchmark} class measures a full render of the canvas into an offscreen image.
+ * The width of the image is the amount of columns sampled, so it plays the part of the grid size.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark
+{
+	/** Height of the image in pixels **/
+	static final int HEIGHT = 400;
+
+	/** Amount of roots of the system **/
+	@Param({"4", "16", "64"})
+	int roots;
+	/** Width of the image in pixels **/
+	@Param({"400", "1600"})
+	int width;
+
+	/** Canvas being rendered **/
+	PlottingCanvas canvas = null;
+	/** Image receiving the render **/
+	BufferedImage image = null;
+	/** Graphics of the image **/
+	Graphics graphics = null;
+
+	/**
+	 * Creates the canvas, its system and the image.
+	 */
+	@Setup
+	public void setUp()
+	{
+		canvas = new PlottingCanvas();
+		canvas.init();
+		canvas.setUnit(" dB");
+		canvas.setSize(width, HEIGHT);
+		canvas.setBandwidth(0.01, 1000);
+		canvas.setViewRange(40, -120);
+		canvas.setPlotFunction(new RandomSystems().fill(new TransferFunction(), roots));
+		image = new BufferedImage(width, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		graphics = image.getGraphics();
+	}
+
+	/**
+	 * Releases the graphics of the image.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		graphics.dispose();
+	}
+
+	/**
+	 * Renders axes and curve into the image.
+	 *
+	 * @return the image.
+	 */
+	@Benchmark
+	public BufferedImage render()
+	{
+		canvas.render(graphics);
+		return image;
+	}
+}
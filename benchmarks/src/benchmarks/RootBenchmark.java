@@ -0,0 +1,102 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import math.Pole;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * The {@code RootBenchmark} class measures the influence of a single pole over a grid.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RootBenchmark
+{
+	/** Amount of frequencies in the grid **/
+	@Param({"100", "1000", "10000"})
+	int points;
+
+	/** Pole being evaluated **/
+	Pole pole = null;
+	/** Frequencies of the grid **/
+	double[] grid = null;
+
+	/**
+	 * Creates the pole and the grid.
+	 */
+	@Setup
+	public void setUp()
+	{
+		pole = new Pole(-1.5, 2.0);
+		grid = RandomSystems.grid(0.01, 1000, points);
+	}
+
+	/**
+	 * Sums the module of the pole over the grid.
+	 *
+	 * @return sum of the values in dB.
+	 */
+	@Benchmark
+	public double dBValue()
+	{
+		double sum = 0;
+		for(int k = 0; k < grid.length; k++)
+		{
+			sum += pole.dBValue(grid[k]);
+		}
+		return sum;
+	}
+
+	/**
+	 * Sums the phase of the pole over the grid.
+	 *
+	 * @return sum of the values in rads.
+	 */
+	@Benchmark
+	public double arcValue()
+	{
+		double sum = 0;
+		for(int k = 0; k < grid.length; k++)
+		{
+			sum += pole.arcValue(grid[k]);
+		}
+		return sum;
+	}
+}
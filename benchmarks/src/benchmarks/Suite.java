@@ -0,0 +1,85 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * The {@code Suite} class runs the benchmarks with the allocation profiler always on.
+ * Any JMH option can be given, such as a regular expression selecting benchmarks.
+ * Forks run headless, and on Java 17 or later with the vector module added.
+ * Results, including the GC and allocation figures, are recorded in jmh-result.json.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class Suite
+{
+	/** File receiving the results **/
+	static final String RESULT = "jmh-result.json";
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args specifies JMH command line options.
+	 * @throws RunnerException if a benchmark failed.
+	 * @throws CommandLineOptionException if an option is wrong.
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException
+	{
+		CommandLineOptions given = new CommandLineOptions(args);
+		ArrayList<String> appended = new ArrayList<String>(given.getJvmArgsAppend().orElse(Collections.<String>emptyList()));
+		appended.add("-Djava.awt.headless=true");
+		if(isVectorCapable())
+		{
+			/** Lets the forks load the vectorized kernel **/
+			appended.add("--add-modules");
+			appended.add("jdk.incubator.vector");
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder()
+			.parent(given)
+			.addProfiler(GCProfiler.class)
+			.resultFormat(ResultFormatType.JSON)
+			.result(RESULT)
+			.jvmArgsAppend(appended.toArray(new String[appended.size()]));
+		new Runner(options.build()).run();
+	}
+
+	/**
+	 * Verifies if the JVM is recent enough for the vectorized kernel.
+	 *
+	 * @return whether the JVM is Java 17 or later.
+	 */
+	static boolean isVectorCapable()
+	{
+		String version = System.getProperty("java.specification.version");
+		return !version.startsWith("1.") && Integer.parseInt(version) >= 17;
+	}
+}
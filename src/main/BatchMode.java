@@ -0,0 +1,530 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package main;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.util.LinkedList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import math.Evaluation;
+import math.FrequencyResponse;
+import math.Precision;
+import math.SweepFile;
+import math.SweepWriter;
+import math.SystemParser;
+
+/**
+ * The {@code BatchMode} class evaluates many systems from the command line, without any UI.
+ * Systems are read in the format of {@link SystemParser}.
+ * For every system and frequency a line {@code system frequency module phase}
+ * is written, module in dB and phase in degrees, separated by tabs.
+ * With --format binary the results are written as a {@link SweepFile} instead.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class BatchMode
+{
+	/** Argument selecting the batch mode **/
+	static final String FLAG = "--batch";
+	/** Systems given to a worker at once, at most **/
+	static final int CHUNK = 64;
+	/** Values of the grid kept by a chunk, fewer systems are given at once for larger grids **/
+	static final int BUDGET = 1 << 16;
+	/** Characters of text kept at once, larger systems are written in pieces by the main thread **/
+	static final int TEXT = 1 << 20;
+	/** Characters taken by a line of text, as an estimate **/
+	static final int LINE = 48;
+	/** Marker put in the queue after the last system **/
+	static final FrequencyResponse END = new FrequencyResponse();
+	/** Text usage of the batch mode **/
+	static final String USAGE = "Usage: --batch [--input file] [--output file] [--format text|binary] [--precision exact|fast] [--evaluation sum|product] [--from rad/s] [--to rad/s] [--points n] [--threads n]";
+
+	/** Lowest frequency of the grid in rad/s **/
+	double from = 0.1;
+	/** Highest frequency of the grid in rad/s **/
+	double to = 1000;
+	/** Amount of frequencies in the grid **/
+	int points = 1000;
+	/** Amount of systems evaluated at the same time **/
+	int threads = Runtime.getRuntime().availableProcessors();
+	/** File with the systems, or null for the standard input **/
+	String input = null;
+	/** File receiving the results, or null for the standard output **/
+	String output = null;
+	/** Whether results are written as a {@link SweepFile} instead of text **/
+	boolean binary = false;
+	/** How closely the systems are evaluated **/
+	Precision precision = Precision.EXACT;
+	/** How the roots of the systems are combined **/
+	Evaluation evaluation = Evaluation.SUM;
+	/** Frequencies of the grid in rad/s **/
+	double[] grid = null;
+	/** Systems given to a worker at once for this grid **/
+	int chunk = CHUNK;
+	/** Systems already written **/
+	int emitted = 0;
+	/** Text being written in pieces **/
+	StringBuilder text = null;
+
+	/**
+	 * Verifies if the arguments ask for the batch mode.
+	 *
+	 * @param args specifies the command line arguments.
+	 * @return whether the batch mode was asked for or not.
+	 */
+	public static boolean isBatch(String[] args)
+	{
+		return args != null && args.length > 0 && FLAG.equals(args[0]);
+	}
+
+	/**
+	 * Runs the batch mode.
+	 *
+	 * @param args specifies the command line arguments, starting with --batch.
+	 * @param in specifies where systems are read from when no input file is given.
+	 * @param out specifies where results are written when no output file is given.
+	 * @param err specifies where problems are reported.
+	 * @return 0 if all systems were evaluated, 1 if something failed, 2 for wrong arguments.
+	 */
+	public static int run(String[] args, InputStream in, OutputStream out, PrintStream err)
+	{
+		BatchMode batch = new BatchMode();
+		try
+		{
+			batch.configure(args);
+		}
+		catch(IllegalArgumentException e)
+		{
+			err.println(e.getMessage());
+			err.println(USAGE);
+			return 2;
+		}
+		try
+		{
+			InputStream source = (batch.input != null) ? new FileInputStream(batch.input) : in;
+			try
+			{
+				if(batch.binary)
+				{
+					SweepWriter target = new SweepWriter(new File(batch.output), batch.grid);
+					boolean done = false;
+					try
+					{
+						batch.process(source, null, target);
+						done = true;
+					}
+					finally
+					{
+						if(done)
+						{
+							target.close();
+						}
+						else
+						{
+							target.abort();
+						}
+					}
+				}
+				else
+				{
+					OutputStream target = (batch.output != null) ? new FileOutputStream(batch.output) : out;
+					try
+					{
+						batch.process(source, target, null);
+					}
+					finally
+					{
+						if(batch.output != null)
+						{
+							target.close();
+						}
+					}
+				}
+			}
+			finally
+			{
+				if(batch.input != null)
+				{
+					source.close();
+				}
+			}
+		}
+		catch(IOException e)
+		{
+			err.println(e.getMessage());
+			return 1;
+		}
+		catch(IllegalArgumentException e)
+		{
+			err.println(e.getMessage());
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Reads the options given after --batch.
+	 *
+	 * @param args specifies the command line arguments.
+	 * @throws IllegalArgumentException if an option is unknown or has a wrong value.
+	 */
+	void configure(String[] args)
+	{
+		for(int i = 1; i < args.length; i++)
+		{
+			if(i + 1 >= args.length)
+			{
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+			String value = args[i + 1];
+			try
+			{
+				if(args[i].equals("--input"))
+				{
+					input = value;
+				}
+				else if(args[i].equals("--output"))
+				{
+					output = value;
+				}
+				else if(args[i].equals("--format"))
+				{
+					if(!value.equals("text") && !value.equals("binary"))
+					{
+						throw new IllegalArgumentException("Unknown format " + value);
+					}
+					binary = value.equals("binary");
+				}
+				else if(args[i].equals("--precision"))
+				{
+					if(!value.equals("exact") && !value.equals("fast"))
+					{
+						throw new IllegalArgumentException("Unknown precision " + value);
+					}
+					precision = value.equals("fast") ? Precision.FAST : Precision.EXACT;
+				}
+				else if(args[i].equals("--evaluation"))
+				{
+					if(!value.equals("sum") && !value.equals("product"))
+					{
+						throw new IllegalArgumentException("Unknown evaluation " + value);
+					}
+					evaluation = value.equals("product") ? Evaluation.PRODUCT : Evaluation.SUM;
+				}
+				else if(args[i].equals("--from"))
+				{
+					from = Double.parseDouble(value);
+				}
+				else if(args[i].equals("--to"))
+				{
+					to = Double.parseDouble(value);
+				}
+				else if(args[i].equals("--points"))
+				{
+					points = Integer.parseInt(value);
+				}
+				else if(args[i].equals("--threads"))
+				{
+					threads = Integer.parseInt(value);
+				}
+				else
+				{
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+			catch(NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Wrong value for " + args[i] + ": " + value);
+			}
+			i++;
+		}
+		if(!(from > 0) || !(to > from) || points < 2 || threads < 1)
+		{
+			throw new IllegalArgumentException("Grid needs 0 < from < to, at least 2 points and 1 thread");
+		}
+		if(binary && output == null)
+		{
+			throw new IllegalArgumentException("Binary format needs an output file");
+		}
+		if(binary && points > SweepWriter.MAXIMUM)
+		{
+			throw new IllegalArgumentException("Binary format takes at most " + SweepWriter.MAXIMUM + " points");
+		}
+		grid = new double[points];
+		double first = Math.log10(from);
+		double step = (Math.log10(to) - first)/(points - 1);
+		for(int k = 0; k < points; k++)
+		{
+			grid[k] = Math.pow(10, first + k*step);
+		}
+		chunk = Math.max(1, Math.min(CHUNK, BUDGET/points));
+	}
+
+	/**
+	 * Evaluates every system read, writing the results in the same order.
+	 * A reader thread parses the systems into a bounded queue, from which
+	 * they are handed to the workers in chunks. Only a few chunks are kept
+	 * pending and larger grids get fewer systems per chunk, so memory does
+	 * not grow with the input.
+	 *
+	 * @param source specifies where systems are read from.
+	 * @param text specifies where results are written as text, or null.
+	 * @param sweep specifies where results are written as binary, or null.
+	 * @throws IOException if reading or writing failed.
+	 */
+	void process(InputStream source, OutputStream text, SweepWriter sweep) throws IOException
+	{
+		final SystemParser parser = new SystemParser(Channels.newChannel(source));
+		final BlockingQueue<FrequencyResponse> queue = new ArrayBlockingQueue<FrequencyResponse>(CHUNK*threads);
+		Writer writer = (text != null) ? new BufferedWriter(new OutputStreamWriter(text, "UTF-8"), 1 << 16) : null;
+		ExecutorService reader = Executors.newSingleThreadExecutor();
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		LinkedList<Future<Object>> pending = new LinkedList<Future<Object>>();
+		try
+		{
+			Future<Integer> read = reader.submit(new Callable<Integer>()
+			{
+				public Integer call() throws IOException, InterruptedException
+				{
+					return parser.drainTo(queue, END);
+				}
+			});
+			FrequencyResponse[] systems = new FrequencyResponse[chunk];
+			int filled = 0;
+			int index = 0;
+			FrequencyResponse system = next(queue);
+			while(system != END)
+			{
+				systems[filled++] = system;
+				if(filled == chunk)
+				{
+					pending.add(workers.submit(evaluate(systems, filled, index, sweep == null && (long)LINE*grid.length <= TEXT)));
+					index += filled;
+					systems = new FrequencyResponse[chunk];
+					filled = 0;
+					while(pending.size() > 2*threads)
+					{
+						emit(take(pending.removeFirst()), writer, sweep);
+					}
+				}
+				system = next(queue);
+			}
+			if(filled > 0)
+			{
+				pending.add(workers.submit(evaluate(systems, filled, index, sweep == null && (long)LINE*grid.length <= TEXT)));
+			}
+			while(!pending.isEmpty())
+			{
+				emit(take(pending.removeFirst()), writer, sweep);
+			}
+			if(writer != null)
+			{
+				writer.flush();
+			}
+			/** Reports problems found by the reader **/
+			take(read);
+		}
+		finally
+		{
+			reader.shutdownNow();
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Takes the next system parsed by the reader.
+	 *
+	 * @param queue specifies the systems parsed.
+	 * @return the system, or the end marker.
+	 * @throws IOException if the thread was interrupted.
+	 */
+	private static FrequencyResponse next(BlockingQueue<FrequencyResponse> queue) throws IOException
+	{
+		try
+		{
+			return queue.take();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for systems");
+		}
+	}
+
+	/**
+	 * Waits for a task to finish.
+	 *
+	 * @param task specifies the task.
+	 * @return the result of the task.
+	 * @throws IOException if the task failed reading or the thread was interrupted.
+	 */
+	private static <T> T take(Future<T> task) throws IOException
+	{
+		try
+		{
+			return task.get();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for results");
+		}
+		catch(ExecutionException e)
+		{
+			if(e.getCause() instanceof IllegalArgumentException)
+			{
+				throw (IllegalArgumentException)e.getCause();
+			}
+			if(e.getCause() instanceof IOException)
+			{
+				throw (IOException)e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Writes the results of a chunk.
+	 * Module and phase meant for text are formatted here, a piece at a time,
+	 * so the text of a large grid is never kept whole.
+	 *
+	 * @param result specifies the text, or the module and phase of each system.
+	 * @param writer specifies where text is written.
+	 * @param sweep specifies where binary results are written.
+	 * @throws IOException if writing failed.
+	 */
+	private void emit(Object result, Writer writer, SweepWriter sweep) throws IOException
+	{
+		if(result instanceof String[])
+		{
+			for(String lines : (String[])result)
+			{
+				writer.write(lines);
+				emitted++;
+			}
+			return;
+		}
+		double[][] responses = (double[][])result;
+		for(int s = 0; s < responses.length; s += 2)
+		{
+			if(sweep != null)
+			{
+				sweep.write(responses[s], responses[s + 1]);
+			}
+			else
+			{
+				if(text == null)
+				{
+					text = new StringBuilder(TEXT + 2*LINE);
+				}
+				for(int k = 0; k < grid.length; k++)
+				{
+					line(text, emitted, grid[k], responses[s][k], responses[s + 1][k]);
+					if(text.length() >= TEXT)
+					{
+						writer.append(text);
+						text.setLength(0);
+					}
+				}
+				writer.append(text);
+				text.setLength(0);
+			}
+			emitted++;
+		}
+	}
+
+	/**
+	 * Formats one line of text.
+	 *
+	 * @param text specifies where the line is appended.
+	 * @param system defines the number of the system.
+	 * @param frequency defines the frequency in rad/s.
+	 * @param module defines the module in dB.
+	 * @param phase defines the phase in degrees.
+	 */
+	private static void line(StringBuilder text, int system, double frequency, double module, double phase)
+	{
+		text.append(system).append('\t').append(frequency).append('\t');
+		text.append(module).append('\t').append(phase).append('\n');
+	}
+
+	/**
+	 * Creates the task evaluating a chunk of systems.
+	 *
+	 * @param systems specifies the systems.
+	 * @param count defines how many systems are used.
+	 * @param index defines the number of the first system.
+	 * @param formatted defines whether the results are formatted as text, only for grids whose text is small.
+	 * @return the task giving the text, or the module and phase of each system.
+	 */
+	private Callable<Object> evaluate(final FrequencyResponse[] systems, final int count, final int index, final boolean formatted)
+	{
+		return new Callable<Object>()
+		{
+			public Object call()
+			{
+				for(int s = 0; s < count; s++)
+				{
+					systems[s].setPrecision(precision);
+					systems[s].setEvaluation(evaluation);
+				}
+				if(!formatted)
+				{
+					double[][] responses = new double[2*count][grid.length];
+					for(int s = 0; s < count; s++)
+					{
+						systems[s].getResponse(grid, responses[2*s], responses[2*s + 1]);
+					}
+					return responses;
+				}
+				double[] module = new double[grid.length];
+				double[] phase = new double[grid.length];
+				String[] texts = new String[count];
+				for(int s = 0; s < count; s++)
+				{
+					systems[s].getResponse(grid, module, phase);
+					StringBuilder lines = new StringBuilder(LINE*grid.length);
+					for(int k = 0; k < grid.length; k++)
+					{
+						line(lines, index + s, grid[k], module[k], phase[k]);
+					}
+					texts[s] = lines.toString();
+				}
+				return texts;
+			}
+		};
+	}
+}
@@ -39,10 +39,11 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 
+import math.FrequencyResponse;
 import math.PhaseFunction;
 import math.PlottingCanvas;
+import math.Precision;
 import math.Pole;
-import math.TransferFunction;
 import math.Zero;
 
 /**
@@ -63,17 +64,29 @@ public class Main
 	/** Simple label for transfer function display of zeros **/
 	static JLabel listzero = null;
 	
-	/** Actual mathematical gain function **/
-	static TransferFunction modhjw = null;
-	/** Actual mathematical delay function **/
+	/** Actual mathematical gain function, also holding the roots for the delay **/
+	static FrequencyResponse modhjw = null;
+	/** Actual mathematical delay function, sharing the roots of the gain **/
 	static PhaseFunction arghjw = null;
 	
 	/**
 	 * Starts up the window where graphs will be plotted.
+	 * Starting with --batch evaluates systems from the command line instead,
+	 * see {@link BatchMode}.
 	 * 
-	 * @param args is just kept for signature. Entirely ignored.
+	 * @param args defines the batch options, or nothing for the window.
 	 */
 	public static void main(String[] args) {
+		if(BatchMode.isBatch(args))
+		{
+			int status = BatchMode.run(args, System.in, System.out, System.err);
+			if(status != 0)
+			{
+				System.exit(status);
+			}
+			return;
+		}
+		
 		/** Initializing the JFrame window **/
 		JFrame window = new JFrame("Bode Graph Plotter");
 		window.setContentPane(new JPanel());
@@ -164,14 +177,15 @@ public class Main
 	}
 	
 	/**
-	 * Creates two empty functions, one for gain and one for delay.
+	 * Creates an empty response, with one function for gain and one for delay over the same roots.
 	 * Also creates the UI for displaying the response based on frequency.
 	 * 
 	 * @param middle specifies the container where the graphs will be placed.
 	 * @param window specifies the container where the main UI is being placed.
 	 */
 	private static void createFunctionsPlot(final JPanel middle, Container window) {
-		modhjw = new TransferFunction();
+		modhjw = new FrequencyResponse();
+		modhjw.setPrecision(Precision.FAST);
 		
 		module = new PlottingCanvas();
 		module.init();
@@ -180,7 +194,7 @@ public class Main
 		module.setViewRange(100, -100);
 		module.setBounds(0,0,200,200);
 		
-		arghjw = new PhaseFunction();
+		arghjw = modhjw.getPhaseFunction();
 		
 		phase = new PlottingCanvas();
 		phase.init();
@@ -431,7 +445,6 @@ public class Main
 				Double re = new Double(real.getText());
 				Double im = new Double(imaginary.getText());
 				modhjw.addZero(new Zero(re.doubleValue(),im.doubleValue()));
-				arghjw.addZero(new Zero(re.doubleValue(),im.doubleValue()));
 				rewriteFunctionLabels();
 				phase.repaint();
 				module.repaint();
@@ -448,7 +461,6 @@ public class Main
 				Double re = new Double(real.getText());
 				Double im = new Double(imaginary.getText());
 				modhjw.addPole(new Pole(re.doubleValue(),im.doubleValue()));
-				arghjw.addPole(new Pole(re.doubleValue(),im.doubleValue()));
 				rewriteFunctionLabels();
 				phase.repaint();
 				module.repaint();
@@ -486,7 +498,6 @@ public class Main
 			public void actionPerformed(ActionEvent arg0) 
 			{
 				modhjw.removeAll();
-				arghjw.removeAll();
 				constant.setText("1");
 				real.setText("0");
 				imaginary.setText("0");
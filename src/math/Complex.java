@@ -57,25 +57,18 @@ public class Complex
 	
 	/**
 	 * Returns the phase of the complex number for polar coordinates.
+	 * Both signs are considered, so the angle is in the right quadrant.
+	 * Zero keeps the phase of pi/2 it always had.
 	 *  
-	 * @return value of the phase.
+	 * @return value of the phase, between -pi and pi.
 	 */
 	public double getPhase()
 	{
-		if(real != 0)
-		{
-			return Math.atan(imaginary/real);
-		}
-		else
+		if(isNull())
 		{
-			if(imaginary >= 0)
-			{
-				return Math.PI/2;
-			}
-			else{
-				return -Math.PI/2;
-			}
+			return Math.PI/2;
 		}
+		return Math.atan2(imaginary, real);
 	}
 	
 	/**
@@ -139,15 +132,15 @@ public class Complex
 	
 	/**
 	 * Performs the division operation.
+	 * Uses Smith's algorithm in rectangular form, so no angles are calculated
+	 * and parts far from 1 do not overflow halfway.
 	 * 
-	 * @param whole defines another complex number to divide the current.
+	 * @param denominator defines another complex number to divide the current.
 	 * @return a new complex number with the operation result.  
 	 */
 	public Complex divide(Complex denominator)
 	{
-		double thetaline = getPhase() - denominator.getPhase();
-		double radius = getModule()/denominator.getModule();
-		return new Complex(Math.cos(thetaline)*radius,Math.sin(thetaline)*radius);
+		return new ComplexAccumulator(real, imaginary).divide(denominator).toComplex();
 	}
 	
 	/**
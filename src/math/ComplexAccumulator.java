@@ -0,0 +1,218 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code ComplexAccumulator} class is a complex number changed in place.
+ * Long chains of products and divisions, such as H(jw) over all roots,
+ * can then run without creating an object per operation.
+ * Operations return the accumulator itself, so they can be chained.
+ * 
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class ComplexAccumulator
+{
+	/** Real part of the accumulated value **/
+	double real = 0;
+	/** Imaginary part of the accumulated value **/
+	double imaginary = 0;
+	
+	/**
+	 * Default constructor starting from zero.
+	 */
+	public ComplexAccumulator()
+	{
+		this(0, 0);
+	}
+	
+	/**
+	 * Constructor defining the starting value.
+	 * 
+	 * @param real_part defines the real argument.
+	 * @param imaginary_part defines the imaginary argument.
+	 */
+	public ComplexAccumulator(double real_part, double imaginary_part)
+	{
+		real = real_part;
+		imaginary = imaginary_part;
+	}
+	
+	/**
+	 * Replaces the accumulated value.
+	 * 
+	 * @param real_part defines the real argument.
+	 * @param imaginary_part defines the imaginary argument.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator set(double real_part, double imaginary_part)
+	{
+		real = real_part;
+		imaginary = imaginary_part;
+		return this;
+	}
+	
+	/**
+	 * Returns the real component of the accumulated value.
+	 * 
+	 * @return value of the real component.
+	 */
+	public double getReal()
+	{
+		return real;
+	}
+	
+	/**
+	 * Returns the imaginary component of the accumulated value.
+	 * 
+	 * @return value of the imaginary component.
+	 */
+	public double getImaginary()
+	{
+		return imaginary;
+	}
+	
+	/**
+	 * Returns the module of the accumulated value.
+	 * 
+	 * @return value of the module.
+	 */
+	public double getModule()
+	{
+		return Math.hypot(real, imaginary);
+	}
+	
+	/**
+	 * Returns the phase of the accumulated value, with the convention of {@link Complex#getPhase()}.
+	 * 
+	 * @return value of the phase, between -pi and pi.
+	 */
+	public double getPhase()
+	{
+		if(real == 0 && imaginary == 0)
+		{
+			return Math.PI/2;
+		}
+		return Math.atan2(imaginary, real);
+	}
+	
+	/**
+	 * Adds a complex number to the accumulated value.
+	 * 
+	 * @param re defines the real part to be added.
+	 * @param im defines the imaginary part to be added.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator add(double re, double im)
+	{
+		real += re;
+		imaginary += im;
+		return this;
+	}
+	
+	/**
+	 * Adds a complex number to the accumulated value.
+	 * 
+	 * @param whole defines the complex number to be added.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator add(Complex whole)
+	{
+		return add(whole.real, whole.imaginary);
+	}
+	
+	/**
+	 * Multiplies the accumulated value by a complex number.
+	 * 
+	 * @param re defines the real part of the multiplier.
+	 * @param im defines the imaginary part of the multiplier.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator multiply(double re, double im)
+	{
+		double temporary = real*re - imaginary*im;
+		imaginary = real*im + imaginary*re;
+		real = temporary;
+		return this;
+	}
+	
+	/**
+	 * Multiplies the accumulated value by a complex number.
+	 * 
+	 * @param multiplier defines the complex number to multiply by.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator multiply(Complex multiplier)
+	{
+		return multiply(multiplier.real, multiplier.imaginary);
+	}
+	
+	/**
+	 * Divides the accumulated value by a complex number, with Smith's algorithm.
+	 * The larger part of the denominator is divided out first, so the
+	 * intermediate values stay near the result instead of squaring the denominator.
+	 * Dividing by zero gives NaN parts.
+	 * 
+	 * @param re defines the real part of the denominator.
+	 * @param im defines the imaginary part of the denominator.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator divide(double re, double im)
+	{
+		if(Math.abs(re) >= Math.abs(im))
+		{
+			double ratio = im/re;
+			double scale = re + im*ratio;
+			double temporary = (real + imaginary*ratio)/scale;
+			imaginary = (imaginary - real*ratio)/scale;
+			real = temporary;
+		}
+		else
+		{
+			double ratio = re/im;
+			double scale = re*ratio + im;
+			double temporary = (real*ratio + imaginary)/scale;
+			imaginary = (imaginary*ratio - real)/scale;
+			real = temporary;
+		}
+		return this;
+	}
+	
+	/**
+	 * Divides the accumulated value by a complex number, with Smith's algorithm.
+	 * 
+	 * @param denominator defines the complex number to divide by.
+	 * @return this accumulator.
+	 */
+	public ComplexAccumulator divide(Complex denominator)
+	{
+		return divide(denominator.real, denominator.imaginary);
+	}
+	
+	/**
+	 * Creates an immutable copy of the accumulated value.
+	 * 
+	 * @return a new complex number.
+	 */
+	public Complex toComplex()
+	{
+		return new Complex(real, imaginary);
+	}
+}
@@ -0,0 +1,206 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code Decimator} class reduces a series to what the pixels can show.
+ * Only the visible part of the series is kept, plus one sample on each side
+ * so the line still leaves the graph in the right direction.
+ * Series must be sorted by frequency.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class Decimator
+{
+	/**
+	 * Keeps only the lowest and the highest sample of each pixel column.
+	 * Both are kept in the order they appear, so peaks of any width remain visible
+	 * while the result never has more than two samples per column.
+	 *
+	 * @param series specifies the samples to be reduced.
+	 * @param axis specifies the visible range.
+	 * @return the reduced series.
+	 */
+	public static SampledCurve minMax(SampledCurve series, LogAxis axis)
+	{
+		SampledCurve reduced = new SampledCurve();
+		int[] range = visible(series, axis);
+		int i = range[0];
+		while(i < range[1])
+		{
+			int column = axis.toPixel(series.getPosition(i));
+			int lowest = i;
+			int highest = i;
+			int j = i + 1;
+			while(j < range[1] && axis.toPixel(series.getPosition(j)) == column)
+			{
+				if(series.getValue(j) < series.getValue(lowest))
+				{
+					lowest = j;
+				}
+				if(series.getValue(j) > series.getValue(highest))
+				{
+					highest = j;
+				}
+				j++;
+			}
+			int before = Math.min(lowest, highest);
+			int after = Math.max(lowest, highest);
+			reduced.add(series.getPosition(before), series.getValue(before));
+			if(after != before)
+			{
+				reduced.add(series.getPosition(after), series.getValue(after));
+			}
+			i = j;
+		}
+		return reduced;
+	}
+
+	/**
+	 * Keeps the samples forming the largest triangles, a fixed amount of them.
+	 * The visible samples are split into buckets, and from each bucket the one
+	 * forming the largest triangle with the sample kept before and the average
+	 * of the next bucket is chosen. The first and the last samples are always kept.
+	 *
+	 * @param series specifies the samples to be reduced.
+	 * @param axis specifies the visible range.
+	 * @param threshold defines how many samples are kept.
+	 * @return the reduced series.
+	 */
+	public static SampledCurve triangles(SampledCurve series, LogAxis axis, int threshold)
+	{
+		SampledCurve reduced = new SampledCurve();
+		int[] range = visible(series, axis);
+		int length = range[1] - range[0];
+		if(threshold < 3 || length <= threshold)
+		{
+			for(int i = range[0]; i < range[1]; i++)
+			{
+				reduced.add(series.getPosition(i), series.getValue(i));
+			}
+			return reduced;
+		}
+		double bucket = (length - 2)/(double)(threshold - 2);
+		int kept = range[0];
+		reduced.add(series.getPosition(kept), series.getValue(kept));
+		for(int b = 0; b < threshold - 2; b++)
+		{
+			int start = range[0] + 1 + (int)(b*bucket);
+			int end = range[0] + 1 + (int)((b + 1)*bucket);
+			int nextend = Math.min(range[0] + 1 + (int)((b + 2)*bucket), range[1]);
+			double averagex = 0;
+			double averagey = 0;
+			for(int k = end; k < nextend; k++)
+			{
+				averagex += series.getPosition(k);
+				averagey += series.getValue(k);
+			}
+			averagex = averagex/(nextend - end);
+			averagey = averagey/(nextend - end);
+
+			double keptx = series.getPosition(kept);
+			double kepty = series.getValue(kept);
+			double largest = -1;
+			int chosen = start;
+			for(int k = start; k < end; k++)
+			{
+				double area = Math.abs((keptx - averagex)*(series.getValue(k) - kepty) - (keptx - series.getPosition(k))*(averagey - kepty));
+				if(area > largest)
+				{
+					largest = area;
+					chosen = k;
+				}
+			}
+			reduced.add(series.getPosition(chosen), series.getValue(chosen));
+			kept = chosen;
+		}
+		reduced.add(series.getPosition(range[1] - 1), series.getValue(range[1] - 1));
+		return reduced;
+	}
+
+	/**
+	 * Finds the samples inside the axis, plus the closest one outside at each side.
+	 * Both ends are found by binary search, so only the visible part is ever walked.
+	 *
+	 * @param series specifies the samples sorted by frequency.
+	 * @param axis specifies the visible range.
+	 * @return index of the first sample and index after the last sample.
+	 */
+	static int[] visible(SampledCurve series, LogAxis axis)
+	{
+		int count = series.getCount();
+		int from = Math.max(0, Math.min(count - 1, after(series, axis.getFirst()) - 1));
+		int to = Math.min(count, Math.max(from + 1, before(series, axis.getLast()) + 1));
+		return new int[] { from, to };
+	}
+
+	/**
+	 * Counts the samples at or before a position.
+	 *
+	 * @param series specifies the samples sorted by frequency.
+	 * @param where defines the logarithm of the frequency.
+	 * @return index of the first sample after the position.
+	 */
+	private static int after(SampledCurve series, double where)
+	{
+		int low = 0;
+		int high = series.getCount();
+		while(low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if(series.position[middle] <= where)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Counts the samples before a position.
+	 *
+	 * @param series specifies the samples sorted by frequency.
+	 * @param where defines the logarithm of the frequency.
+	 * @return index of the first sample at or after the position.
+	 */
+	private static int before(SampledCurve series, double where)
+	{
+		int low = 0;
+		int high = series.getCount();
+		while(low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if(series.position[middle] < where)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return low;
+	}
+}
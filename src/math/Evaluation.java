@@ -0,0 +1,38 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code Evaluation} enum selects how the influences of the roots are combined.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public enum Evaluation
+{
+	/** Logarithm and arc tangent of every root, summed **/
+	SUM,
+	/**
+	 * Product of the complex factors of all roots, see {@link RootProduct}.
+	 * Only one logarithm and one arc tangent are taken per frequency, so it pays off for high orders
+	 * with the scalar kernels, while the vectorized sums of Java 17 stay faster.
+	 */
+	PRODUCT
+}
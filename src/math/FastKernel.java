@@ -0,0 +1,242 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code FastKernel} class applies the influence of one root with approximated logarithms and arc tangents.
+ * The logarithm splits the exponent off the bits of the double and approximates log2
+ * of the mantissa, reduced to [sqrt(1/2), sqrt(2)), with the series 2*atanh(s)/ln(2) up to s^7.
+ * The arc tangent reduces its argument to [-1, 1] and uses the polynomial of
+ * Abramowitz and Stegun 4.4.49, whose error is under 2e-8 rad.
+ * Each root term then stays within {@link #MODULE_ERROR} dB and {@link #PHASE_ERROR} degrees,
+ * so a function with n roots stays within n times those bounds.
+ * Values that are zero, subnormal, infinite or NaN go to {@link Math}, so special cases match the exact path.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class FastKernel extends RootKernel
+{
+	/** Largest error of the module of one root term, in dB **/
+	public static final double MODULE_ERROR = 1e-6;
+	/** Largest error of the phase of one root term, in degrees **/
+	public static final double PHASE_ERROR = 1e-5;
+
+	/** Decibels of a power ratio of 2, 10*log10(2) **/
+	static final double DB_PER_OCTAVE = 10*Math.log10(2);
+	/** Factor of the atanh series giving log2, 2/ln(2) **/
+	static final double LOG2_FACTOR = 2/Math.log(2);
+	/** Bits of the exponent of a double **/
+	static final long EXPONENT = 0x7FF0000000000000L;
+	/** Bits of the mantissa of a double **/
+	static final long MANTISSA = 0x000FFFFFFFFFFFFFL;
+	/** Bits of 1.0, which has a zero exponent **/
+	static final long ONE = 0x3FF0000000000000L;
+	/** Mantissa above which the value is halved, so it ends below sqrt(2) **/
+	static final double SQRT2 = Math.sqrt(2);
+	/** Coefficients of x^2, x^4, ..., x^16 of the arc tangent polynomial **/
+	static final double[] ATAN = { -0.3333314528, 0.1999355085, -0.1420889944, 0.1065626393, -0.0752896400, 0.0429096138, -0.0161657367, 0.0028662257 };
+
+	/**
+	 * Approximates 10*log10(m), the power ratio m in dB.
+	 *
+	 * @param m specifies the power ratio.
+	 * @return value in dB.
+	 */
+	static double dB(double m)
+	{
+		if(!(m >= Double.MIN_NORMAL && m <= Double.MAX_VALUE))
+		{
+			return 10*Math.log10(m);
+		}
+		long bits = Double.doubleToRawLongBits(m);
+		int exponent = (int)((bits & EXPONENT) >>> 52) - 1023;
+		double mantissa = Double.longBitsToDouble((bits & MANTISSA) | ONE);
+		if(mantissa > SQRT2)
+		{
+			mantissa *= 0.5;
+			exponent++;
+		}
+		double s = (mantissa - 1)/(mantissa + 1);
+		double s2 = s*s;
+		double series = s*(1 + s2*(1.0/3 + s2*(1.0/5 + s2*(1.0/7))));
+		return DB_PER_OCTAVE*(exponent + LOG2_FACTOR*series);
+	}
+
+	/**
+	 * Approximates the arc tangent.
+	 *
+	 * @param t specifies the tangent.
+	 * @return angle in rads, between -pi/2 and pi/2.
+	 */
+	static double atan(double t)
+	{
+		if(t > 1 || t < -1)
+		{
+			if(Double.isInfinite(t))
+			{
+				return Math.atan(t);
+			}
+			double inverse = 1/t;
+			return ((t > 0) ? Math.PI/2 : -Math.PI/2) - reduced(inverse);
+		}
+		return reduced(t);
+	}
+
+	/**
+	 * Approximates the arc tangent given both sides, in the same quadrants as {@link Math#atan2(double, double)}.
+	 *
+	 * @param y specifies the side opposite to the angle.
+	 * @param x specifies the side adjacent to the angle.
+	 * @return angle in rads, between -pi and pi.
+	 */
+	static double atan2(double y, double x)
+	{
+		double ay = Math.abs(y);
+		double ax = Math.abs(x);
+		if(!(ax < Double.POSITIVE_INFINITY && ay < Double.POSITIVE_INFINITY) || (ax == 0 && ay == 0))
+		{
+			return Math.atan2(y, x);
+		}
+		double angle = (ay <= ax) ? reduced(ay/ax) : Math.PI/2 - reduced(ax/ay);
+		if(x < 0)
+		{
+			angle = Math.PI - angle;
+		}
+		return (y < 0 || (y == 0 && 1/y < 0)) ? -angle : angle;
+	}
+
+	/**
+	 * Evaluates the arc tangent polynomial.
+	 *
+	 * @param t specifies a tangent between -1 and 1.
+	 * @return angle in rads.
+	 */
+	private static double reduced(double t)
+	{
+		double t2 = t*t;
+		double sum = ATAN[7];
+		for(int i = 6; i >= 0; i--)
+		{
+			sum = ATAN[i] + t2*sum;
+		}
+		return t*(1 + t2*sum);
+	}
+
+	@Override
+	public void addFirstModule(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		double square = re*re;
+		for(int k = 0; k < length; k++)
+		{
+			double distance = frequencies[offset + k] - im;
+			values[valuesOffset + k] += weight*dB(square + distance*distance);
+		}
+	}
+
+	@Override
+	public void addFirstPhase(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			values[valuesOffset + k] += weight*arc(re, frequencies[offset + k] - im);
+		}
+	}
+
+	@Override
+	public void addFirstResponse(double re, double im, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		double square = re*re;
+		for(int k = 0; k < length; k++)
+		{
+			double distance = frequencies[offset + k] - im;
+			module[valuesOffset + k] += weight*dB(square + distance*distance);
+			phase[valuesOffset + k] += weight*arc(re, distance);
+		}
+	}
+
+	@Override
+	public void addSectionModule(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			double x = frequencies[offset + k];
+			double re = square - x*x;
+			double im = twice*x;
+			values[valuesOffset + k] += weight*dB(re*re + im*im);
+		}
+	}
+
+	@Override
+	public void addSectionPhase(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			double x = frequencies[offset + k];
+			values[valuesOffset + k] += weight*arc(twice, x, square - x*x);
+		}
+	}
+
+	@Override
+	public void addSectionResponse(double square, double twice, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			double x = frequencies[offset + k];
+			double re = square - x*x;
+			double im = twice*x;
+			module[valuesOffset + k] += weight*dB(re*re + im*im);
+			phase[valuesOffset + k] += weight*arc(twice, x, re);
+		}
+	}
+
+	/**
+	 * Approximates the phase of (jw - root) with the convention of {@link Zero#arc(double, double, double)}.
+	 *
+	 * @param re defines the real part of the root.
+	 * @param distance specifies the frequency minus the imaginary part of the root.
+	 * @return phase in rads.
+	 */
+	private static double arc(double re, double distance)
+	{
+		if(re != 0)
+		{
+			return atan(distance/(-re));
+		}
+		return (distance >= 0) ? Math.PI/2 : -Math.PI/2;
+	}
+
+	/**
+	 * Approximates the phase of a section with the convention of {@link SecondOrderSection#arc(double, double, double)}.
+	 *
+	 * @param twice defines 2*zeta*wn.
+	 * @param x specifies the frequency.
+	 * @param re specifies wn^2 minus the square of the frequency.
+	 * @return phase in rads.
+	 */
+	private static double arc(double twice, double x, double re)
+	{
+		if(twice != 0)
+		{
+			return atan2(twice*x, re);
+		}
+		return (re > 0) ? 0 : Math.PI;
+	}
+}
@@ -0,0 +1,378 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.Arrays;
+
+
+/**
+ * The {@code FrequencyResponse} class computes module and phase of the Bode Plot together.
+ * It holds a single set of Zeros and Poles plus a defined constant.
+ * As a function it returns the module, while {@link #getPhaseFunction()}
+ * gives a phase function over the very same roots.
+ * Grid evaluations are cached, so editing the roots costs one root over the grid.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class FrequencyResponse extends TransferFunction
+{
+	/** Phase function sharing the roots of this response **/
+	PhaseFunction phase = null;
+	/** Summed influences over the last evaluated grids **/
+	ResponseCache cache = null;
+
+	/**
+	 * Default constructor defining an empty response.
+	 */
+	public FrequencyResponse()
+	{
+		super();
+		phase = new SharedPhaseFunction();
+		cache = new ResponseCache();
+	}
+
+	/**
+	 * Gets the phase function over the same roots.
+	 * Roots added to either one are seen by both.
+	 *
+	 * @return phase function of this response.
+	 */
+	public PhaseFunction getPhaseFunction()
+	{
+		return phase;
+	}
+
+	@Override
+	public void addPole(Pole newone)
+	{
+		synchronized(getLock())
+		{
+			super.addPole(newone);
+			cache.apply(newone, -1, zeros.getPrecision());
+		}
+	}
+
+	@Override
+	public void addZero(Zero newone)
+	{
+		synchronized(getLock())
+		{
+			super.addZero(newone);
+			cache.apply(newone, 1, zeros.getPrecision());
+		}
+	}
+
+	@Override
+	public boolean removePole(Pole oldone)
+	{
+		synchronized(getLock())
+		{
+			boolean found = super.removePole(oldone);
+			if(found)
+			{
+				cache.apply(oldone, 1, zeros.getPrecision());
+			}
+			return found;
+		}
+	}
+
+	@Override
+	public boolean removeZero(Zero oldone)
+	{
+		synchronized(getLock())
+		{
+			boolean found = super.removeZero(oldone);
+			if(found)
+			{
+				cache.apply(oldone, -1, zeros.getPrecision());
+			}
+			return found;
+		}
+	}
+
+	/** Needs to be overridden to reset the cached sums **/
+	@Override
+	public void removeAll()
+	{
+		synchronized(getLock())
+		{
+			super.removeAll();
+			cache.clear();
+		}
+	}
+
+	/** Needs to be overridden, cached sums were calculated with the old precision **/
+	@Override
+	public void setPrecision(Precision value)
+	{
+		synchronized(getLock())
+		{
+			super.setPrecision(value);
+			cache.invalidate();
+		}
+	}
+
+	/** Needs to be overridden, cached sums were calculated with the old evaluation **/
+	@Override
+	public void setEvaluation(Evaluation value)
+	{
+		synchronized(getLock())
+		{
+			super.setEvaluation(value);
+			cache.invalidate();
+		}
+	}
+
+	/**
+	 * Calculates the module for a slice of a grid, reusing the cached sums when possible.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the module in dBs for each frequency.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	@Override
+	public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		synchronized(getLock())
+		{
+			ResponseCache.Entry entry = cache.find(frequencies, offset, length);
+			if(entry == null)
+			{
+				entry = cache.rebuild(frequencies, offset, length, zeros, poles);
+			}
+			double gain = 20*Math.log10(constant);
+			for(int k = 0; k < length; k++)
+			{
+				values[valuesOffset + k] = entry.module[k] + gain;
+			}
+		}
+	}
+
+	/** Skips the cache, which can not be shared by several threads **/
+	@Override
+	void evaluate(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		super.getValues(frequencies, offset, values, valuesOffset, length);
+	}
+
+	/** Evaluates without the lock, unless a subclass changed that **/
+	@Override
+	boolean isConcurrent()
+	{
+		return getClass() == FrequencyResponse.class;
+	}
+
+	/**
+	 * Calculates module and phase for a whole grid of frequencies in one pass.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param module receives the module in dBs for each frequency.
+	 * @param phase receives the phase in degrees for each frequency.
+	 */
+	public void getResponse(double[] frequencies, double[] module, double[] phase)
+	{
+		getResponse(frequencies, 0, module, phase, 0, frequencies.length);
+	}
+
+	/**
+	 * Calculates module and phase for a slice of a grid of frequencies in one pass.
+	 * The distance from each frequency to each root is calculated only once.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the module in dBs for each frequency.
+	 * @param phase receives the phase in degrees for each frequency.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	public void getResponse(double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		synchronized(getLock())
+		{
+			evaluate(frequencies, offset, module, phase, valuesOffset, length);
+		}
+	}
+
+	/**
+	 * Calculates module and phase for a slice of a grid while other threads do the same.
+	 * Whoever starts the threads holds the lock, so this does not take it.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the module in dBs for each frequency.
+	 * @param phase receives the phase in degrees for each frequency.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	void evaluate(double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		Arrays.fill(module, valuesOffset, valuesOffset + length, 20*Math.log10(constant));
+		Arrays.fill(phase, valuesOffset, valuesOffset + length, 0);
+		if(zeros.evaluation == Evaluation.PRODUCT)
+		{
+			RootProduct.addResponse(zeros, poles, frequencies, offset, module, phase, valuesOffset, length);
+		}
+		else
+		{
+			zeros.addResponse(frequencies, offset, module, phase, valuesOffset, length, 1);
+			poles.addResponse(frequencies, offset, module, phase, valuesOffset, length, -1);
+		}
+		for(int k = valuesOffset; k < valuesOffset + length; k++)
+		{
+			phase[k] = phase[k]*360/(2*Math.PI);
+		}
+	}
+
+	/**
+	 * Calculates the complex value of the transfer function for the given frequency.
+	 *
+	 * @param x specifies the frequency to be used in rad/s.
+	 * @return value of constant*(jw - zeros)/(jw - poles).
+	 */
+	public Complex getComplexValue(double x)
+	{
+		ComplexAccumulator product = new ComplexAccumulator(constant, 0);
+		for(int i = 0; i < zeros.size; i++)
+		{
+			for(int m = 0; m < zeros.multiplicity[i]; m++)
+			{
+				product.multiply(-zeros.real[i], x - zeros.imaginary[i]);
+			}
+		}
+		for(int i = 0; i < poles.size; i++)
+		{
+			for(int m = 0; m < poles.multiplicity[i]; m++)
+			{
+				product.divide(-poles.real[i], x - poles.imaginary[i]);
+			}
+		}
+		return product.toComplex();
+	}
+
+	/**
+	 * The {@code SharedPhaseFunction} class is the phase view of the response.
+	 * Changes go through the response so the cache is kept up to date.
+	 */
+	class SharedPhaseFunction extends PhaseFunction
+	{
+		/**
+		 * Default constructor using the roots of the enclosing response.
+		 */
+		SharedPhaseFunction()
+		{
+			super(FrequencyResponse.this);
+		}
+
+		@Override
+		public void addPole(Pole newone)
+		{
+			FrequencyResponse.this.addPole(newone);
+		}
+
+		@Override
+		public void addZero(Zero newone)
+		{
+			FrequencyResponse.this.addZero(newone);
+		}
+
+		@Override
+		public boolean removePole(Pole oldone)
+		{
+			return FrequencyResponse.this.removePole(oldone);
+		}
+
+		@Override
+		public boolean removeZero(Zero oldone)
+		{
+			return FrequencyResponse.this.removeZero(oldone);
+		}
+
+		@Override
+		public void removeAll()
+		{
+			FrequencyResponse.this.removeAll();
+		}
+
+		@Override
+		public void setPrecision(Precision value)
+		{
+			FrequencyResponse.this.setPrecision(value);
+		}
+
+		@Override
+		public void setEvaluation(Evaluation value)
+		{
+			FrequencyResponse.this.setEvaluation(value);
+		}
+
+		@Override
+		public int getRevision()
+		{
+			return FrequencyResponse.this.getRevision();
+		}
+
+		@Override
+		public Object getLock()
+		{
+			return FrequencyResponse.this.getLock();
+		}
+
+		/** Skips the cache, which can not be shared by several threads **/
+		@Override
+		void evaluate(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+		{
+			super.getValues(frequencies, offset, values, valuesOffset, length);
+		}
+
+		@Override
+		boolean isConcurrent()
+		{
+			return true;
+		}
+
+		/**
+		 * Calculates the phase for a slice of a grid, reusing the cached sums when possible.
+		 *
+		 * @param frequencies specifies the frequencies to be used in rad/s.
+		 * @param offset defines the first frequency to be used.
+		 * @param values receives the phase in degrees for each frequency.
+		 * @param valuesOffset defines where the first value is written.
+		 * @param length defines how many frequencies are calculated.
+		 */
+		@Override
+		public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+		{
+			synchronized(getLock())
+			{
+				ResponseCache.Entry entry = cache.find(frequencies, offset, length);
+				if(entry == null)
+				{
+					entry = cache.rebuild(frequencies, offset, length, zeros, poles);
+				}
+				for(int k = 0; k < length; k++)
+				{
+					values[valuesOffset + k] = entry.phase[k]*360/(2*Math.PI);
+				}
+			}
+		}
+	}
+}
@@ -32,37 +32,53 @@ import java.util.Vector;
 public abstract class Function
 {
 	/** Values that make the denominator of the function equals to zero **/
-	Vector<Pole> poles = null;
+	RootSet<Pole> poles = null;
 	/** Values that make the function equals to zero **/
-	Vector<Zero> zeros = null;
+	RootSet<Zero> zeros = null;
+	/** Counter increased on every change, so observers know when to recalculate **/
+	volatile int revision = 0;
 	
 	/**
 	 * Default constructor defining an empty transfer function.
 	 */
 	public Function()
 	{
-		poles = new Vector<Pole>();
-		zeros = new Vector<Zero>();
+		poles = new RootSet<Pole>();
+		zeros = new RootSet<Zero>();
+	}
+	
+	/**
+	 * Constructor defining a function over the same roots of another one.
+	 * Adding or removing roots in either function changes both.
+	 * 
+	 * @param shared specifies the function whose roots are used.
+	 */
+	Function(Function shared)
+	{
+		poles = shared.poles;
+		zeros = shared.zeros;
 	}
 
 	/**
 	 * Gets all zeros of the transfer function.
+	 * The vector is a copy, changing it does not change the function.
 	 * 
 	 * @return all zeros.
 	 */
 	public Vector<Zero> getZeros()
 	{
-		return zeros;
+		return zeros.toVector();
 	}
 	
 	/**
 	 * Gets all poles of the transfer function.
+	 * The vector is a copy, changing it does not change the function.
 	 * 
 	 * @return all poles.
 	 */
 	public Vector<Pole> getPoles()
 	{
-		return poles;
+		return poles.toVector();
 	}
 	
 	/**
@@ -72,7 +88,11 @@ public abstract class Function
 	 */
 	public void addPole(Pole newone)
 	{
-		poles.add(newone);
+		synchronized(getLock())
+		{
+			poles.add(newone);
+			revision++;
+		}
 		return;
 	}
 	
@@ -83,18 +103,223 @@ public abstract class Function
 	 */
 	public void addZero(Zero newone)
 	{
-		zeros.add(newone);
+		synchronized(getLock())
+		{
+			zeros.add(newone);
+			revision++;
+		}
 		return;
 	}
 
+	/**
+	 * Removes one pole from the transfer function.
+	 * 
+	 * @param oldone specifies the pole to be removed.
+	 * @return whether a pole with the same value was found or not.
+	 */
+	public boolean removePole(Pole oldone)
+	{
+		synchronized(getLock())
+		{
+			boolean found = poles.remove(oldone);
+			if(found)
+			{
+				revision++;
+			}
+			return found;
+		}
+	}
+	
+	/**
+	 * Removes one zero from the transfer function.
+	 * 
+	 * @param oldone specifies the zero to be removed.
+	 * @return whether a zero with the same value was found or not.
+	 */
+	public boolean removeZero(Zero oldone)
+	{
+		synchronized(getLock())
+		{
+			boolean found = zeros.remove(oldone);
+			if(found)
+			{
+				revision++;
+			}
+			return found;
+		}
+	}
+
 	/**
 	 * Resets the transfer function.
 	 */
 	public void removeAll()
 	{
-		zeros.removeAllElements();
-		poles.removeAllElements();
+		synchronized(getLock())
+		{
+			zeros.clear();
+			poles.clear();
+			revision++;
+		}
+	}
+	
+	/**
+	 * Gets the object guarding the roots of the function.
+	 * Changes hold it, and so must any thread evaluating while another one edits.
+	 * 
+	 * @return object to synchronize on.
+	 */
+	public Object getLock()
+	{
+		return this;
+	}
+	
+	/**
+	 * Defines how closely grids are evaluated.
+	 * {@link Precision#FAST} trades a documented error for speed, and is meant for plots.
+	 * Values of single frequencies are always exact.
+	 * 
+	 * @param value specifies the precision.
+	 */
+	public void setPrecision(Precision value)
+	{
+		synchronized(getLock())
+		{
+			zeros.setPrecision(value);
+			poles.setPrecision(value);
+			revision++;
+		}
+	}
+	
+	/**
+	 * Gets how closely grids are evaluated.
+	 * 
+	 * @return precision of the grid evaluations.
+	 */
+	public Precision getPrecision()
+	{
+		return zeros.getPrecision();
+	}
+	
+	/**
+	 * Defines how the influences of the roots are combined.
+	 * {@link Evaluation#PRODUCT} takes one logarithm and one arc tangent per frequency
+	 * instead of one per root, and is meant for high orders.
+	 * 
+	 * @param value specifies the evaluation.
+	 */
+	public void setEvaluation(Evaluation value)
+	{
+		synchronized(getLock())
+		{
+			zeros.setEvaluation(value);
+			poles.setEvaluation(value);
+			revision++;
+		}
+	}
+	
+	/**
+	 * Gets how the influences of the roots are combined.
+	 * 
+	 * @return evaluation of the roots.
+	 */
+	public Evaluation getEvaluation()
+	{
+		return zeros.getEvaluation();
+	}
+	
+	/**
+	 * Gets the revision of the function.
+	 * It changes whenever roots or constants change.
+	 * 
+	 * @return current revision.
+	 */
+	public int getRevision()
+	{
+		return revision;
 	}
 	
 	abstract public double getValue(double x);
+	
+	/**
+	 * Calculates the function for a whole grid of frequencies.
+	 * 
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param values receives the value for each frequency.
+	 */
+	public void getValues(double[] frequencies, double[] values)
+	{
+		getValues(frequencies, 0, values, 0, frequencies.length);
+	}
+	
+	/**
+	 * Calculates the function for a slice of a grid of frequencies.
+	 * Offsets allow the same buffers to be reused between sweeps.
+	 * Subclasses should override it with a loop over the roots first,
+	 * this default only calls {@link #getValue(double)} for each point.
+	 * 
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the value for each frequency.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			values[valuesOffset + k] = getValue(frequencies[offset + k]);
+		}
+	}
+	
+	/**
+	 * Calculates a slice of a grid while several threads do the same over other slices.
+	 * Whoever starts the threads holds the lock and calls {@link #prepare()} first,
+	 * so this must neither take the lock nor change anything shared.
+	 * The default uses {@link #getValues(double[], int, double[], int, int)},
+	 * which may take the lock, so it is only used by several threads when
+	 * {@link #isConcurrent()} says so.
+	 * 
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the value for each frequency.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	void evaluate(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		getValues(frequencies, offset, values, valuesOffset, length);
+	}
+	
+	/**
+	 * Verifies if {@link #evaluate(double[], int, double[], int, int)} can be used by
+	 * several threads while the lock is held by whoever started them.
+	 * Only the classes known to evaluate without the lock say so, and only for their
+	 * own instances, since a subclass may take the lock in any of the public methods.
+	 * Anything else is evaluated in the thread holding the lock.
+	 * 
+	 * @return whether the evaluation can be split between threads or not.
+	 */
+	boolean isConcurrent()
+	{
+		return false;
+	}
+	
+	/**
+	 * Gets how many terms are evaluated for each frequency, to weigh the work of a sweep.
+	 * 
+	 * @return amount of distinct roots.
+	 */
+	int terms()
+	{
+		return zeros.distinct() + poles.distinct();
+	}
+	
+	/**
+	 * Builds the evaluation layout of the roots ahead of a parallel evaluation.
+	 */
+	void prepare()
+	{
+		zeros.compile();
+		poles.compile();
+	}
 }
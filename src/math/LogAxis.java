@@ -0,0 +1,174 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code LogAxis} class maps a logarithmic frequency axis onto pixels.
+ * The range may start and end anywhere inside a decade.
+ * Ticks and labels are thinned out so they never get closer than a few pixels,
+ * no matter how many decades are shown.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class LogAxis
+{
+	/** Smallest distance between two ticks, in pixels **/
+	static final double TICK_SPACING = 4;
+	/** Smallest distance between two labels, in pixels **/
+	static final double LABEL_SPACING = 40;
+	/** Logarithm of 1 to 9, the positions of the minor ticks inside a decade **/
+	static final double[] MINOR = { 0, 0, Math.log10(2), Math.log10(3), Math.log10(4), Math.log10(5), Math.log10(6), Math.log10(7), Math.log10(8), Math.log10(9) };
+
+	/** Logarithm of the lowest frequency shown **/
+	double first = 0;
+	/** Logarithm of the highest frequency shown **/
+	double last = 0;
+	/** Width of the axis in pixels **/
+	double width = 0;
+
+	/**
+	 * Default constructor specifying the range and the size of the axis.
+	 *
+	 * @param minimum defines the lowest frequency shown.
+	 * @param maximum defines the highest frequency shown.
+	 * @param width defines the width of the axis in pixels.
+	 */
+	public LogAxis(double minimum, double maximum, double width)
+	{
+		first = Math.log10(minimum);
+		last = Math.log10(maximum);
+		this.width = width;
+	}
+
+	/**
+	 * Gets the logarithm of the lowest frequency shown.
+	 *
+	 * @return log10 of the frequency in rad/s.
+	 */
+	public double getFirst()
+	{
+		return first;
+	}
+
+	/**
+	 * Gets the logarithm of the highest frequency shown.
+	 *
+	 * @return log10 of the frequency in rad/s.
+	 */
+	public double getLast()
+	{
+		return last;
+	}
+
+	/**
+	 * Gets the amount of decades shown, possibly fractional.
+	 *
+	 * @return amount of decades.
+	 */
+	public double getDecades()
+	{
+		return last - first;
+	}
+
+	/**
+	 * Gets how many pixels a decade takes.
+	 *
+	 * @return pixels per decade.
+	 */
+	public double getPixelsPerDecade()
+	{
+		return width/(last - first);
+	}
+
+	/**
+	 * Calculates the column of a frequency.
+	 *
+	 * @param position defines the logarithm of the frequency.
+	 * @return column in pixels, outside the axis for frequencies not shown.
+	 */
+	public int toPixel(double position)
+	{
+		return (int)((position - first)*getPixelsPerDecade());
+	}
+
+	/**
+	 * Gets the amount of decades between two major ticks.
+	 *
+	 * @return 1, 2, 5, 10, 20... decades.
+	 */
+	public int getTickStep()
+	{
+		return step(TICK_SPACING);
+	}
+
+	/**
+	 * Gets the amount of decades between two labels.
+	 *
+	 * @return 1, 2, 5, 10, 20... decades.
+	 */
+	public int getLabelStep()
+	{
+		return step(LABEL_SPACING);
+	}
+
+	/**
+	 * Verifies if the minor ticks of a decade fit, the closest ones being 9 and 10.
+	 *
+	 * @return whether the minor ticks are drawn or not.
+	 */
+	public boolean hasMinorTicks()
+	{
+		return (1 - MINOR[9])*getPixelsPerDecade() >= TICK_SPACING/2;
+	}
+
+	/**
+	 * Finds the smallest round amount of decades taking at least the given pixels.
+	 *
+	 * @param spacing defines the pixels needed.
+	 * @return 1, 2, 5, 10, 20... decades.
+	 */
+	private int step(double spacing)
+	{
+		double needed = spacing/getPixelsPerDecade();
+		if(!(needed <= Integer.MAX_VALUE/10))
+		{
+			/** Empty axis or more decades than pixels can tell apart **/
+			return Integer.MAX_VALUE;
+		}
+		int power = 1;
+		while(true)
+		{
+			if(power >= needed)
+			{
+				return power;
+			}
+			if(2*power >= needed)
+			{
+				return 2*power;
+			}
+			if(5*power >= needed)
+			{
+				return 5*power;
+			}
+			power = power*10;
+		}
+	}
+}
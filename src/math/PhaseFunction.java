@@ -18,6 +18,7 @@
  */
 package math;
 
+import java.util.Arrays;
 
 /**
  * The {@code PhaseFunction} class computes the phase component of the Bode Plot.
@@ -28,6 +29,24 @@ package math;
  */
 public class PhaseFunction extends Function
 {
+	/**
+	 * Default constructor defining an empty phase function.
+	 */
+	public PhaseFunction()
+	{
+		super();
+	}
+	
+	/**
+	 * Constructor defining a phase function over the roots of another function.
+	 * 
+	 * @param shared specifies the function whose roots are used.
+	 */
+	PhaseFunction(Function shared)
+	{
+		super(shared);
+	}
+	
 	/**
 	 * Calculates the phase of the transfer function for the given frequency.
 	 * The result is present in degree scale. 
@@ -38,15 +57,51 @@ public class PhaseFunction extends Function
 	public double getValue(double x) 
 	{
 		double result = 0;
-		for(Pole p: poles)
+		if(zeros.evaluation == Evaluation.PRODUCT)
 		{
-			result = result + p.arcValue(x);
+			result = RootProduct.value(zeros, poles, x, true);
 		}
-		for(Zero z: zeros)
+		else
 		{
-			result = result + z.arcValue(x);
-		}		
+			result = zeros.phase(x) - poles.phase(x);
+		}
 
 		return result*360/(2*Math.PI);
 	}
+	
+	/**
+	 * Calculates the phase of the transfer function for a slice of a grid.
+	 * Each root is applied to the whole slice before moving to the next one.
+	 * 
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the phase in degrees for each frequency.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	@Override
+	public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		Arrays.fill(values, valuesOffset, valuesOffset + length, 0);
+		if(zeros.evaluation == Evaluation.PRODUCT)
+		{
+			RootProduct.addResponse(zeros, poles, frequencies, offset, null, values, valuesOffset, length);
+		}
+		else
+		{
+			zeros.addPhase(frequencies, offset, values, valuesOffset, length, 1);
+			poles.addPhase(frequencies, offset, values, valuesOffset, length, -1);
+		}
+		for(int k = valuesOffset; k < valuesOffset + length; k++)
+		{
+			values[k] = values[k]*360/(2*Math.PI);
+		}
+	}
+	
+	/** Evaluates without the lock, unless a subclass changed that **/
+	@Override
+	boolean isConcurrent()
+	{
+		return getClass() == PhaseFunction.class;
+	}
 }
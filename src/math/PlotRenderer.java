@@ -0,0 +1,311 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+
+/**
+ * The {@code PlotRenderer} class draws a graph of a function onto any graphics.
+ * It does not need a screen, so plots can also be made with java.awt.headless set.
+ * The renderer is only read while drawing, so once configured it can be
+ * shared by several threads.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class PlotRenderer
+{
+	/** Lowest x axis value visible in the graph **/
+	double minimumx = 0.1;
+	/** Highest x axis value visible in the graph **/
+	double maximumx = 1000;
+	/** Lowest y axis value visible in the graph **/
+	double minimumy = -5;
+	/** Highest y axis value visible in the graph **/
+	double maximumy = 5;
+	/** Unit to be printed after the value **/
+	String unit = " ";
+	/** Width of the graph in pixels **/
+	int width = 0;
+	/** Height of the graph in pixels **/
+	int height = 0;
+	/** Whether series are reduced by largest triangles instead of min and max per column **/
+	boolean triangles = false;
+
+	/**
+	 * Default constructor specifying the size of the graph.
+	 *
+	 * @param width defines the width in pixels.
+	 * @param height defines the height in pixels.
+	 */
+	public PlotRenderer(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Sets the unit to be printed with the Y axis values.
+	 *
+	 * @param which defines the string to be appended.
+	 */
+	public void setUnit(String which)
+	{
+		unit = which;
+	}
+
+	/**
+	 * Sets the range for the graph Y axis.
+	 *
+	 * @param max defines the highest value for the Y axis.
+	 * @param min defines the lowest value for the Y axis.
+	 */
+	public void setViewRange(double max, double min)
+	{
+		maximumy = max;
+		minimumy = min;
+	}
+
+	/**
+	 * Sets the range for the graph X axis.
+	 *
+	 * @param min defines the lowest value for the X axis.
+	 * @param max defines the highest value for the X axis.
+	 */
+	public void setBandwidth(double min, double max)
+	{
+		minimumx = min;
+		maximumx = max;
+	}
+
+	/**
+	 * Chooses how series are reduced before drawing.
+	 *
+	 * @param largest defines whether largest triangles are used or not.
+	 */
+	public void setTriangleDecimation(boolean largest)
+	{
+		triangles = largest;
+	}
+
+	/**
+	 * Renders the graph of a function into a new image.
+	 *
+	 * @param function specifies the function to be plotted.
+	 * @return an opaque image with the graph.
+	 */
+	public BufferedImage render(Function function)
+	{
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		render(image, function);
+		return image;
+	}
+
+	/**
+	 * Renders the graph of a function over an existing image, clearing it first.
+	 * Images can then be reused for many graphs of the same size.
+	 *
+	 * @param image specifies where the graph will be drawn.
+	 * @param function specifies the function to be plotted.
+	 */
+	public void render(BufferedImage image, Function function)
+	{
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.WHITE);
+		g.fillRect(0, 0, image.getWidth(), image.getHeight());
+		render(g, function);
+		g.dispose();
+	}
+
+	/**
+	 * Renders the graph of a function.
+	 * This function plots using the X axis in logarithmic scale.
+	 *
+	 * @param g defines where the function will be plotted.
+	 * @param function specifies the function to be plotted, or null for the axes only.
+	 */
+	public void render(Graphics g, Function function)
+	{
+		renderAxes(g);
+		renderCurve(g, function);
+	}
+
+	/**
+	 * Renders the axes, ticks and labels of the graph.
+	 * Decades are labeled only as often as the width allows.
+	 * 
+	 * @param g defines where the axes will be drawn.
+	 */
+	public void renderAxes(Graphics g)
+	{
+		LogAxis axis = new LogAxis(minimumx, maximumx, width);
+		
+		double difference = Math.abs(maximumy-minimumy);
+		
+		double sizeofoney = height/difference;
+		
+		int middle = (int)((maximumy/difference)*height) ;
+		
+		g.setColor(Color.black);
+		
+		g.drawLine(0,0,0,height);
+		g.drawLine(0,0,width,0);
+		g.drawLine(0,height-1,width-1,height-1);
+		g.drawLine(width-1,0,width-1,height-1);
+		
+		for(double k = 0; k <= maximumy ; k = k + 1)
+		{
+			if((k % 10) == 0)
+			{
+				g.drawLine(0,(int)(middle - k*sizeofoney),10,(int)(middle - k*sizeofoney));
+				g.drawString(k+unit,10,(int)(middle-(k*sizeofoney)));
+			}
+			else
+			{
+				g.drawLine(0,(int)((middle- k*sizeofoney)),5,(int)(middle-(k*sizeofoney)));
+			}
+		}
+		
+		for(double k =0; k <= Math.abs(minimumy) ; k = k + 1)
+		{
+			if((k % 10) == 0)
+			{
+				g.drawLine(0,(int)(middle + k*sizeofoney),10,(int)(middle + k*sizeofoney));
+				g.drawString(k+unit,10,(int)(middle+(k*sizeofoney)));
+			}
+			else
+			{
+				g.drawLine(0,(int)((middle+ k*sizeofoney)),5,(int)(middle+(k*sizeofoney)));
+			}
+		}
+		g.drawLine(0,middle,width,middle);
+		if(!(axis.getDecades() > 0))
+		{
+			return;
+		}
+		int ticks = axis.getTickStep();
+		int labels = axis.getLabelStep();
+		boolean minor = axis.hasMinorTicks();
+		for(long j = (long)Math.floor(axis.getFirst()); j <= Math.ceil(axis.getLast()); j++)
+		{
+			int x = axis.toPixel(j);
+			if(minor)
+			{
+				for(int i = 2; i < 10; i++)
+				{
+					int tick = axis.toPixel(j + LogAxis.MINOR[i]);
+					g.drawLine(tick,middle,tick,middle+5);
+				}
+			}
+			if(j % labels == 0 && x >= 0 && x <= width)
+			{
+				g.drawString(""+j,x,middle+25);
+			}
+			if(j % ticks == 0 || j % labels == 0)
+			{
+				g.drawLine(x,middle,x,middle+10);
+			}
+		}
+	}
+		
+	/**
+	 * Renders the curve of the function.
+	 * The curve is computed in the calling thread.
+	 *
+	 * @param g defines where the function will be plotted.
+	 * @param function specifies the function to be plotted, or null for none.
+	 */
+	public void renderCurve(Graphics g, Function function)
+	{
+		LogAxis axis = new LogAxis(minimumx, maximumx, width);
+		
+		double difference = Math.abs(maximumy-minimumy);
+		
+		double sizeofoney = height/difference;
+		
+		if(function != null && axis.getDecades() > 0)
+		{
+			/** One sample per pixel column, refined up to half a pixel **/
+			drawCurve(g, SampledCurve.sample(function, axis.getFirst(), axis.getLast(), width, 0.5/sizeofoney));
+		}
+	}
+		
+	/**
+	 * Draws an already sampled curve.
+	 * 
+	 * @param g defines where the curve will be drawn.
+	 * @param curve specifies the samples to be drawn.
+	 */
+	public void drawCurve(Graphics g, SampledCurve curve)
+	{
+		g.setColor(Color.BLUE);
+		drawSeries(g, curve);
+	}
+		
+	/**
+	 * Draws series over the function, such as measured sweeps.
+	 * 
+	 * @param g defines where the series will be drawn.
+	 * @param overlays specifies the series to be drawn.
+	 */
+	public void drawOverlays(Graphics g, List<SampledCurve> overlays)
+	{
+		g.setColor(Color.RED);
+		for(SampledCurve series: overlays)
+		{
+			drawSeries(g, series);
+		}
+	}
+		
+	/**
+	 * Draws a series with a single polyline, after reducing it to the pixel columns.
+	 * 
+	 * @param g defines where the series will be drawn.
+	 * @param series specifies the samples to be drawn.
+	 */
+	public void drawSeries(Graphics g, SampledCurve series)
+	{
+		LogAxis axis = new LogAxis(minimumx, maximumx, width);
+		
+		double difference = Math.abs(maximumy-minimumy);
+		
+		double sizeofoney = height/difference;
+		
+		int middle = (int)((maximumy/difference)*height) ;
+		
+		if(series.getCount() == 0 || !(axis.getDecades() > 0))
+		{
+			return;
+		}
+		SampledCurve reduced = triangles ? Decimator.triangles(series, axis, 2*width) : Decimator.minMax(series, axis);
+		int[] x = new int[reduced.getCount()];
+		int[] y = new int[reduced.getCount()];
+		for(int i = 0; i < reduced.getCount(); i++)
+		{
+			x[i] = axis.toPixel(reduced.getPosition(i));
+			y[i] = middle-(int)(reduced.getValue(i)*sizeofoney);
+		}
+		g.drawPolyline(x, y, x.length);
+	}
+}
@@ -18,12 +18,22 @@
  */
 package math;
 
+import java.awt.AlphaComposite;
 import java.awt.Canvas;
 import java.awt.Color;
+import java.awt.EventQueue;
 import java.awt.Graphics;
-import java.awt.Image;
-
-import math.Function;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The {@code PlottingCanvas} class takes care of rendering a graph based on a function. 
@@ -45,8 +55,44 @@ public class PlottingCanvas extends Canvas
 	double maximumy = 5;
 	/** Unit to be printed after the value **/
 	String unit = null;
+	/** Composed graph kept between repaints **/
+	BufferedImage buffer = null;
+	/** Layer with the axes, ticks and labels **/
+	BufferedImage axesLayer = null;
+	/** Transparent layer with the plotted curve **/
+	BufferedImage curveLayer = null;
+	/** Inputs used for drawing the axes layer **/
+	List<Object> axesKey = null;
+	/** Inputs used for drawing the curve layer **/
+	List<Object> curveKey = null;
 	/** Required default version UID **/
 	private static final long serialVersionUID = 1;
+	/** Divisor of the columns used for the first, quick pass of a curve **/
+	static final int COARSE = 8;
+	/** Threads computing curves away from the event dispatch thread **/
+	static final ExecutorService WORKERS = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new ThreadFactory()
+	{
+		public Thread newThread(Runnable task)
+		{
+			Thread worker = new Thread(task, "plotting-worker");
+			worker.setDaemon(true);
+			return worker;
+		}
+	});
+	/** Latest curve computed in the background **/
+	volatile SampledCurve sampled = null;
+	/** Inputs the latest curve was computed for **/
+	volatile List<Object> sampledKey = null;
+	/** Job computing the curve for the current inputs **/
+	Future<?> job = null;
+	/** Inputs the running job computes for **/
+	volatile List<Object> jobKey = null;
+	/** Decades of the plotted function computed so far **/
+	TileCache tiles = null;
+	/** Series drawn over the function, such as measured sweeps **/
+	Vector<SampledCurve> overlays = new Vector<SampledCurve>();
+	/** Whether series are reduced by largest triangles instead of min and max per column **/
+	boolean triangles = false;
 	
 	/**
 	 * Initializes the Canvas
@@ -118,6 +164,37 @@ public class PlottingCanvas extends Canvas
     	minimumy = proportion*minimumy;
     }
     
+    /**
+     * Adds a series to be drawn over the function.
+     * 
+     * @param frequencies specifies the frequencies of the series in rad/s, sorted.
+     * @param values specifies the value at each frequency.
+     */
+    public void addOverlay(double[] frequencies, double[] values)
+    {
+    	overlays.add(new SampledCurve(frequencies, values));
+    }
+    
+    /**
+     * Removes all series drawn over the function.
+     */
+    public void removeOverlays()
+    {
+    	overlays.clear();
+    }
+    
+    /**
+     * Chooses how series are reduced before drawing.
+     * Min and max per column keeps every peak, largest triangles keeps the shape
+     * with less samples.
+     * 
+     * @param largest defines whether largest triangles are used or not.
+     */
+    public void setTriangleDecimation(boolean largest)
+    {
+    	triangles = largest;
+    }
+    
     /**
      * Sets the range for the graph X axis.
      * 
@@ -132,92 +209,221 @@ public class PlottingCanvas extends Canvas
     
     /**
      * Overrides the original Canvas method.
+     * Layers are only drawn again when their inputs changed,
+     * otherwise the kept buffer is just copied to the screen.
+     * The curve is computed by a worker, and drawn once it arrives.
+     * Moving or resizing the Y view reuses the computed samples.
      */
     @Override
     public void update(Graphics g)
     {
-    	Image image = createImage(getBounds().width+1, getBounds().height+1);
-    	if (image != null)
+    	int width = getBounds().width+1;
+    	int height = getBounds().height+1;
+    	if(buffer == null || buffer.getWidth() != width || buffer.getHeight() != height)
     	{
-	        Graphics buffer = image.getGraphics();
-	        render(buffer);
-        	g.drawImage(image,0,0,this);
+    		buffer = createLayer(width, height, Transparency.OPAQUE);
+    		axesLayer = createLayer(width, height, Transparency.OPAQUE);
+    		curveLayer = createLayer(width, height, Transparency.TRANSLUCENT);
+    		axesKey = null;
+    		curveKey = null;
     	}
+    	
+    	boolean changed = false;
+    	List<Object> key = Arrays.<Object>asList(width, height, minimumx, maximumx, minimumy, maximumy, unit);
+    	if(!key.equals(axesKey))
+    	{
+    		Graphics layer = axesLayer.getGraphics();
+    		layer.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+    		layer.fillRect(0, 0, width, height);
+    		getRenderer().renderAxes(layer);
+    		layer.dispose();
+    		axesKey = key;
+    		changed = true;
+    	}
+    	/** Only the X axis and the function decide the samples, the Y view only projects them **/
+    	List<Object> wanted = Arrays.<Object>asList(width, minimumx, maximumx, toPlot, toPlot != null ? toPlot.getRevision() : 0);
+    	if(toPlot != null && !wanted.equals(jobKey))
+    	{
+    		schedule(wanted);
+    	}
+    	SampledCurve ready = wanted.equals(sampledKey) ? sampled : null;
+    	key = Arrays.<Object>asList(wanted, height, minimumy, maximumy, ready, new Vector<SampledCurve>(overlays), triangles);
+    	if(!key.equals(curveKey))
+    	{
+    		Graphics2D layer = curveLayer.createGraphics();
+    		layer.setComposite(AlphaComposite.Clear);
+    		layer.fillRect(0, 0, width, height);
+    		layer.setComposite(AlphaComposite.SrcOver);
+    		PlotRenderer renderer = getRenderer();
+    		if(ready != null)
+    		{
+    			renderer.drawCurve(layer, ready);
+    		}
+    		renderer.drawOverlays(layer, overlays);
+    		layer.dispose();
+    		curveKey = key;
+    		changed = true;
+    	}
+    	if(changed)
+    	{
+    		Graphics composed = buffer.getGraphics();
+    		composed.drawImage(axesLayer, 0, 0, null);
+    		composed.drawImage(curveLayer, 0, 0, null);
+    		composed.dispose();
+    	}
+    	g.drawImage(buffer,0,0,this);
     }
-
+    
     /**
-     * Renders the graph.
-     * This function plots using the X axis in logarithmic scale.
+     * Starts computing the curve for new inputs, cancelling any job still running.
+     * A coarse curve is published first, followed by the refined one.
+     * Each published curve triggers a repaint in the event dispatch thread.
+     * Decades already computed for the same function are taken from the tiles.
      * 
-     * @param g defines where the function will be plotted.
+     * @param key specifies the inputs the curve is computed for.
      */
-    public void render(Graphics g)
+    private void schedule(final List<Object> key)
     {
-    	int times = (int)(Math.log10(maximumx) - Math.log10(minimumx));
-    	
-    	double blockofpixel = getBounds().getWidth()/times;
-    	
-    	double difference = Math.abs(maximumy-minimumy);
-    	
-    	double sizeofoney = getBounds().getHeight()/difference;
-    	
-    	int middle = (int)((maximumy/difference)*getBounds().getHeight()) ;
-    	
-    	g.setColor(Color.black);
-    	
-    	g.drawLine(0,0,0,getBounds().height);
-    	g.drawLine(0,0,getBounds().width,0);
-    	g.drawLine(0,getBounds().height-1,getBounds().width-1,getBounds().height-1);
-    	g.drawLine(getBounds().width-1,0,getBounds().width-1,getBounds().height-1);
-    	
-    	for(double k = 0; k <= maximumy ; k = k + 1)
+    	if(job != null)
     	{
-    		if((k % 10) == 0)
-    		{
-    			g.drawLine(0,(int)(middle - k*sizeofoney),10,(int)(middle - k*sizeofoney));
-    			g.drawString(k+unit,10,(int)(middle-(k*sizeofoney)));
-    		}
-    		else
-    		{
-    			g.drawLine(0,(int)((middle- k*sizeofoney)),5,(int)(middle-(k*sizeofoney)));
-    		}
+    		job.cancel(true);
     	}
-    	
-    	for(double k =0; k <= Math.abs(minimumy) ; k = k + 1)
+    	jobKey = key;
+    	final Function function = toPlot;
+    	if(tiles == null || tiles.function != function)
     	{
-    		if((k % 10) == 0)
-    		{
-    			g.drawLine(0,(int)(middle + k*sizeofoney),10,(int)(middle + k*sizeofoney));
-    			g.drawString(k+unit,10,(int)(middle+(k*sizeofoney)));
-    		}
-    		else
+    		tiles = new TileCache(function);
+    	}
+    	final TileCache cached = tiles;
+    	final int revision = function.getRevision();
+    	final LogAxis axis = new LogAxis(minimumx, maximumx, getBounds().getWidth());
+    	if(!(axis.getDecades() > 0))
+    	{
+    		job = null;
+    		return;
+    	}
+    	final int columns = (int)(getBounds().getWidth());
+    	final double tolerance = 0.5*Math.abs(maximumy-minimumy)/getBounds().getHeight();
+    	job = WORKERS.submit(new Runnable()
+    	{
+    		public void run()
     		{
-    			g.drawLine(0,(int)((middle+ k*sizeofoney)),5,(int)(middle+(k*sizeofoney)));
+    			SampledCurve coarse = sample(function, cached, axis, Math.max(1, columns/COARSE), Double.POSITIVE_INFINITY);
+    			if(publish(key, coarse, function, revision))
+    			{
+    				publish(key, sample(function, cached, axis, columns, tolerance), function, revision);
+    			}
     		}
+    	});
+    }
+    
+    /**
+     * Samples a function over an axis, taking whole decades from the tiles.
+     * Ranges shorter than a decade are sampled directly, since most of a tile would not be seen.
+     * 
+     * @param function specifies the function to be sampled.
+     * @param cached specifies the tiles kept for the function.
+     * @param axis specifies the visible range.
+     * @param columns defines how many intervals the visible range is split into.
+     * @param tolerance defines the largest visible error, in function units.
+     * @return the sampled curve.
+     */
+    static SampledCurve sample(Function function, TileCache cached, LogAxis axis, int columns, double tolerance)
+    {
+    	if(axis.getDecades() < 1)
+    	{
+    		return SampledCurve.sample(function, axis.getFirst(), axis.getLast(), columns, tolerance);
     	}
-    	g.drawLine(0,middle,(int)getBounds().getWidth(),middle);
-    	for(int j = 0; j < times; j++ )
+    	int first = (int)Math.floor(axis.getFirst());
+    	int last = (int)Math.ceil(axis.getLast());
+    	return SampledCurve.sample(function, cached, first, last, (int)Math.ceil(columns*(last - first)/axis.getDecades()), tolerance);
+    }
+    
+    /**
+     * Hands a computed curve to the event dispatch thread.
+     * Curves of cancelled jobs or of outdated functions are discarded.
+     * 
+     * @param key specifies the inputs the curve was computed for.
+     * @param computed specifies the curve.
+     * @param function specifies the function sampled.
+     * @param revision defines the revision of the function when the job started.
+     * @return whether the curve was handed or not.
+     */
+    private boolean publish(final List<Object> key, final SampledCurve computed, Function function, int revision)
+    {
+    	if(Thread.currentThread().isInterrupted() || function.getRevision() != revision)
     	{
-    		g.drawString(""+ (j+(int)Math.log10(minimumx)),(int)(j*blockofpixel),middle+25);
-    		for(int i = 1; i < 10; i++)
-	    	{
-	    		g.drawLine((int)(Math.log10(i)*blockofpixel + j*blockofpixel),middle,(int)(Math.log10(i)*blockofpixel + j*blockofpixel),middle+5);
-	    	}
-    		g.drawLine((int)(blockofpixel + j*blockofpixel),middle,(int)(blockofpixel + j*blockofpixel),middle+10);
+    		return false;
     	}
-    	
-    	
-    	if(toPlot != null)
+    	EventQueue.invokeLater(new Runnable()
+    	{
+    		public void run()
+    		{
+    			if(key.equals(jobKey))
+    			{
+    				sampled = computed;
+    				sampledKey = key;
+    				repaint();
+    			}
+    		}
+    	});
+    	return true;
+    }
+    
+    /**
+     * Overrides the original Canvas method, so exposing the canvas also uses the buffer.
+     */
+    @Override
+    public void paint(Graphics g)
+    {
+    	update(g);
+    }
+    
+    /**
+     * Creates an image for one of the layers.
+     * When on screen it matches the display format, so copying it is cheap.
+     * 
+     * @param width defines the width of the layer.
+     * @param height defines the height of the layer.
+     * @param transparency defines whether the layer must keep transparency.
+     * @return a new image.
+     */
+    private BufferedImage createLayer(int width, int height, int transparency)
+    {
+    	GraphicsConfiguration configuration = getGraphicsConfiguration();
+    	if(configuration != null)
     	{
-	    	g.setColor(Color.BLUE);
-	    	for(int j = 0; j < times; j++ )
-	    	{
-	    		double w = Math.pow(10,j+(int)Math.log10(minimumx));
-	    		for(double i = 1; i < 10; i= i+0.1)
-		    	{
-	    			g.drawLine((int)(Math.log10(i)*blockofpixel + j*blockofpixel),middle-(int)(toPlot.getValue(w*i)*sizeofoney),(int)(Math.log10(i+0.1)*blockofpixel + j*blockofpixel),middle-(int)(toPlot.getValue(w*(i+0.1))*sizeofoney));
-		    	}
-	    	}
+    		return configuration.createCompatibleImage(width, height, transparency);
     	}
+    	int type = (transparency == Transparency.OPAQUE) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+    	return new BufferedImage(width, height, type);
+    }
+
+    /**
+     * Creates a renderer with the current ranges and size of the canvas.
+     * 
+     * @return a renderer drawing what the canvas shows.
+     */
+    PlotRenderer getRenderer()
+    {
+    	PlotRenderer renderer = new PlotRenderer(getBounds().width, getBounds().height);
+    	renderer.setBandwidth(minimumx, maximumx);
+    	renderer.setViewRange(maximumy, minimumy);
+    	renderer.setUnit(unit);
+    	renderer.setTriangleDecimation(triangles);
+    	return renderer;
+    }
+
+    /**
+     * Renders the graph.
+     * This function plots using the X axis in logarithmic scale.
+     * 
+     * @param g defines where the function will be plotted.
+     */
+    public void render(Graphics g)
+    {
+    	PlotRenderer renderer = getRenderer();
+    	renderer.render(g, toPlot);
+    	renderer.drawOverlays(g, overlays);
     }
 }
@@ -21,6 +21,8 @@ package math;
 
 /**
  * The {@code Pole} class models the individual influence of a pole in a transfer function. 
+ * Since 1/(jw - p) has the inverse module and the opposite phase of (jw - p),
+ * the influence of a pole is the negated influence of a zero at the same place.
  * 
  * @author Matheus Borges Teixeira
  * @version 1.0
@@ -45,10 +47,7 @@ public class Pole extends Complex
 	 * @return value of the module for the given frequency in dB.
 	 */
 	public double dBValue(double x) {
-		Complex jw = new Complex(0,x);
-		Complex one = new Complex(1,0);
-		Complex result = one.divide(jw.minus(this));
-		return 20*Math.log10(result.getModule());
+		return -Zero.dB(real, imaginary, x);
 	}
 	
 	/**
@@ -59,9 +58,6 @@ public class Pole extends Complex
 	 * @return value of the phase for the given frequency in rads.
 	 */
 	public double arcValue(double x) {
-		Complex jw = new Complex(0,x);
-		Complex one = new Complex(1,0);
-		Complex result = one.divide(jw.minus(this));
-		return result.getPhase();
+		return -Zero.arc(real, imaginary, x);
 	}
 }
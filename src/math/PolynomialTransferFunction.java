@@ -0,0 +1,1033 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.Vector;
+
+
+/**
+ * The {@code PolynomialTransferFunction} class is a transfer function given by the
+ * coefficients of N(s)/D(s) instead of its roots, in ascending powers of s.
+ * At s = jw the even powers are real and the odd ones imaginary, so each polynomial
+ * is two real Horner sums in -w^2, taking O(order) products and no logarithm per root.
+ * Above 1 rad/s the coefficients are taken in reverse at -1/w, which keeps
+ * the sums bounded for high orders, and w^(n-d) is put back in the module and phase.
+ * As a function it returns the module like any {@link TransferFunction}, and
+ * {@link #getPhaseFunction()} gives the phase, which is the angle of H(jw) between
+ * -180 and 180 degrees; {@link #toResponse()} gives the root form, whose phase is continuous.
+ * A root added on its own multiplies its factor into the coefficients, and removing
+ * it divides the factor out again. A complex root waits for its conjugate, since the
+ * coefficients are real, and is evaluated like in the root form meanwhile.
+ * A real root in the right half plane is taken as (root - s), like {@link Zero#arc(double, double, double)}
+ * does, so adding it also turns the sign of the constant, and a negative constant adds half
+ * a turn to the phase. Both forms then give the same phase, up to whole turns.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class PolynomialTransferFunction extends TransferFunction
+{
+	/** Iterations of the Aberth method before giving up **/
+	static final int ITERATIONS = 500;
+	/** Relative step under which a root is taken as found **/
+	static final double CONVERGENCE = 1e-15;
+	/** Relative remainder under which a factor is taken as dividing the coefficients **/
+	static final double REMAINDER = 1e-9;
+
+	/** Coefficients of the numerator in ascending powers, the last one never zero **/
+	double[] numerator = { 1 };
+	/** Coefficients of the denominator in ascending powers, the last one never zero **/
+	double[] denominator = { 1 };
+	/** Coefficients of the numerator in descending powers **/
+	double[] numeratorReversed = { 1 };
+	/** Coefficients of the denominator in descending powers **/
+	double[] denominatorReversed = { 1 };
+	/** Phase function sharing the coefficients of this function **/
+	PhaseFunction phase = null;
+	/** Revision the roots of the coefficients were found for **/
+	int solved = -1;
+	/** Roots found for the numerator **/
+	Complex[] numeratorRoots = null;
+	/** Roots found for the denominator **/
+	Complex[] denominatorRoots = null;
+
+	/**
+	 * Default constructor defining the function H(s) = 1.
+	 */
+	public PolynomialTransferFunction()
+	{
+		super();
+		phase = new PolynomialPhaseFunction();
+	}
+
+	/**
+	 * Constructor defining the coefficients.
+	 *
+	 * @param numerator specifies the coefficients of N(s), from s^0 up.
+	 * @param denominator specifies the coefficients of D(s), from s^0 up.
+	 * @throws IllegalArgumentException if the denominator is zero.
+	 */
+	public PolynomialTransferFunction(double[] numerator, double[] denominator)
+	{
+		this();
+		setCoefficients(numerator, denominator);
+	}
+
+	/**
+	 * Constructor taking the roots of another function.
+	 * Coefficients are copied as they are from another polynomial function or its phase,
+	 * and any other function has its roots multiplied in one at a time.
+	 * The constant of a {@link TransferFunction} is kept as the constant,
+	 * turned for each real root in the right half plane.
+	 *
+	 * @param roots specifies the function whose roots are taken.
+	 */
+	public PolynomialTransferFunction(Function roots)
+	{
+		this();
+		synchronized(roots.getLock())
+		{
+			if(roots instanceof TransferFunction)
+			{
+				constant = ((TransferFunction)roots).getConstant();
+			}
+			PolynomialTransferFunction source = null;
+			if(roots instanceof PolynomialTransferFunction)
+			{
+				source = (PolynomialTransferFunction)roots;
+			}
+			else if(roots instanceof PolynomialPhaseFunction)
+			{
+				source = ((PolynomialPhaseFunction)roots).getFunction();
+			}
+			if(source != null)
+			{
+				define(source.numerator, source.denominator);
+				for(Zero zero: source.zeros.toVector())
+				{
+					zeros.add(zero);
+				}
+				for(Pole pole: source.poles.toVector())
+				{
+					poles.add(pole);
+				}
+			}
+			else
+			{
+				for(Zero zero: roots.getZeros())
+				{
+					addZero(zero);
+				}
+				for(Pole pole: roots.getPoles())
+				{
+					addPole(pole);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Defines the coefficients, replacing the previous ones and any root waiting for its conjugate.
+	 * Zeros after the highest power are dropped.
+	 *
+	 * @param newNumerator specifies the coefficients of N(s), from s^0 up.
+	 * @param newDenominator specifies the coefficients of D(s), from s^0 up.
+	 * @throws IllegalArgumentException if the denominator is zero.
+	 */
+	public void setCoefficients(double[] newNumerator, double[] newDenominator)
+	{
+		double[] top = trim(newNumerator);
+		double[] bottom = trim(newDenominator);
+		if(bottom.length == 1 && bottom[0] == 0)
+		{
+			throw new IllegalArgumentException("Denominator can not be zero");
+		}
+		synchronized(getLock())
+		{
+			zeros.clear();
+			poles.clear();
+			define(top, bottom);
+			revision++;
+		}
+	}
+
+	/**
+	 * Keeps the coefficients along with their reversed copies.
+	 *
+	 * @param top specifies the coefficients of N(s), the last one not zero.
+	 * @param bottom specifies the coefficients of D(s), the last one not zero.
+	 */
+	private void define(double[] top, double[] bottom)
+	{
+		numerator = top;
+		denominator = bottom;
+		numeratorReversed = reverse(top);
+		denominatorReversed = reverse(bottom);
+	}
+
+	/**
+	 * Gets the coefficients of the numerator.
+	 *
+	 * @return a copy of the coefficients, from s^0 up.
+	 */
+	public double[] getNumerator()
+	{
+		return numerator.clone();
+	}
+
+	/**
+	 * Gets the coefficients of the denominator.
+	 *
+	 * @return a copy of the coefficients, from s^0 up.
+	 */
+	public double[] getDenominator()
+	{
+		return denominator.clone();
+	}
+
+	/**
+	 * Gets the phase function over the same coefficients.
+	 *
+	 * @return phase function of this function.
+	 */
+	public PhaseFunction getPhaseFunction()
+	{
+		return phase;
+	}
+
+	/**
+	 * Finds the roots and builds the same function in root form.
+	 * The constant takes the ratio of the highest coefficients, turned for each real
+	 * root in the right half plane, since the root form takes those as (root - s).
+	 * The lowest coefficient that is not zero has the sign of those turns.
+	 *
+	 * @return a new response with the roots of the coefficients.
+	 * @throws IllegalStateException if the constant of the root form would be negative.
+	 */
+	public FrequencyResponse toResponse()
+	{
+		FrequencyResponse response = new FrequencyResponse();
+		synchronized(getLock())
+		{
+			double gain = constant*Math.abs(numerator[numerator.length - 1]/denominator[denominator.length - 1]);
+			gain *= Math.signum(lowest(numerator))*Math.signum(lowest(denominator));
+			if(gain < 0)
+			{
+				throw new IllegalStateException("Root form needs a positive constant, the coefficients give " + gain);
+			}
+			response.setConstant(gain + 0.0);
+			solve();
+			for(Complex root: numeratorRoots)
+			{
+				response.addZero(new Zero(root.getReal(), root.getImaginary()));
+			}
+			for(Complex root: denominatorRoots)
+			{
+				response.addPole(new Pole(root.getReal(), root.getImaginary()));
+			}
+			for(Zero zero: super.getZeros())
+			{
+				response.addZero(zero);
+			}
+			for(Pole pole: super.getPoles())
+			{
+				response.addPole(pole);
+			}
+			response.setPrecision(getPrecision());
+		}
+		return response;
+	}
+
+	/**
+	 * Gets the zeros, found from the coefficients of the numerator,
+	 * followed by the ones waiting for their conjugate.
+	 *
+	 * @return all zeros.
+	 */
+	@Override
+	public Vector<Zero> getZeros()
+	{
+		synchronized(getLock())
+		{
+			solve();
+			Vector<Zero> result = new Vector<Zero>();
+			for(Complex root: numeratorRoots)
+			{
+				result.add(new Zero(root.getReal(), root.getImaginary()));
+			}
+			result.addAll(super.getZeros());
+			return result;
+		}
+	}
+
+	/**
+	 * Gets the poles, found from the coefficients of the denominator,
+	 * followed by the ones waiting for their conjugate.
+	 *
+	 * @return all poles.
+	 */
+	@Override
+	public Vector<Pole> getPoles()
+	{
+		synchronized(getLock())
+		{
+			solve();
+			Vector<Pole> result = new Vector<Pole>();
+			for(Complex root: denominatorRoots)
+			{
+				result.add(new Pole(root.getReal(), root.getImaginary()));
+			}
+			result.addAll(super.getPoles());
+			return result;
+		}
+	}
+
+	/**
+	 * Finds the roots of the coefficients, unless they were found for this revision.
+	 * Needs to be called with the lock held.
+	 */
+	private void solve()
+	{
+		if(solved != revision)
+		{
+			numeratorRoots = roots(numerator);
+			denominatorRoots = roots(denominator);
+			solved = revision;
+		}
+	}
+
+	/**
+	 * Adds a pole, multiplying its factor into the denominator.
+	 *
+	 * @param newone specifies the pole to be added.
+	 */
+	@Override
+	public void addPole(Pole newone)
+	{
+		synchronized(getLock())
+		{
+			define(numerator, include(denominator, poles, newone, new Pole(newone.getReal(), -newone.getImaginary())));
+			constant = turned(newone) ? -constant : constant;
+			revision++;
+		}
+	}
+
+	/**
+	 * Adds a zero, multiplying its factor into the numerator.
+	 *
+	 * @param newone specifies the zero to be added.
+	 */
+	@Override
+	public void addZero(Zero newone)
+	{
+		synchronized(getLock())
+		{
+			define(include(numerator, zeros, newone, new Zero(newone.getReal(), -newone.getImaginary())), denominator);
+			constant = turned(newone) ? -constant : constant;
+			revision++;
+		}
+	}
+
+	/**
+	 * Removes one pole, dividing its factor out of the denominator.
+	 *
+	 * @param oldone specifies the pole to be removed.
+	 * @return whether the pole was found or not.
+	 */
+	@Override
+	public boolean removePole(Pole oldone)
+	{
+		synchronized(getLock())
+		{
+			double[] bottom = exclude(denominator, poles, oldone, new Pole(oldone.getReal(), -oldone.getImaginary()));
+			if(bottom != null)
+			{
+				define(numerator, bottom);
+				constant = turned(oldone) ? -constant : constant;
+				revision++;
+			}
+			return bottom != null;
+		}
+	}
+
+	/**
+	 * Removes one zero, dividing its factor out of the numerator.
+	 *
+	 * @param oldone specifies the zero to be removed.
+	 * @return whether the zero was found or not.
+	 */
+	@Override
+	public boolean removeZero(Zero oldone)
+	{
+		synchronized(getLock())
+		{
+			double[] top = exclude(numerator, zeros, oldone, new Zero(oldone.getReal(), -oldone.getImaginary()));
+			if(top != null)
+			{
+				define(top, denominator);
+				constant = turned(oldone) ? -constant : constant;
+				revision++;
+			}
+			return top != null;
+		}
+	}
+
+	/** Needs to be overridden to reset the coefficients **/
+	@Override
+	public void removeAll()
+	{
+		synchronized(getLock())
+		{
+			super.removeAll();
+			setCoefficients(new double[] { 1 }, new double[] { 1 });
+		}
+	}
+
+	/**
+	 * Calculates the module of the transfer function for the given frequency.
+	 * The result is present in dB scale.
+	 *
+	 * @param x specifies the frequency to be used in rad/s.
+	 * @return value of the module in dBs.
+	 */
+	@Override
+	public double getValue(double x)
+	{
+		double[] values = new double[1];
+		response(new double[] { x }, 0, values, null, 0, 1);
+		return values[0];
+	}
+
+	/**
+	 * Calculates the module of the transfer function for a slice of a grid.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the module in dBs for each frequency.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	@Override
+	public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		response(frequencies, offset, values, null, valuesOffset, length);
+	}
+
+	/**
+	 * Calculates module and phase for a whole grid of frequencies in one pass.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param module receives the module in dBs for each frequency.
+	 * @param phase receives the phase in degrees for each frequency.
+	 */
+	public void getResponse(double[] frequencies, double[] module, double[] phase)
+	{
+		getResponse(frequencies, 0, module, phase, 0, frequencies.length);
+	}
+
+	/**
+	 * Calculates module and phase for a slice of a grid of frequencies in one pass.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the module in dBs for each frequency.
+	 * @param phase receives the phase in degrees for each frequency.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	public void getResponse(double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		response(frequencies, offset, module, phase, valuesOffset, length);
+	}
+
+	/** Weighs a sweep by the coefficients, and the roots waiting for their conjugate **/
+	@Override
+	int terms()
+	{
+		return numerator.length + denominator.length + super.terms();
+	}
+
+	/** Evaluates without the lock, unless a subclass changed that **/
+	@Override
+	boolean isConcurrent()
+	{
+		return getClass() == PolynomialTransferFunction.class;
+	}
+
+	/**
+	 * Evaluates N(jw)/D(jw) for a slice of a grid.
+	 * The phase is the angle of N(jw) times the conjugate of D(jw), so no division is needed,
+	 * turned by half a turn if the constant is negative.
+	 * With {@link Precision#FAST} the logarithm and arc tangent are approximated.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the module in dB, or null if not needed.
+	 * @param phase receives the phase in degrees, or null if not needed.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	private void response(double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		double[] top = numerator;
+		double[] bottom = denominator;
+		double[] topReversed = numeratorReversed;
+		double[] bottomReversed = denominatorReversed;
+		int excess = top.length - bottom.length;
+		boolean fast = (getPrecision() == Precision.FAST);
+		double gain = 20*Math.log10(Math.abs(constant));
+		double sign = (constant < 0) ? -1 : 1;
+		for(int k = 0; k < length; k++)
+		{
+			double x = frequencies[offset + k];
+			boolean reversed = Math.abs(x) > 1;
+			double[] n = reversed ? topReversed : top;
+			double[] d = reversed ? bottomReversed : bottom;
+			double w = reversed ? -1/x : x;
+			double u = -w*w;
+			double nre = horner(n, 0, u);
+			double nim = w*horner(n, 1, u);
+			double dre = horner(d, 0, u);
+			double dim = w*horner(d, 1, u);
+			if(module != null)
+			{
+				double power = (nre*nre + nim*nim)/(dre*dre + dim*dim);
+				double db = fast ? FastKernel.dB(power) : 10*Math.log10(power);
+				if(reversed && excess != 0)
+				{
+					db += excess*(fast ? FastKernel.dB(x*x) : 20*Math.log10(Math.abs(x)));
+				}
+				module[valuesOffset + k] = db + gain;
+			}
+			if(phase != null)
+			{
+				double re = sign*(nre*dre + nim*dim);
+				double im = sign*(nim*dre - nre*dim);
+				/** Puts back (jw)^(n-d) of the reversed coefficients, one quarter turn per power **/
+				int quarters = reversed ? ((excess % 4) + 4 + ((x < 0 && excess % 2 != 0) ? 2 : 0)) % 4 : 0;
+				for(int q = 0; q < quarters; q++)
+				{
+					double temporary = -im;
+					im = re;
+					re = temporary;
+				}
+				double angle = fast ? FastKernel.atan2(im + 0.0, re) : Math.atan2(im + 0.0, re);
+				phase[valuesOffset + k] = angle*360/(2*Math.PI);
+			}
+		}
+		if(zeros.size + poles.size > 0)
+		{
+			waiting(frequencies, offset, module, phase, valuesOffset, length);
+		}
+	}
+
+	/**
+	 * Adds the roots waiting for their conjugate to a slice of a grid, like the root form does.
+	 * The phase is kept between -180 and 180 degrees.
+	 *
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the module in dB, or null if not needed.
+	 * @param phase receives the phase in degrees, or null if not needed.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	private void waiting(double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		if(module != null)
+		{
+			zeros.addModule(frequencies, offset, module, valuesOffset, length, 1);
+			poles.addModule(frequencies, offset, module, valuesOffset, length, -1);
+		}
+		if(phase != null)
+		{
+			double[] angles = new double[length];
+			zeros.addPhase(frequencies, offset, angles, 0, length, 1);
+			poles.addPhase(frequencies, offset, angles, 0, length, -1);
+			for(int k = 0; k < length; k++)
+			{
+				double wrapped = Math.IEEEremainder(phase[valuesOffset + k] + angles[k]*360/(2*Math.PI), 360);
+				phase[valuesOffset + k] = (wrapped == -180) ? 180 : wrapped;
+			}
+		}
+	}
+
+	/**
+	 * Sums every other coefficient by Horner's rule.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers.
+	 * @param parity defines 0 for the even powers or 1 for the odd ones.
+	 * @param u defines the value taking the place of s^2.
+	 * @return sum of c[parity + 2*m]*u^m.
+	 */
+	static double horner(double[] coefficients, int parity, double u)
+	{
+		int top = coefficients.length - 1;
+		if((top - parity) % 2 != 0)
+		{
+			top--;
+		}
+		double sum = 0;
+		for(int k = top; k >= parity; k -= 2)
+		{
+			sum = sum*u + coefficients[k];
+		}
+		return sum;
+	}
+
+	/**
+	 * Finds the roots of a polynomial with the Aberth method.
+	 * Roots at the origin are taken out first, the others start spread over a circle
+	 * as large as the roots can be, and move until every step is negligible.
+	 * Roots whose imaginary part is within {@link RootSet#TOLERANCE} are made real,
+	 * and the others are matched into exact conjugate pairs.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers, the last one not zero.
+	 * @return all roots, repeated as many times as they occur.
+	 */
+	static Complex[] roots(double[] coefficients)
+	{
+		int low = 0;
+		while(coefficients[low] == 0 && low < coefficients.length - 1)
+		{
+			low++;
+		}
+		int degree = coefficients.length - 1 - low;
+		double[] monic = new double[degree + 1];
+		for(int i = 0; i <= degree; i++)
+		{
+			monic[i] = coefficients[low + i]/coefficients[coefficients.length - 1];
+		}
+		double radius = 0;
+		for(int i = 0; i < degree; i++)
+		{
+			radius = Math.max(radius, Math.pow(Math.abs(monic[i]), 1.0/(degree - i)));
+		}
+		Complex[] found = new Complex[degree];
+		for(int i = 0; i < degree; i++)
+		{
+			double angle = 2*Math.PI*i/degree + 0.4;
+			found[i] = new Complex(2*radius*Math.cos(angle), 2*radius*Math.sin(angle));
+		}
+		for(int iteration = 0; iteration < ITERATIONS; iteration++)
+		{
+			double largest = 0;
+			for(int i = 0; i < degree; i++)
+			{
+				Complex value = new Complex(monic[degree], 0);
+				Complex slope = new Complex(0, 0);
+				for(int j = degree - 1; j >= 0; j--)
+				{
+					slope = slope.multiply(found[i]).add(value);
+					value = value.multiply(found[i]).add(new Complex(monic[j], 0));
+				}
+				if(value.isNull())
+				{
+					continue;
+				}
+				Complex newton = value.divide(slope);
+				Complex repulsion = new Complex(0, 0);
+				for(int j = 0; j < degree; j++)
+				{
+					if(j != i)
+					{
+						repulsion = repulsion.add(new Complex(1, 0).divide(found[i].minus(found[j])));
+					}
+				}
+				Complex step = newton.divide(new Complex(1, 0).minus(newton.multiply(repulsion)));
+				found[i] = found[i].minus(step);
+				largest = Math.max(largest, step.getModule()/Math.max(found[i].getModule(), Double.MIN_NORMAL));
+			}
+			if(largest < CONVERGENCE)
+			{
+				break;
+			}
+		}
+		Complex[] result = new Complex[coefficients.length - 1];
+		for(int i = 0; i < low; i++)
+		{
+			result[i] = new Complex(0, 0);
+		}
+		boolean[] paired = new boolean[degree];
+		for(int i = 0; i < degree; i++)
+		{
+			if(paired[i])
+			{
+				continue;
+			}
+			paired[i] = true;
+			double re = found[i].getReal();
+			double im = found[i].getImaginary();
+			int match = -1;
+			if(Math.abs(im) > RootSet.TOLERANCE*found[i].getModule())
+			{
+				double closest = Double.POSITIVE_INFINITY;
+				for(int j = 0; j < degree; j++)
+				{
+					double distance = Math.hypot(found[j].getReal() - re, found[j].getImaginary() + im);
+					if(!paired[j] && found[j].getImaginary()*im < 0 && distance < closest)
+					{
+						closest = distance;
+						match = j;
+					}
+				}
+			}
+			if(match < 0)
+			{
+				result[low++] = new Complex(re, 0);
+			}
+			else
+			{
+				paired[match] = true;
+				re = (re + found[match].getReal())/2;
+				im = (Math.abs(im) + Math.abs(found[match].getImaginary()))/2;
+				result[low++] = new Complex(re, im);
+				result[low++] = new Complex(re, -im);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Multiplies two polynomials.
+	 *
+	 * @param a specifies the coefficients of the first polynomial in ascending powers.
+	 * @param b specifies the coefficients of the second polynomial in ascending powers.
+	 * @return coefficients of the product.
+	 */
+	static double[] multiply(double[] a, double[] b)
+	{
+		double[] result = new double[a.length + b.length - 1];
+		for(int i = 0; i < a.length; i++)
+		{
+			for(int j = 0; j < b.length; j++)
+			{
+				result[i + j] += a[i]*b[j];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Multiplies the factor of a root into coefficients.
+	 * A real root gives (s - root). A complex root gives the real section of
+	 * itself and its conjugate once both are there, and waits in the set until then.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers.
+	 * @param waiting specifies the roots waiting for their conjugate.
+	 * @param root specifies the root to be added.
+	 * @param conjugate specifies the conjugate of the root.
+	 * @return the new coefficients, or the same ones if the root waits.
+	 */
+	static <T extends Complex> double[] include(double[] coefficients, RootSet<T> waiting, T root, T conjugate)
+	{
+		if(root.getImaginary() == 0 || waiting.remove(conjugate))
+		{
+			return multiply(coefficients, factor(root));
+		}
+		waiting.add(root);
+		return coefficients;
+	}
+
+	/**
+	 * Divides the factor of a root out of coefficients.
+	 * A root still waiting for its conjugate is only taken out of the set.
+	 * Taking one root of a complex pair leaves its conjugate waiting.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers.
+	 * @param waiting specifies the roots waiting for their conjugate.
+	 * @param root specifies the root to be removed.
+	 * @param conjugate specifies the conjugate of the root.
+	 * @return the new coefficients, or null if the root was not found.
+	 */
+	static <T extends Complex> double[] exclude(double[] coefficients, RootSet<T> waiting, T root, T conjugate)
+	{
+		if(waiting.remove(root))
+		{
+			return coefficients;
+		}
+		double[] quotient = divide(coefficients, factor(root), root);
+		if(quotient != null && root.getImaginary() != 0)
+		{
+			waiting.add(conjugate);
+		}
+		return quotient;
+	}
+
+	/**
+	 * Verifies if the root form takes the factor of a root as (root - s) instead of (s - root).
+	 * That is the case for real roots in the right half plane, as in {@link Zero#arc(double, double, double)}.
+	 *
+	 * @param root specifies the root.
+	 * @return whether the factor is half a turn from (s - root).
+	 */
+	static boolean turned(Complex root)
+	{
+		return root.getImaginary() == 0 && root.getReal() > 0;
+	}
+
+	/**
+	 * Gets the lowest coefficient that is not zero.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers.
+	 * @return the lowest coefficient not zero, or zero if there is none.
+	 */
+	static double lowest(double[] coefficients)
+	{
+		for(double coefficient: coefficients)
+		{
+			if(coefficient != 0)
+			{
+				return coefficient;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the real factor of a root, with the conjugate of a complex root.
+	 *
+	 * @param root specifies the root.
+	 * @return (s - root) for a real root, (s^2 - 2*re*s + |root|^2) for a complex one.
+	 */
+	static double[] factor(Complex root)
+	{
+		double re = root.getReal();
+		double im = root.getImaginary();
+		if(im == 0)
+		{
+			return new double[] { -re, 1 };
+		}
+		return new double[] { re*re + im*im, -2*re, 1 };
+	}
+
+	/**
+	 * Divides coefficients by a monic factor of one of their roots.
+	 * The root is checked first: the polynomial at the root must be negligible
+	 * against the sum of the absolute values of its terms there.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers.
+	 * @param divisor specifies the factor in ascending powers, the last one 1.
+	 * @param root specifies the root of the factor.
+	 * @return coefficients of the quotient, or null if the root is not one of the coefficients.
+	 */
+	static double[] divide(double[] coefficients, double[] divisor, Complex root)
+	{
+		int degree = divisor.length - 1;
+		if(coefficients.length <= degree)
+		{
+			return null;
+		}
+		double re = 0;
+		double im = 0;
+		double scale = 0;
+		double module = root.getModule();
+		for(int i = coefficients.length - 1; i >= 0; i--)
+		{
+			double temporary = re*root.getReal() - im*root.getImaginary() + coefficients[i];
+			im = re*root.getImaginary() + im*root.getReal();
+			re = temporary;
+			scale = scale*module + Math.abs(coefficients[i]);
+		}
+		if(Math.hypot(re, im) > REMAINDER*scale)
+		{
+			return null;
+		}
+		double[] remainder = coefficients.clone();
+		double[] quotient = new double[coefficients.length - degree];
+		for(int i = quotient.length - 1; i >= 0; i--)
+		{
+			quotient[i] = remainder[i + degree];
+			for(int j = 0; j <= degree; j++)
+			{
+				remainder[i + j] -= quotient[i]*divisor[j];
+			}
+		}
+		return quotient;
+	}
+
+	/**
+	 * Copies coefficients without the zeros after the highest power.
+	 *
+	 * @param coefficients specifies the coefficients in ascending powers.
+	 * @return the coefficients, at least one.
+	 */
+	private static double[] trim(double[] coefficients)
+	{
+		int length = coefficients.length;
+		while(length > 1 && coefficients[length - 1] == 0)
+		{
+			length--;
+		}
+		if(length == 0)
+		{
+			return new double[] { 0 };
+		}
+		double[] result = new double[length];
+		System.arraycopy(coefficients, 0, result, 0, length);
+		return result;
+	}
+
+	/**
+	 * Copies coefficients in the opposite order.
+	 *
+	 * @param coefficients specifies the coefficients.
+	 * @return the coefficients reversed.
+	 */
+	private static double[] reverse(double[] coefficients)
+	{
+		double[] result = new double[coefficients.length];
+		for(int i = 0; i < coefficients.length; i++)
+		{
+			result[i] = coefficients[coefficients.length - 1 - i];
+		}
+		return result;
+	}
+
+	/**
+	 * The {@code PolynomialPhaseFunction} class is the phase view of the coefficients.
+	 */
+	class PolynomialPhaseFunction extends PhaseFunction
+	{
+		/**
+		 * Default constructor using the coefficients of the enclosing function.
+		 */
+		PolynomialPhaseFunction()
+		{
+			super(PolynomialTransferFunction.this);
+		}
+
+		/**
+		 * Gets the function whose coefficients are used.
+		 *
+		 * @return the enclosing function.
+		 */
+		PolynomialTransferFunction getFunction()
+		{
+			return PolynomialTransferFunction.this;
+		}
+
+		/**
+		 * Calculates the phase for the given frequency.
+		 *
+		 * @param x specifies the frequency to be used in rad/s.
+		 * @return value of the phase in degrees, between -180 and 180.
+		 */
+		@Override
+		public double getValue(double x)
+		{
+			double[] values = new double[1];
+			response(new double[] { x }, 0, null, values, 0, 1);
+			return values[0];
+		}
+
+		/**
+		 * Calculates the phase for a slice of a grid.
+		 *
+		 * @param frequencies specifies the frequencies to be used in rad/s.
+		 * @param offset defines the first frequency to be used.
+		 * @param values receives the phase in degrees for each frequency.
+		 * @param valuesOffset defines where the first value is written.
+		 * @param length defines how many frequencies are calculated.
+		 */
+		@Override
+		public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+		{
+			response(frequencies, offset, null, values, valuesOffset, length);
+		}
+
+		@Override
+		public Vector<Zero> getZeros()
+		{
+			return PolynomialTransferFunction.this.getZeros();
+		}
+
+		@Override
+		public Vector<Pole> getPoles()
+		{
+			return PolynomialTransferFunction.this.getPoles();
+		}
+
+		@Override
+		public void addPole(Pole newone)
+		{
+			PolynomialTransferFunction.this.addPole(newone);
+		}
+
+		@Override
+		public void addZero(Zero newone)
+		{
+			PolynomialTransferFunction.this.addZero(newone);
+		}
+
+		@Override
+		public boolean removePole(Pole oldone)
+		{
+			return PolynomialTransferFunction.this.removePole(oldone);
+		}
+
+		@Override
+		public boolean removeZero(Zero oldone)
+		{
+			return PolynomialTransferFunction.this.removeZero(oldone);
+		}
+
+		@Override
+		public void removeAll()
+		{
+			PolynomialTransferFunction.this.removeAll();
+		}
+
+		@Override
+		public void setPrecision(Precision value)
+		{
+			PolynomialTransferFunction.this.setPrecision(value);
+		}
+
+		@Override
+		public void setEvaluation(Evaluation value)
+		{
+			PolynomialTransferFunction.this.setEvaluation(value);
+		}
+
+		@Override
+		public int getRevision()
+		{
+			return PolynomialTransferFunction.this.getRevision();
+		}
+
+		@Override
+		public Object getLock()
+		{
+			return PolynomialTransferFunction.this.getLock();
+		}
+
+		@Override
+		int terms()
+		{
+			return PolynomialTransferFunction.this.terms();
+		}
+
+		@Override
+		boolean isConcurrent()
+		{
+			return PolynomialTransferFunction.this.isConcurrent();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code Precision} enum selects how closely the logarithms and arc tangents of the roots are calculated.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public enum Precision
+{
+	/** Values of {@link Math}, within one ulp **/
+	EXACT,
+	/**
+	 * Polynomial approximations of {@link FastKernel}, within {@link FastKernel#MODULE_ERROR} dB
+	 * and {@link FastKernel#PHASE_ERROR} degrees per root, plenty for a plot on screen.
+	 */
+	FAST
+}
@@ -0,0 +1,210 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+
+/**
+ * The {@code RenderPipeline} class renders module and phase PNG plots for many systems at once.
+ * Each worker thread keeps its own image and encoding buffer, so rendering
+ * a plot allocates almost nothing besides the encoded bytes.
+ * The module and phase renderers are shared and must not be changed once plots are submitted.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class RenderPipeline
+{
+	/** Threads rendering the plots **/
+	ExecutorService workers = null;
+	/** Renderer used for the module plots **/
+	PlotRenderer module = null;
+	/** Renderer used for the phase plots **/
+	PlotRenderer phase = null;
+	/** Image kept by each worker **/
+	ThreadLocal<BufferedImage> images = null;
+	/** Encoding buffer kept by each worker **/
+	ThreadLocal<ByteArrayOutputStream> buffers = null;
+
+	/**
+	 * Default constructor specifying the workers and how the plots look.
+	 *
+	 * @param threads defines how many plots are rendered at the same time.
+	 * @param module specifies the renderer of the module plots.
+	 * @param phase specifies the renderer of the phase plots.
+	 */
+	public RenderPipeline(int threads, PlotRenderer module, PlotRenderer phase)
+	{
+		this.module = module;
+		this.phase = phase;
+		workers = Executors.newFixedThreadPool(threads, new ThreadFactory()
+		{
+			public Thread newThread(Runnable task)
+			{
+				Thread worker = new Thread(task, "render-worker");
+				worker.setDaemon(true);
+				return worker;
+			}
+		});
+		images = new ThreadLocal<BufferedImage>();
+		buffers = new ThreadLocal<ByteArrayOutputStream>()
+		{
+			@Override
+			protected ByteArrayOutputStream initialValue()
+			{
+				return new ByteArrayOutputStream(64*1024);
+			}
+		};
+	}
+
+	/**
+	 * Renders the module and phase plots of a system in the background.
+	 *
+	 * @param system specifies the system to be plotted.
+	 * @return PNG encoded module and phase plots, in this order.
+	 */
+	public Future<byte[][]> submit(final FrequencyResponse system)
+	{
+		return workers.submit(new Callable<byte[][]>()
+		{
+			public byte[][] call() throws IOException
+			{
+				return new byte[][] { encode(module, system), encode(phase, system.getPhaseFunction()) };
+			}
+		});
+	}
+
+	/**
+	 * Renders the module and phase plots of a system in the background, writing them to files.
+	 * The files are named after the given name followed by -module.png and -phase.png.
+	 *
+	 * @param system specifies the system to be plotted.
+	 * @param directory specifies where the files are written.
+	 * @param name defines the start of the file names.
+	 * @return the module and phase files, in this order.
+	 */
+	public Future<File[]> submit(final FrequencyResponse system, final File directory, final String name)
+	{
+		return workers.submit(new Callable<File[]>()
+		{
+			public File[] call() throws IOException
+			{
+				File[] files = { new File(directory, name + "-module.png"), new File(directory, name + "-phase.png") };
+				write(encode(module, system), files[0]);
+				write(encode(phase, system.getPhaseFunction()), files[1]);
+				return files;
+			}
+		});
+	}
+
+	/**
+	 * Renders many systems, naming the files after their position in the batch.
+	 *
+	 * @param systems specifies the systems to be plotted.
+	 * @param directory specifies where the files are written.
+	 * @return one pending result per system.
+	 */
+	public Vector<Future<File[]>> submitAll(Iterable<FrequencyResponse> systems, File directory)
+	{
+		Vector<Future<File[]>> pending = new Vector<Future<File[]>>();
+		int index = 0;
+		for(FrequencyResponse system: systems)
+		{
+			pending.add(submit(system, directory, "system-" + index));
+			index++;
+		}
+		return pending;
+	}
+
+	/**
+	 * Stops the workers after the submitted plots are finished.
+	 */
+	public void shutdown()
+	{
+		workers.shutdown();
+	}
+
+	/**
+	 * Renders a plot into the image of the current worker and encodes it.
+	 *
+	 * @param renderer specifies how the plot looks.
+	 * @param function specifies the function to be plotted.
+	 * @return PNG encoded plot.
+	 * @throws IOException if the image could not be encoded.
+	 */
+	private byte[] encode(PlotRenderer renderer, Function function) throws IOException
+	{
+		BufferedImage image = images.get();
+		if(image == null || image.getWidth() != renderer.width || image.getHeight() != renderer.height)
+		{
+			image = new BufferedImage(renderer.width, renderer.height, BufferedImage.TYPE_INT_RGB);
+			images.set(image);
+		}
+		renderer.render(image, function);
+		ByteArrayOutputStream buffer = buffers.get();
+		buffer.reset();
+		/** Encoding into memory is much faster without the disk cache of ImageIO **/
+		ImageOutputStream stream = new MemoryCacheImageOutputStream(buffer);
+		try
+		{
+			ImageIO.write(image, "png", stream);
+		}
+		finally
+		{
+			stream.close();
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Writes encoded bytes to a file.
+	 *
+	 * @param bytes specifies what is written.
+	 * @param file specifies where it is written.
+	 * @throws IOException if the file could not be written.
+	 */
+	private static void write(byte[] bytes, File file) throws IOException
+	{
+		OutputStream output = new FileOutputStream(file);
+		try
+		{
+			output.write(bytes);
+		}
+		finally
+		{
+			output.close();
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+
+/**
+ * The {@code ResponseCache} class keeps the summed influences of all roots over a few grids.
+ * Adding or removing a root only adds or subtracts that root over each grid,
+ * instead of evaluating every root again.
+ * Only the grids used most recently are kept, up to {@link #CAPACITY}.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class ResponseCache
+{
+	/** Amount of grids kept at the same time **/
+	static final int CAPACITY = 4;
+
+	/** Cached grids, the most recently used first **/
+	LinkedList<Entry> entries = null;
+
+	/**
+	 * Default constructor defining an empty cache.
+	 */
+	public ResponseCache()
+	{
+		entries = new LinkedList<Entry>();
+	}
+
+	/**
+	 * Finds the cached grid holding exactly the given slice of frequencies.
+	 *
+	 * @param frequencies specifies the frequencies to be compared.
+	 * @param offset defines the first frequency to be compared.
+	 * @param length defines how many frequencies are compared.
+	 * @return the cached grid, or null if there is none.
+	 */
+	public Entry find(double[] frequencies, int offset, int length)
+	{
+		Iterator<Entry> iterator = entries.iterator();
+		while(iterator.hasNext())
+		{
+			Entry entry = iterator.next();
+			if(entry.matches(frequencies, offset, length))
+			{
+				if(entry != entries.getFirst())
+				{
+					iterator.remove();
+					entries.addFirst(entry);
+				}
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Makes the cache hold a new grid, evaluating all roots over it.
+	 * The grid used least recently is dropped when the cache is full.
+	 *
+	 * @param frequencies specifies the frequencies of the new grid.
+	 * @param offset defines the first frequency to be used.
+	 * @param length defines how many frequencies are used.
+	 * @param zeros specifies the zeros to be summed.
+	 * @param poles specifies the poles to be summed.
+	 * @return the new cached grid.
+	 */
+	public Entry rebuild(double[] frequencies, int offset, int length, RootSet<Zero> zeros, RootSet<Pole> poles)
+	{
+		Entry entry = new Entry();
+		entry.grid = Arrays.copyOfRange(frequencies, offset, offset + length);
+		entry.module = new double[length];
+		entry.phase = new double[length];
+		if(zeros.getEvaluation() == Evaluation.PRODUCT)
+		{
+			RootProduct.addResponse(zeros, poles, entry.grid, 0, entry.module, entry.phase, 0, length);
+		}
+		else
+		{
+			zeros.addResponse(entry.grid, 0, entry.module, entry.phase, 0, length, 1);
+			poles.addResponse(entry.grid, 0, entry.module, entry.phase, 0, length, -1);
+		}
+		entries.addFirst(entry);
+		if(entries.size() > CAPACITY)
+		{
+			entries.removeLast();
+		}
+		return entry;
+	}
+
+	/**
+	 * Adds the influence of a single root over every cached grid.
+	 * Negative weights remove a root previously added.
+	 *
+	 * @param root specifies the root to be applied.
+	 * @param weight defines 1 for a zero, -1 for a pole, negated for removals.
+	 * @param precision defines the precision the grids were evaluated with.
+	 */
+	public void apply(Complex root, double weight, Precision precision)
+	{
+		RootKernel kernel = RootKernel.getInstance(precision);
+		Iterator<Entry> iterator = entries.iterator();
+		while(iterator.hasNext())
+		{
+			if(!iterator.next().apply(root, weight, kernel))
+			{
+				/** A root right on the grid can not be subtracted later **/
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Sets all cached sums back to zero, keeping the grids.
+	 */
+	public void clear()
+	{
+		for(Entry entry: entries)
+		{
+			Arrays.fill(entry.module, 0);
+			Arrays.fill(entry.phase, 0);
+		}
+	}
+
+	/**
+	 * Drops all cached grids.
+	 */
+	public void invalidate()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * The {@code Entry} class holds the sums over one grid.
+	 */
+	public static class Entry
+	{
+		/** Frequencies of the grid **/
+		double[] grid = null;
+		/** Sum of the module influences in dB, without the constant **/
+		double[] module = null;
+		/** Sum of the phase influences in rads **/
+		double[] phase = null;
+
+		/**
+		 * Verifies if this grid is exactly the given slice of frequencies.
+		 *
+		 * @param frequencies specifies the frequencies to be compared.
+		 * @param offset defines the first frequency to be compared.
+		 * @param length defines how many frequencies are compared.
+		 * @return whether the grid is the same or not.
+		 */
+		boolean matches(double[] frequencies, int offset, int length)
+		{
+			if(grid.length != length)
+			{
+				return false;
+			}
+			for(int k = 0; k < length; k++)
+			{
+				if(grid[k] != frequencies[offset + k])
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the influence of a single root over the grid.
+		 * The same kernel as {@link ResponseCache#rebuild} is used, so both agree with each other.
+		 *
+		 * @param root specifies the root to be applied.
+		 * @param weight defines 1 for a zero, -1 for a pole, negated for removals.
+		 * @param kernel specifies the kernel the grid was evaluated with.
+		 * @return false if the root sits on the grid and the sums are no longer usable.
+		 */
+		boolean apply(Complex root, double weight, RootKernel kernel)
+		{
+			kernel.addFirstResponse(root.getReal(), root.getImaginary(), weight, grid, 0, module, phase, 0, grid.length);
+			for(int k = 0; k < grid.length; k++)
+			{
+				if(Double.isInfinite(module[k]) || Double.isNaN(module[k]))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code RootKernel} class applies the influence of one root to a slice of a grid.
+ * This is the scalar implementation, working on one frequency at a time.
+ * On Java 17 and later, with the jdk.incubator.vector module added, a subclass working
+ * on several frequencies at once is loaded instead by {@link #getInstance()}.
+ * Both give the same values within a few ulps.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class RootKernel
+{
+	/** Class of the vectorized kernel, only present in the Java 17 part of the jar **/
+	static final String VECTORIZED = "math.VectorKernel";
+	/** Class of the vectorized approximations, only present in the Java 17 part of the jar **/
+	static final String VECTORIZED_FAST = "math.VectorFastKernel";
+	/** System property that set to "scalar" keeps the scalar kernels **/
+	static final String PROPERTY = "bodeplotter.kernel";
+
+	/** Kernel used by root sets of exact precision **/
+	private static final RootKernel INSTANCE = load(VECTORIZED, new RootKernel());
+	/** Kernel used by root sets of fast precision **/
+	private static final RootKernel FAST = load(VECTORIZED_FAST, new FastKernel());
+
+	/**
+	 * Gets the kernel used by root sets of exact precision.
+	 *
+	 * @return the fastest exact kernel this JVM can run.
+	 */
+	public static RootKernel getInstance()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Gets the kernel for a precision.
+	 *
+	 * @param precision specifies how closely values are calculated.
+	 * @return the fastest kernel of that precision this JVM can run.
+	 */
+	public static RootKernel getInstance(Precision precision)
+	{
+		return (precision == Precision.FAST) ? FAST : INSTANCE;
+	}
+
+	/**
+	 * Loads a vectorized kernel if possible, falling back to a scalar one.
+	 * Java 8 does not see the class, and Java 17 without the incubator module can not link it.
+	 *
+	 * @param vectorized defines the name of the vectorized class.
+	 * @param scalar specifies the kernel used when the vectorized one can not be loaded.
+	 * @return the kernel to be used.
+	 */
+	static RootKernel load(String vectorized, RootKernel scalar)
+	{
+		if("scalar".equals(System.getProperty(PROPERTY)))
+		{
+			return scalar;
+		}
+		try
+		{
+			return (RootKernel)Class.forName(vectorized).getDeclaredConstructor().newInstance();
+		}
+		catch(ReflectiveOperationException e)
+		{
+			return scalar;
+		}
+		catch(LinkageError e)
+		{
+			return scalar;
+		}
+		catch(UnsupportedOperationException e)
+		{
+			return scalar;
+		}
+	}
+
+	/**
+	 * Gets the amount of frequencies handled at once.
+	 *
+	 * @return amount of lanes, 1 for the scalar kernel.
+	 */
+	public int getLanes()
+	{
+		return 1;
+	}
+
+	/**
+	 * Adds the module of (jw - root) of a first order term to a slice of a grid.
+	 *
+	 * @param re defines the real part of the root.
+	 * @param im defines the imaginary part of the root.
+	 * @param weight defines the factor applied to the influence in dB.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the influences in dB.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	public void addFirstModule(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			values[valuesOffset + k] += weight*Zero.dB(re, im, frequencies[offset + k]);
+		}
+	}
+
+	/**
+	 * Adds the phase of (jw - root) of a first order term to a slice of a grid.
+	 *
+	 * @param re defines the real part of the root.
+	 * @param im defines the imaginary part of the root.
+	 * @param weight defines the factor applied to the influence in rads.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the influences in rads.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	public void addFirstPhase(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			values[valuesOffset + k] += weight*Zero.arc(re, im, frequencies[offset + k]);
+		}
+	}
+
+	/**
+	 * Adds both module and phase of (jw - root) of a first order term to a slice of a grid.
+	 *
+	 * @param re defines the real part of the root.
+	 * @param im defines the imaginary part of the root.
+	 * @param weight defines the factor applied to both influences.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the influences in dB.
+	 * @param phase receives the influences in rads.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	public void addFirstResponse(double re, double im, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			double distance = frequencies[offset + k] - im;
+			module[valuesOffset + k] += weight*10*Math.log10(re*re + distance*distance);
+			double arc;
+			if(re != 0)
+			{
+				arc = Math.atan(distance/(-re));
+			}
+			else
+			{
+				arc = (distance >= 0) ? Math.PI/2 : -Math.PI/2;
+			}
+			phase[valuesOffset + k] += weight*arc;
+		}
+	}
+
+	/**
+	 * Adds the module of a second order section to a slice of a grid.
+	 *
+	 * @param square defines wn^2.
+	 * @param twice defines 2*zeta*wn.
+	 * @param weight defines the factor applied to the influence in dB.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the influences in dB.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	public void addSectionModule(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			values[valuesOffset + k] += weight*SecondOrderSection.dB(square, twice, frequencies[offset + k]);
+		}
+	}
+
+	/**
+	 * Adds the phase of a second order section to a slice of a grid.
+	 *
+	 * @param square defines wn^2.
+	 * @param twice defines 2*zeta*wn.
+	 * @param weight defines the factor applied to the influence in rads.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the influences in rads.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	public void addSectionPhase(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			values[valuesOffset + k] += weight*SecondOrderSection.arc(square, twice, frequencies[offset + k]);
+		}
+	}
+
+	/**
+	 * Adds both module and phase of a second order section to a slice of a grid.
+	 *
+	 * @param square defines wn^2.
+	 * @param twice defines 2*zeta*wn.
+	 * @param weight defines the factor applied to both influences.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the influences in dB.
+	 * @param phase receives the influences in rads.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	public void addSectionResponse(double square, double twice, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		for(int k = 0; k < length; k++)
+		{
+			double x = frequencies[offset + k];
+			double re = square - x*x;
+			double im = twice*x;
+			module[valuesOffset + k] += weight*10*Math.log10(re*re + im*im);
+			double arc;
+			if(twice != 0)
+			{
+				arc = Math.atan2(im, re);
+			}
+			else
+			{
+				arc = (re > 0) ? 0 : Math.PI;
+			}
+			phase[valuesOffset + k] += weight*arc;
+		}
+	}
+}
@@ -0,0 +1,381 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code RootProduct} class evaluates H(jw)/constant as a product of complex factors.
+ * Each zero multiplies and each pole divides the product, and only the end result
+ * goes through a logarithm and an arc tangent, instead of one of each per root.
+ * The product is scaled by powers of two whenever it drifts too far from 1,
+ * so high orders do not overflow, and the scale is kept apart as an exponent.
+ * Factors are taken with the sign of {@link Zero#arc(double, double, double)},
+ * and the turns past pi are counted as they happen, so the phase is the same
+ * sum given by the roots, not just its value between -pi and pi.
+ * Several frequencies are kept at once and each root is applied to all of them,
+ * so the products of different frequencies do not wait on each other.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class RootProduct
+{
+	/** Frequencies evaluated together when a slice is larger **/
+	static final int BLOCK = 256;
+	/** Power of two applied when rescaling **/
+	static final int SHIFT = 128;
+	/** Size above which a product is scaled down **/
+	static final double LARGE = 0x1p128;
+	/** Size below which a product is scaled up **/
+	static final double SMALL = 0x1p-128;
+	/** Products reused by each thread evaluating slices **/
+	static final ThreadLocal<RootProduct> PRODUCTS = new ThreadLocal<RootProduct>()
+	{
+		@Override
+		protected RootProduct initialValue()
+		{
+			return new RootProduct(BLOCK);
+		}
+	};
+
+	/** Real parts of the products **/
+	double[] real = null;
+	/** Imaginary parts of the products **/
+	double[] imaginary = null;
+	/** Powers of two taken out of the products **/
+	int[] exponent = null;
+	/** Full turns taken out of the phases of the products **/
+	int[] turns = null;
+	/** Amount of products in use **/
+	int length = 0;
+
+	/**
+	 * Default constructor defining how many frequencies can be kept.
+	 *
+	 * @param capacity defines the largest amount of frequencies evaluated at once.
+	 */
+	public RootProduct(int capacity)
+	{
+		real = new double[capacity];
+		imaginary = new double[capacity];
+		exponent = new int[capacity];
+		turns = new int[capacity];
+	}
+
+	/**
+	 * Multiplies the factors of all roots for a slice of frequencies, replacing the previous products.
+	 *
+	 * @param zeros specifies the roots of the numerator.
+	 * @param poles specifies the roots of the denominator.
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param length defines how many frequencies are used, up to the capacity.
+	 */
+	public void evaluate(RootSet<?> zeros, RootSet<?> poles, double[] frequencies, int offset, int length)
+	{
+		this.length = length;
+		for(int k = 0; k < length; k++)
+		{
+			real[k] = 1;
+			imaginary[k] = 0;
+			exponent[k] = 0;
+			turns[k] = 0;
+		}
+		include(zeros, frequencies, offset, false);
+		include(poles, frequencies, offset, true);
+	}
+
+	/**
+	 * Gets the module of one product in dB scale.
+	 *
+	 * @param k defines the frequency, counting from the first one evaluated.
+	 * @return value of the module in dB.
+	 */
+	public double getDecibels(int k)
+	{
+		return 10*Math.log10(real[k]*real[k] + imaginary[k]*imaginary[k]) + 2*exponent[k]*FastKernel.DB_PER_OCTAVE;
+	}
+
+	/**
+	 * Gets the phase of one product, counting every turn.
+	 * Adding zero makes -0 positive, so the negative real axis is always pi.
+	 *
+	 * @param k defines the frequency, counting from the first one evaluated.
+	 * @return value of the phase in rads.
+	 */
+	public double getPhase(int k)
+	{
+		return Math.atan2(imaginary[k] + 0.0, real[k]) + 2*Math.PI*turns[k];
+	}
+
+	/**
+	 * Multiplies or divides the products by the factors of a set of roots.
+	 * First order terms give (|re|, x - im), negated for roots in the right half plane,
+	 * and second order sections give (wn^2 - x^2, 2*zeta*wn*x).
+	 * Dividing is done as a product by the conjugate and its squared module.
+	 *
+	 * @param roots specifies the roots to be included.
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param inverse defines whether the factors divide the products.
+	 */
+	private void include(RootSet<?> roots, double[] frequencies, int offset, boolean inverse)
+	{
+		roots.compile();
+		double conjugate = inverse ? -1 : 1;
+		for(int i = 0; i < roots.firsts; i++)
+		{
+			double re = Math.abs(roots.firstReal[i]);
+			double sign = (roots.firstReal[i] > 0) ? -conjugate : conjugate;
+			double im = roots.firstImaginary[i];
+			int weight = (int)roots.firstWeight[i];
+			for(int k = 0; k < length; k++)
+			{
+				apply(k, re, sign*(frequencies[offset + k] - im), weight, inverse);
+			}
+		}
+		for(int i = 0; i < roots.sections; i++)
+		{
+			double square = roots.sectionSquare[i];
+			double twice = conjugate*roots.sectionTwice[i];
+			int weight = (int)roots.sectionWeight[i];
+			for(int k = 0; k < length; k++)
+			{
+				double x = frequencies[offset + k];
+				if(twice == 0)
+				{
+					turn(k, square - x*x, weight, inverse);
+				}
+				else
+				{
+					apply(k, square - x*x, twice*x, weight, inverse);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Multiplies one product by a factor turning it by less than pi, as many times as it repeats.
+	 * If the imaginary part changes sign in the same direction the factor turns,
+	 * the product went past pi and a turn is counted.
+	 *
+	 * @param k defines the product.
+	 * @param re defines the real part of the factor, never negative.
+	 * @param im defines the imaginary part of the factor, already conjugated for divisions.
+	 * @param weight defines how many times the factor repeats.
+	 * @param inverse defines whether the product is divided by the squared module of the factor.
+	 */
+	private void apply(int k, double re, double im, int weight, boolean inverse)
+	{
+		double scale = inverse ? 1/(re*re + im*im) : 1;
+		int direction = ((im > 0) ? 1 : 0) - ((im < 0) ? 1 : 0);
+		for(int m = 0; m < weight; m++)
+		{
+			double a = real[k];
+			double b = imaginary[k];
+			double d = (a*im + b*re)*scale;
+			int crossing = ((b >= 0) ? 1 : 0) - ((d >= 0) ? 1 : 0);
+			turns[k] += (crossing == direction) ? direction : 0;
+			real[k] = (a*re - b*im)*scale;
+			imaginary[k] = d;
+			rescale(k);
+		}
+	}
+
+	/**
+	 * Multiplies one product by the real factor of an undamped section, as many times as it repeats.
+	 * A negative factor turns the product by exactly pi, counterclockwise for zeros and
+	 * clockwise for poles, as in {@link SecondOrderSection#arc(double, double, double)}.
+	 *
+	 * @param k defines the product.
+	 * @param re defines the factor.
+	 * @param weight defines how many times the factor repeats.
+	 * @param inverse defines whether the product is divided by the factor.
+	 */
+	private void turn(int k, double re, int weight, boolean inverse)
+	{
+		double scale = inverse ? 1/re : re;
+		for(int m = 0; m < weight; m++)
+		{
+			double a = real[k];
+			double b = imaginary[k];
+			if(re < 0 && !inverse && (b > 0 || (b == 0 && a < 0)))
+			{
+				turns[k]++;
+			}
+			else if(re < 0 && inverse && (b < 0 || (b == 0 && a > 0)))
+			{
+				turns[k]--;
+			}
+			real[k] = a*scale;
+			imaginary[k] = b*scale;
+			rescale(k);
+		}
+	}
+
+	/**
+	 * Scales one product by a power of two if it drifted too far from 1.
+	 *
+	 * @param k defines the product.
+	 */
+	private void rescale(int k)
+	{
+		double size = Math.abs(real[k]) + Math.abs(imaginary[k]);
+		if(size > LARGE)
+		{
+			real[k] *= SMALL;
+			imaginary[k] *= SMALL;
+			exponent[k] += SHIFT;
+		}
+		else if(size < SMALL && size != 0)
+		{
+			real[k] *= LARGE;
+			imaginary[k] *= LARGE;
+			exponent[k] -= SHIFT;
+		}
+	}
+
+	/**
+	 * Adds module and phase of the products to a slice of a grid.
+	 * With {@link Precision#FAST} the single logarithm and arc tangent are approximated.
+	 *
+	 * @param zeros specifies the roots of the numerator.
+	 * @param poles specifies the roots of the denominator.
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the module in dB, or null if not needed.
+	 * @param phase receives the phase in rads, or null if not needed.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are considered.
+	 */
+	static void addResponse(RootSet<?> zeros, RootSet<?> poles, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		boolean fast = (zeros.getPrecision() == Precision.FAST);
+		RootProduct product = PRODUCTS.get();
+		for(int from = 0; from < length; from += BLOCK)
+		{
+			int size = Math.min(BLOCK, length - from);
+			product.evaluate(zeros, poles, frequencies, offset + from, size);
+			for(int k = 0; k < size; k++)
+			{
+				double re = product.real[k];
+				double im = product.imaginary[k] + 0.0;
+				if(module != null)
+				{
+					double power = re*re + im*im;
+					module[valuesOffset + from + k] += (fast ? FastKernel.dB(power) : 10*Math.log10(power)) + 2*product.exponent[k]*FastKernel.DB_PER_OCTAVE;
+				}
+				if(phase != null)
+				{
+					phase[valuesOffset + from + k] += (fast ? FastKernel.atan2(im, re) : Math.atan2(im, re)) + 2*Math.PI*product.turns[k];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the product for a single frequency, keeping it in locals instead of arrays.
+	 * The factors, rescaling and turns are the same as for a slice, so the values match {@link #evaluate}.
+	 *
+	 * @param zeros specifies the roots of the numerator.
+	 * @param poles specifies the roots of the denominator.
+	 * @param x specifies the frequency to be used in rad/s.
+	 * @param angle defines whether the phase in rads is given instead of the module in dB.
+	 * @return value of the module in dB or of the phase in rads.
+	 */
+	static double value(RootSet<?> zeros, RootSet<?> poles, double x, boolean angle)
+	{
+		double a = 1;
+		double b = 0;
+		int exponent = 0;
+		int turns = 0;
+		for(int side = 0; side < 2; side++)
+		{
+			RootSet<?> roots = (side == 0) ? zeros : poles;
+			boolean inverse = (side == 1);
+			double conjugate = inverse ? -1 : 1;
+			roots.compile();
+			for(int i = 0; i < roots.firsts + roots.sections; i++)
+			{
+				double re;
+				double im;
+				int weight;
+				boolean real = false;
+				if(i < roots.firsts)
+				{
+					re = Math.abs(roots.firstReal[i]);
+					im = ((roots.firstReal[i] > 0) ? -conjugate : conjugate)*(x - roots.firstImaginary[i]);
+					weight = (int)roots.firstWeight[i];
+				}
+				else
+				{
+					int j = i - roots.firsts;
+					re = roots.sectionSquare[j] - x*x;
+					im = conjugate*roots.sectionTwice[j]*x;
+					weight = (int)roots.sectionWeight[j];
+					real = (roots.sectionTwice[j] == 0);
+				}
+				double scale = real ? (inverse ? 1/re : re) : (inverse ? 1/(re*re + im*im) : 1);
+				int direction = ((im > 0) ? 1 : 0) - ((im < 0) ? 1 : 0);
+				for(int m = 0; m < weight; m++)
+				{
+					if(real)
+					{
+						if(re < 0 && !inverse && (b > 0 || (b == 0 && a < 0)))
+						{
+							turns++;
+						}
+						else if(re < 0 && inverse && (b < 0 || (b == 0 && a > 0)))
+						{
+							turns--;
+						}
+						a *= scale;
+						b *= scale;
+					}
+					else
+					{
+						double d = (a*im + b*re)*scale;
+						int crossing = ((b >= 0) ? 1 : 0) - ((d >= 0) ? 1 : 0);
+						turns += (crossing == direction) ? direction : 0;
+						a = (a*re - b*im)*scale;
+						b = d;
+					}
+					double size = Math.abs(a) + Math.abs(b);
+					if(size > LARGE)
+					{
+						a *= SMALL;
+						b *= SMALL;
+						exponent += SHIFT;
+					}
+					else if(size < SMALL && size != 0)
+					{
+						a *= LARGE;
+						b *= LARGE;
+						exponent -= SHIFT;
+					}
+				}
+			}
+		}
+		if(angle)
+		{
+			return Math.atan2(b + 0.0, a) + 2*Math.PI*turns;
+		}
+		return 10*Math.log10(a*a + b*b) + 2*exponent*FastKernel.DB_PER_OCTAVE;
+	}
+}
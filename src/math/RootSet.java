@@ -0,0 +1,485 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Vector;
+
+
+/**
+ * The {@code RootSet} class stores the roots of a transfer function.
+ * Real and imaginary parts are kept in parallel primitive arrays, so
+ * evaluation walks contiguous doubles instead of boxed objects.
+ * Before evaluating, complex conjugate pairs are folded into
+ * {@link SecondOrderSection}s, so one term covers both roots.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class RootSet<T extends Complex>
+{
+	/** Capacity of the arrays for a new set **/
+	private static final int INITIAL_CAPACITY = 8;
+	/** Relative distance under which two roots are taken as a conjugate pair **/
+	static final double TOLERANCE = 1e-9;
+
+	/** Real parts of the stored roots **/
+	double[] real = null;
+	/** Imaginary parts of the stored roots **/
+	double[] imaginary = null;
+	/** How many times each stored root repeats **/
+	int[] multiplicity = null;
+	/** Amount of used positions in the arrays **/
+	int size = 0;
+	/** Original objects in insertion order, only used for the views **/
+	ArrayList<T> objects = null;
+
+	/** Whether the evaluation layout below reflects the stored roots **/
+	boolean compiled = false;
+	/** Real parts of the roots evaluated as first order terms **/
+	double[] firstReal = null;
+	/** Imaginary parts of the roots evaluated as first order terms **/
+	double[] firstImaginary = null;
+	/** Repetitions of each first order term **/
+	double[] firstWeight = null;
+	/** Amount of first order terms **/
+	int firsts = 0;
+	/** Square of the natural frequency of each second order section **/
+	double[] sectionSquare = null;
+	/** Twice the damping ratio times the natural frequency of each section **/
+	double[] sectionTwice = null;
+	/** Repetitions of each second order section **/
+	double[] sectionWeight = null;
+	/** Amount of second order sections **/
+	int sections = 0;
+	/** How closely the roots are evaluated over a grid **/
+	Precision precision = Precision.EXACT;
+	/** Evaluation of the roots over slices of a grid **/
+	RootKernel kernel = RootKernel.getInstance();
+	/** How the influences of the roots are combined **/
+	Evaluation evaluation = Evaluation.SUM;
+
+	/**
+	 * Default constructor defining an empty set.
+	 */
+	public RootSet()
+	{
+		real = new double[INITIAL_CAPACITY];
+		imaginary = new double[INITIAL_CAPACITY];
+		multiplicity = new int[INITIAL_CAPACITY];
+		objects = new ArrayList<T>();
+		firstReal = new double[INITIAL_CAPACITY];
+		firstImaginary = new double[INITIAL_CAPACITY];
+		firstWeight = new double[INITIAL_CAPACITY];
+		sectionSquare = new double[INITIAL_CAPACITY];
+		sectionTwice = new double[INITIAL_CAPACITY];
+		sectionWeight = new double[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds a root to the set.
+	 * A root equal to one already stored only increases its multiplicity,
+	 * so repeated roots are evaluated once regardless of their order.
+	 *
+	 * @param root specifies the root to be added.
+	 */
+	public void add(T root)
+	{
+		objects.add(root);
+		compiled = false;
+		int index = indexOf(root);
+		if(index >= 0)
+		{
+			multiplicity[index]++;
+			return;
+		}
+		if(size == real.length)
+		{
+			grow();
+		}
+		real[size] = root.getReal();
+		imaginary[size] = root.getImaginary();
+		multiplicity[size] = 1;
+		size++;
+	}
+
+	/**
+	 * Removes one occurrence of a root from the set.
+	 * The same object is preferred, otherwise any root with the same value is removed.
+	 *
+	 * @param root specifies the root to be removed.
+	 * @return whether a root with the same value was found or not.
+	 */
+	public boolean remove(T root)
+	{
+		int index = indexOf(root);
+		if(index < 0)
+		{
+			return false;
+		}
+		compiled = false;
+		multiplicity[index]--;
+		if(multiplicity[index] == 0)
+		{
+			size--;
+			System.arraycopy(real, index + 1, real, index, size - index);
+			System.arraycopy(imaginary, index + 1, imaginary, index, size - index);
+			System.arraycopy(multiplicity, index + 1, multiplicity, index, size - index);
+		}
+
+		int position = objects.indexOf(root);
+		for(int i = 0; i < objects.size() && position < 0; i++)
+		{
+			T candidate = objects.get(i);
+			if(candidate.getReal() == root.getReal() && candidate.getImaginary() == root.getImaginary())
+			{
+				position = i;
+			}
+		}
+		objects.remove(position);
+		return true;
+	}
+
+	/**
+	 * Finds the position where a root with the same value is stored.
+	 *
+	 * @param root specifies the root to be found.
+	 * @return position of the root, or -1 if it is not stored.
+	 */
+	private int indexOf(Complex root)
+	{
+		for(int i = 0; i < size; i++)
+		{
+			if(real[i] == root.getReal() && imaginary[i] == root.getImaginary())
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Defines how closely the roots are evaluated over a grid.
+	 * Values of single frequencies are always exact.
+	 *
+	 * @param value specifies the precision.
+	 */
+	public void setPrecision(Precision value)
+	{
+		precision = value;
+		kernel = RootKernel.getInstance(value);
+	}
+
+	/**
+	 * Gets how closely the roots are evaluated over a grid.
+	 *
+	 * @return precision of the grid evaluations.
+	 */
+	public Precision getPrecision()
+	{
+		return precision;
+	}
+
+	/**
+	 * Defines how the influences of the roots are combined.
+	 * The set only stores it, the functions over the set apply it.
+	 *
+	 * @param value specifies the evaluation.
+	 */
+	public void setEvaluation(Evaluation value)
+	{
+		evaluation = value;
+	}
+
+	/**
+	 * Gets how the influences of the roots are combined.
+	 *
+	 * @return evaluation of the roots.
+	 */
+	public Evaluation getEvaluation()
+	{
+		return evaluation;
+	}
+
+	/**
+	 * Gets the amount of distinct roots stored.
+	 *
+	 * @return amount of roots, not counting repetitions.
+	 */
+	public int distinct()
+	{
+		return size;
+	}
+
+	/**
+	 * Gets how many times a root repeats in the set.
+	 *
+	 * @param root specifies the root to be found.
+	 * @return multiplicity of the root, 0 if it is not stored.
+	 */
+	public int multiplicityOf(Complex root)
+	{
+		int index = indexOf(root);
+		return (index < 0) ? 0 : multiplicity[index];
+	}
+
+	/**
+	 * Removes all roots from the set.
+	 */
+	public void clear()
+	{
+		size = 0;
+		objects.clear();
+		compiled = false;
+	}
+
+	/**
+	 * Gets the amount of roots, counting repetitions.
+	 *
+	 * @return amount of roots.
+	 */
+	public int count()
+	{
+		return objects.size();
+	}
+
+	/**
+	 * Verifies if the set has no roots.
+	 *
+	 * @return whether the set is empty or not.
+	 */
+	public boolean isEmpty()
+	{
+		return objects.isEmpty();
+	}
+
+	/**
+	 * Builds a vector with the original root objects in insertion order.
+	 * The vector is a copy, changing it does not change the set.
+	 *
+	 * @return all roots.
+	 */
+	public Vector<T> toVector()
+	{
+		return new Vector<T>(objects);
+	}
+
+	/**
+	 * Sums the module of (jw - root) over all roots.
+	 * The value is returned in dB scale.
+	 *
+	 * @param x specifies the frequency to be considered.
+	 * @return sum of all influences in dB.
+	 */
+	public double module(double x)
+	{
+		compile();
+		double result = 0;
+		for(int i = 0; i < firsts; i++)
+		{
+			result += firstWeight[i]*Zero.dB(firstReal[i], firstImaginary[i], x);
+		}
+		for(int i = 0; i < sections; i++)
+		{
+			result += sectionWeight[i]*SecondOrderSection.dB(sectionSquare[i], sectionTwice[i], x);
+		}
+		return result;
+	}
+
+	/**
+	 * Sums the phase of (jw - root) over all roots.
+	 * The value is returned in rad scale.
+	 *
+	 * @param x specifies the frequency to be considered.
+	 * @return sum of all influences in rads.
+	 */
+	public double phase(double x)
+	{
+		compile();
+		double result = 0;
+		for(int i = 0; i < firsts; i++)
+		{
+			result += firstWeight[i]*Zero.arc(firstReal[i], firstImaginary[i], x);
+		}
+		for(int i = 0; i < sections; i++)
+		{
+			result += sectionWeight[i]*SecondOrderSection.arc(sectionSquare[i], sectionTwice[i], x);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the module of (jw - root) of all roots to a slice of a grid.
+	 * Loops over the roots first, so each root stays in registers for the whole slice.
+	 * 
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the sum of the influences in dB.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are considered.
+	 * @param sign defines 1 for adding the influences or -1 for subtracting them.
+	 */
+	public void addModule(double[] frequencies, int offset, double[] values, int valuesOffset, int length, double sign)
+	{
+		compile();
+		for(int i = 0; i < firsts; i++)
+		{
+			kernel.addFirstModule(firstReal[i], firstImaginary[i], sign*firstWeight[i], frequencies, offset, values, valuesOffset, length);
+		}
+		for(int i = 0; i < sections; i++)
+		{
+			kernel.addSectionModule(sectionSquare[i], sectionTwice[i], sign*sectionWeight[i], frequencies, offset, values, valuesOffset, length);
+		}
+	}
+	
+	/**
+	 * Adds the phase of (jw - root) of all roots to a slice of a grid.
+	 * Loops over the roots first, so each root stays in registers for the whole slice.
+	 * 
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the sum of the influences in rads.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are considered.
+	 * @param sign defines 1 for adding the influences or -1 for subtracting them.
+	 */
+	public void addPhase(double[] frequencies, int offset, double[] values, int valuesOffset, int length, double sign)
+	{
+		compile();
+		for(int i = 0; i < firsts; i++)
+		{
+			kernel.addFirstPhase(firstReal[i], firstImaginary[i], sign*firstWeight[i], frequencies, offset, values, valuesOffset, length);
+		}
+		for(int i = 0; i < sections; i++)
+		{
+			kernel.addSectionPhase(sectionSquare[i], sectionTwice[i], sign*sectionWeight[i], frequencies, offset, values, valuesOffset, length);
+		}
+	}
+
+	/**
+	 * Adds both module and phase of (jw - root) of all roots to a slice of a grid.
+	 * The distance to each root is calculated once and used for both values.
+	 * 
+	 * @param frequencies specifies the frequencies to be considered.
+	 * @param offset defines the first frequency to be used.
+	 * @param module receives the sum of the module influences in dB.
+	 * @param phase receives the sum of the phase influences in rads.
+	 * @param valuesOffset defines where the first values are written.
+	 * @param length defines how many frequencies are considered.
+	 * @param sign defines 1 for adding the influences or -1 for subtracting them.
+	 */
+	public void addResponse(double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length, double sign)
+	{
+		compile();
+		for(int i = 0; i < firsts; i++)
+		{
+			kernel.addFirstResponse(firstReal[i], firstImaginary[i], sign*firstWeight[i], frequencies, offset, module, phase, valuesOffset, length);
+		}
+		for(int i = 0; i < sections; i++)
+		{
+			kernel.addSectionResponse(sectionSquare[i], sectionTwice[i], sign*sectionWeight[i], frequencies, offset, module, phase, valuesOffset, length);
+		}
+	}
+
+	/**
+	 * Builds the evaluation layout if roots changed since the last evaluation.
+	 * Complex conjugate pairs, equal within {@link #TOLERANCE}, become second order sections.
+	 * Every other root stays as a first order term.
+	 */
+	void compile()
+	{
+		if(compiled)
+		{
+			return;
+		}
+		if(firstReal.length < size)
+		{
+			firstReal = new double[real.length];
+			firstImaginary = new double[real.length];
+			firstWeight = new double[real.length];
+			sectionSquare = new double[real.length];
+			sectionTwice = new double[real.length];
+			sectionWeight = new double[real.length];
+		}
+		int[] left = Arrays.copyOf(multiplicity, size);
+		firsts = 0;
+		sections = 0;
+		for(int i = 0; i < size; i++)
+		{
+			if(left[i] == 0)
+			{
+				continue;
+			}
+			if(imaginary[i] != 0)
+			{
+				for(int j = i + 1; j < size && left[i] > 0; j++)
+				{
+					if(left[j] > 0 && isConjugate(i, j))
+					{
+						int paired = Math.min(left[i], left[j]);
+						SecondOrderSection section = new SecondOrderSection((real[i] + real[j])/2, (Math.abs(imaginary[i]) + Math.abs(imaginary[j]))/2);
+						sectionSquare[sections] = section.square;
+						sectionTwice[sections] = section.twice;
+						sectionWeight[sections] = paired;
+						sections++;
+						left[i] -= paired;
+						left[j] -= paired;
+					}
+				}
+			}
+			if(left[i] > 0)
+			{
+				firstReal[firsts] = real[i];
+				firstImaginary[firsts] = imaginary[i];
+				firstWeight[firsts] = left[i];
+				firsts++;
+			}
+		}
+		compiled = true;
+	}
+
+	/**
+	 * Verifies if two stored roots are complex conjugates of each other.
+	 *
+	 * @param i defines the position of the first root.
+	 * @param j defines the position of the second root.
+	 * @return whether the roots form a conjugate pair or not.
+	 */
+	private boolean isConjugate(int i, int j)
+	{
+		if(imaginary[j] == 0 || Math.signum(imaginary[i]) == Math.signum(imaginary[j]))
+		{
+			return false;
+		}
+		double scale = Math.max(Math.hypot(real[i], imaginary[i]), Math.hypot(real[j], imaginary[j]));
+		return Math.abs(real[i] - real[j]) <= TOLERANCE*scale && Math.abs(imaginary[i] + imaginary[j]) <= TOLERANCE*scale;
+	}
+
+	/**
+	 * Doubles the capacity of the arrays.
+	 */
+	private void grow()
+	{
+		int capacity = real.length*2;
+		real = Arrays.copyOf(real, capacity);
+		imaginary = Arrays.copyOf(imaginary, capacity);
+		multiplicity = Arrays.copyOf(multiplicity, capacity);
+	}
+}
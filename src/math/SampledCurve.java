@@ -0,0 +1,255 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.Arrays;
+
+
+/**
+ * The {@code SampledCurve} class keeps samples of a function along a logarithmic X axis.
+ * Samples are taken once per pixel column and refined where the curve bends
+ * or climbs faster than the pixels can show.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class SampledCurve
+{
+	/** Deepest subdivision of a single pixel column **/
+	static final int MAXIMUM_DEPTH = 8;
+	/** Deepest subdivision caused only by a steep slope **/
+	static final int SLOPE_DEPTH = 3;
+	/** Jump between neighbor samples, in tolerances, considered steep **/
+	static final double SLOPE_LIMIT = 32;
+	/** Extra evaluations allowed per pixel column while refining **/
+	static final int BUDGET = 4;
+
+	/** Logarithm of the frequency of each sample **/
+	double[] position = null;
+	/** Value of the function for each sample **/
+	double[] value = null;
+	/** Amount of samples **/
+	int count = 0;
+	/** Evaluations still allowed while refining **/
+	double credit = 0;
+
+	/**
+	 * Default constructor defining an empty curve.
+	 */
+	public SampledCurve()
+	{
+		position = new double[64];
+		value = new double[64];
+	}
+
+	/**
+	 * Constructor defining a curve from known samples, such as a measured sweep.
+	 *
+	 * @param frequencies specifies the frequencies of the samples in rad/s, sorted.
+	 * @param values specifies the value of each sample.
+	 */
+	public SampledCurve(double[] frequencies, double[] values)
+	{
+		count = Math.min(frequencies.length, values.length);
+		position = new double[Math.max(count, 1)];
+		value = Arrays.copyOf(values, position.length);
+		for(int i = 0; i < count; i++)
+		{
+			position[i] = Math.log10(frequencies[i]);
+		}
+	}
+
+	/**
+	 * Samples a function over a range of decades.
+	 * Each column of the grid is evaluated once, in a single batch,
+	 * and then intervals are split where the straight line between
+	 * samples is further than the tolerance from the real curve.
+	 *
+	 * @param function specifies the function to be sampled.
+	 * @param first defines the logarithm of the lowest frequency.
+	 * @param last defines the logarithm of the highest frequency.
+	 * @param columns defines how many intervals the range is split into.
+	 * @param tolerance defines the largest visible error, in function units.
+	 * @return the sampled curve.
+	 */
+	public static SampledCurve sample(Function function, double first, double last, int columns, double tolerance)
+	{
+		if(columns <= 0)
+		{
+			return new SampledCurve();
+		}
+		double step = (last - first)/columns;
+		double[] frequencies = new double[columns + 1];
+		double[] values = new double[columns + 1];
+		for(int c = 0; c <= columns; c++)
+		{
+			frequencies[c] = Math.pow(10, first + c*step);
+		}
+		synchronized(function.getLock())
+		{
+			function.getValues(frequencies, values);
+		}
+		return refine(function, first, step, values, BUDGET, tolerance);
+	}
+
+	/**
+	 * Samples a function over whole decades, taking the columns from a tile cache.
+	 * The columns are as fine as the tiles of the level matching the requested columns,
+	 * so decades computed for an earlier range are not computed again.
+	 *
+	 * @param function specifies the function to be sampled.
+	 * @param tiles specifies the tiles kept for the function.
+	 * @param first defines the logarithm of the lowest frequency.
+	 * @param last defines the logarithm of the highest frequency.
+	 * @param columns defines the least amount of intervals the range is split into.
+	 * @param tolerance defines the largest visible error, in function units.
+	 * @return the sampled curve.
+	 */
+	public static SampledCurve sample(Function function, TileCache tiles, int first, int last, int columns, double tolerance)
+	{
+		if(columns <= 0 || last <= first)
+		{
+			return new SampledCurve();
+		}
+		int level = TileCache.level(columns/(double)(last - first));
+		double[] values = tiles.values(first, last, level);
+		return refine(function, first, 1.0/TileCache.samples(level), values, BUDGET*columns/(double)(values.length - 1), tolerance);
+	}
+
+	/**
+	 * Builds a curve from evenly spaced columns, refining each one.
+	 * The lock of the function is held while evaluating, but released
+	 * between columns so edits are not blocked for the whole sampling.
+	 * If the thread is interrupted the curve is returned incomplete.
+	 * Each column adds its allowance of evaluations to a credit, and whatever
+	 * a flat column does not use is left for the columns after it.
+	 * An infinite tolerance accepts every column as it is, without evaluating anything.
+	 *
+	 * @param function specifies the function being sampled.
+	 * @param first defines the logarithm of the lowest frequency.
+	 * @param step defines the distance between columns, in decades.
+	 * @param values specifies the values at the columns.
+	 * @param allowance defines the extra evaluations allowed per column.
+	 * @param tolerance defines the largest visible error, in function units.
+	 * @return the sampled curve.
+	 */
+	private static SampledCurve refine(Function function, double first, double step, double[] values, double allowance, double tolerance)
+	{
+		SampledCurve curve = new SampledCurve();
+		curve.add(first, values[0]);
+		boolean coarse = Double.isInfinite(tolerance);
+		for(int c = 0; c < values.length - 1; c++)
+		{
+			if(Thread.currentThread().isInterrupted())
+			{
+				return curve;
+			}
+			if(!coarse)
+			{
+				curve.credit += allowance;
+				synchronized(function.getLock())
+				{
+					curve.refine(function, first + c*step, values[c], first + (c + 1)*step, values[c + 1], tolerance, 0);
+				}
+			}
+			curve.add(first + (c + 1)*step, values[c + 1]);
+		}
+		return curve;
+	}
+
+	/**
+	 * Inserts samples between two known ones while the curve is not straight enough.
+	 *
+	 * @param function specifies the function being sampled.
+	 * @param left defines the position of the left sample.
+	 * @param leftvalue defines the value of the left sample.
+	 * @param right defines the position of the right sample.
+	 * @param rightvalue defines the value of the right sample.
+	 * @param tolerance defines the largest visible error, in function units.
+	 * @param depth defines how many times the column was split already.
+	 */
+	private void refine(Function function, double left, double leftvalue, double right, double rightvalue, double tolerance, int depth)
+	{
+		if(depth >= MAXIMUM_DEPTH || credit < 1)
+		{
+			return;
+		}
+		credit--;
+		double middle = (left + right)/2;
+		double middlevalue = function.getValue(Math.pow(10, middle));
+		boolean bent = Math.abs(middlevalue - (leftvalue + rightvalue)/2) > tolerance;
+		boolean steep = depth < SLOPE_DEPTH && Math.abs(rightvalue - leftvalue) > SLOPE_LIMIT*tolerance;
+		if(bent || steep)
+		{
+			refine(function, left, leftvalue, middle, middlevalue, tolerance, depth + 1);
+			add(middle, middlevalue);
+			refine(function, middle, middlevalue, right, rightvalue, tolerance, depth + 1);
+		}
+	}
+
+	/**
+	 * Appends a sample to the end of the curve.
+	 *
+	 * @param where defines the logarithm of the frequency.
+	 * @param what defines the value of the function.
+	 */
+	public void add(double where, double what)
+	{
+		if(count == position.length)
+		{
+			position = Arrays.copyOf(position, count*2);
+			value = Arrays.copyOf(value, count*2);
+		}
+		position[count] = where;
+		value[count] = what;
+		count++;
+	}
+
+	/**
+	 * Gets the amount of samples.
+	 *
+	 * @return amount of samples.
+	 */
+	public int getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Gets the logarithm of the frequency of a sample.
+	 *
+	 * @param index defines which sample.
+	 * @return log10 of the frequency in rad/s.
+	 */
+	public double getPosition(int index)
+	{
+		return position[index];
+	}
+
+	/**
+	 * Gets the value of a sample.
+	 *
+	 * @param index defines which sample.
+	 * @return value of the function.
+	 */
+	public double getValue(int index)
+	{
+		return value[index];
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+
+/**
+ * The {@code SecondOrderSection} class models the joint influence of a complex conjugate pair.
+ * For the roots a+jb and a-jb the product of both distances is
+ * (jw - a - jb)(jw - a + jb) = (wn^2 - w^2) + j(2*zeta*wn*w),
+ * with wn^2 = a^2 + b^2 and 2*zeta*wn = -2a.
+ * One logarithm and one arc tangent then account for both roots.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class SecondOrderSection
+{
+	/** Square of the natural frequency **/
+	double square = 0;
+	/** Twice the damping ratio times the natural frequency **/
+	double twice = 0;
+
+	/**
+	 * Default constructor specifying the section from one root of the pair.
+	 *
+	 * @param real defines the real part of the root.
+	 * @param imaginary defines the imaginary part of the root.
+	 */
+	public SecondOrderSection(double real, double imaginary)
+	{
+		square = real*real + imaginary*imaginary;
+		twice = -2*real;
+	}
+
+	/**
+	 * Returns the natural frequency of the section.
+	 *
+	 * @return value of wn in rad/s.
+	 */
+	public double getNaturalFrequency()
+	{
+		return Math.sqrt(square);
+	}
+
+	/**
+	 * Returns the damping ratio of the section.
+	 *
+	 * @return value of zeta.
+	 */
+	public double getDamping()
+	{
+		return twice/(2*Math.sqrt(square));
+	}
+
+	/**
+	 * Calculates the influence of the pair in the module, in dB scale.
+	 *
+	 * @param x specifies the frequency to be considered.
+	 * @return value of the module for the given frequency in dB.
+	 */
+	public double dBValue(double x)
+	{
+		return dB(square, twice, x);
+	}
+
+	/**
+	 * Calculates the influence of the pair in the phase, in rad scale.
+	 *
+	 * @param x specifies the frequency to be considered.
+	 * @return value of the phase for the given frequency in rads.
+	 */
+	public double arcValue(double x)
+	{
+		return arc(square, twice, x);
+	}
+
+	/**
+	 * Calculates the module of the pair in dB scale without creating objects.
+	 *
+	 * @param square defines wn^2.
+	 * @param twice defines 2*zeta*wn.
+	 * @param x specifies the frequency to be considered.
+	 * @return value of the module for the given frequency in dB.
+	 */
+	static double dB(double square, double twice, double x)
+	{
+		double re = square - x*x;
+		double im = twice*x;
+		return 10*Math.log10(re*re + im*im);
+	}
+
+	/**
+	 * Calculates the phase of the pair in rad scale without creating objects.
+	 * The result is the same sum given by {@link Zero#arc(double, double, double)}
+	 * for both roots, since atan(u) + atan(v) only leaves (-pi/2, pi/2) when
+	 * the real part of the product turns negative.
+	 *
+	 * @param square defines wn^2.
+	 * @param twice defines 2*zeta*wn.
+	 * @param x specifies the frequency to be considered.
+	 * @return value of the phase for the given frequency in rads.
+	 */
+	static double arc(double square, double twice, double x)
+	{
+		double re = square - x*x;
+		if(twice == 0)
+		{
+			/** Undamped pair, each root gives +pi/2 or -pi/2 **/
+			return (re > 0) ? 0 : Math.PI;
+		}
+		return Math.atan2(twice*x, re);
+	}
+}
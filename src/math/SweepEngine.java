@@ -0,0 +1,219 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * The {@code SweepEngine} class evaluates a function over a large grid using all cores.
+ * The grid is split in halves until the slices are small enough to stay in cache,
+ * and each slice is written straight into the shared output array.
+ * The lock of the function is held during the whole sweep, so the roots can not
+ * change halfway and the result is the same as a single {@link Function#getValues(double[], double[])}.
+ * Small sweeps are done in the calling thread, where splitting would cost more than it saves,
+ * and so are functions that can not be evaluated without their lock.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class SweepEngine
+{
+	/** Frequencies per slice when none is given, about 32kB of input and output **/
+	static final int GRANULARITY = 2048;
+	/** Root evaluations below which a sweep is not split, when none is given **/
+	static final long CUTOFF = 1 << 16;
+
+	/** Threads sharing the slices **/
+	ForkJoinPool pool = null;
+	/** Largest amount of frequencies in a slice **/
+	int granularity = 0;
+	/** Root evaluations below which a sweep is done in the calling thread **/
+	long cutoff = 0;
+
+	/**
+	 * Default constructor using the common pool and the default sizes.
+	 */
+	public SweepEngine()
+	{
+		this(ForkJoinPool.commonPool(), GRANULARITY, CUTOFF);
+	}
+
+	/**
+	 * Constructor defining the threads and the sizes of the work.
+	 *
+	 * @param pool specifies the threads sharing the slices.
+	 * @param granularity defines the largest amount of frequencies in a slice.
+	 * @param cutoff defines the root evaluations, frequencies times roots, below which nothing is split.
+	 */
+	public SweepEngine(ForkJoinPool pool, int granularity, long cutoff)
+	{
+		if(granularity < 1)
+		{
+			throw new IllegalArgumentException("Granularity must be at least 1");
+		}
+		this.pool = pool;
+		this.granularity = granularity;
+		this.cutoff = cutoff;
+	}
+
+	/**
+	 * Gets the largest amount of frequencies in a slice.
+	 *
+	 * @return frequencies per slice.
+	 */
+	public int getGranularity()
+	{
+		return granularity;
+	}
+
+	/**
+	 * Gets the root evaluations below which a sweep is done in the calling thread.
+	 *
+	 * @return root evaluations.
+	 */
+	public long getCutoff()
+	{
+		return cutoff;
+	}
+
+	/**
+	 * Calculates a function over a whole grid of frequencies.
+	 *
+	 * @param function specifies the function to be evaluated.
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param values receives the value for each frequency.
+	 */
+	public void sweep(final Function function, final double[] frequencies, final double[] values)
+	{
+		synchronized(function.getLock())
+		{
+			if(!function.isConcurrent() || isSmall(function, frequencies.length))
+			{
+				function.getValues(frequencies, values);
+				return;
+			}
+			function.prepare();
+			pool.invoke(new Slice(new Kernel()
+			{
+				void compute(int from, int length)
+				{
+					function.evaluate(frequencies, from, values, from, length);
+				}
+			}, 0, frequencies.length));
+		}
+	}
+
+	/**
+	 * Calculates module and phase of a response over a whole grid of frequencies.
+	 *
+	 * @param response specifies the response to be evaluated.
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param module receives the module in dBs for each frequency.
+	 * @param phase receives the phase in degrees for each frequency.
+	 */
+	public void sweep(final FrequencyResponse response, final double[] frequencies, final double[] module, final double[] phase)
+	{
+		synchronized(response.getLock())
+		{
+			if(!response.isConcurrent() || isSmall(response, frequencies.length))
+			{
+				response.getResponse(frequencies, module, phase);
+				return;
+			}
+			response.prepare();
+			pool.invoke(new Slice(new Kernel()
+			{
+				void compute(int from, int length)
+				{
+					response.evaluate(frequencies, from, module, phase, from, length);
+				}
+			}, 0, frequencies.length));
+		}
+	}
+
+	/**
+	 * Verifies if a sweep is too small to be split.
+	 *
+	 * @param function specifies the function to be evaluated.
+	 * @param length defines the amount of frequencies.
+	 * @return whether the sweep is done in the calling thread or not.
+	 */
+	private boolean isSmall(Function function, int length)
+	{
+		long terms = 1 + function.terms();
+		return length <= granularity || length*terms < cutoff;
+	}
+
+	/**
+	 * The {@code Kernel} class evaluates one part of the grid.
+	 */
+	abstract static class Kernel
+	{
+		/**
+		 * Evaluates a part of the grid small enough to stay in cache.
+		 *
+		 * @param from defines the first frequency.
+		 * @param length defines the amount of frequencies.
+		 */
+		abstract void compute(int from, int length);
+	}
+
+	/**
+	 * The {@code Slice} class is a part of the grid, split in halves until small enough.
+	 */
+	class Slice extends RecursiveAction
+	{
+		/** Required default version UID **/
+		private static final long serialVersionUID = 1;
+		/** Evaluation of the slices **/
+		Kernel kernel = null;
+		/** First frequency of the slice **/
+		int from = 0;
+		/** Amount of frequencies in the slice **/
+		int length = 0;
+
+		/**
+		 * Default constructor defining the part of the grid.
+		 *
+		 * @param kernel specifies the evaluation of the slices.
+		 * @param from defines the first frequency of the slice.
+		 * @param length defines the amount of frequencies in the slice.
+		 */
+		Slice(Kernel kernel, int from, int length)
+		{
+			this.kernel = kernel;
+			this.from = from;
+			this.length = length;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(length <= granularity)
+			{
+				kernel.compute(from, length);
+				return;
+			}
+			int half = length/2;
+			invokeAll(new Slice(kernel, from, half), new Slice(kernel, from + half, length - half));
+		}
+	}
+}
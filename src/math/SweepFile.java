@@ -0,0 +1,215 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * The {@code SweepFile} class reads sweep results from a binary file without parsing them.
+ * The file starts with a header of 24 bytes: the magic number, the version,
+ * the amount of frequencies, a reserved int and the amount of systems as a long.
+ * The frequencies of the grid follow, and then for each system one block
+ * with the module in dB followed by one block with the phase in degrees.
+ * Every value is a little endian double.
+ * The file is mapped into memory, and responses are handed as views of the mapping.
+ * Views can be read by several threads at once.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class SweepFile
+{
+	/** Bytes "BODE" starting every file, read as a little endian int **/
+	static final int MAGIC = 0x45444F42;
+	/** Version of the format **/
+	static final int VERSION = 1;
+	/** Size of the header in bytes **/
+	static final int HEADER = 24;
+	/** Position of the amount of systems in the header **/
+	static final int COUNT = 16;
+	/** Byte order of every value **/
+	static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	/** Largest mapping, rounded down to whole systems **/
+	static final long SEGMENT = 1L << 30;
+
+	/** File being read **/
+	RandomAccessFile file = null;
+	/** Channel of the file **/
+	FileChannel channel = null;
+	/** Amount of frequencies in the grid **/
+	int points = 0;
+	/** Amount of systems in the file **/
+	long count = 0;
+	/** Frequencies of the grid **/
+	DoubleBuffer grid = null;
+	/** Systems kept in each mapping **/
+	long perSegment = 0;
+	/** Mappings of the systems, created when first used **/
+	MappedByteBuffer[] segments = null;
+
+	/**
+	 * Default constructor opening a file and reading its header.
+	 *
+	 * @param source specifies the file to be read.
+	 * @throws IOException if the file could not be read or is not a sweep file.
+	 */
+	public SweepFile(File source) throws IOException
+	{
+		file = new RandomAccessFile(source, "r");
+		channel = file.getChannel();
+		ByteBuffer header = ByteBuffer.allocate(HEADER).order(ORDER);
+		if(channel.read(header, 0) < HEADER || header.getInt(0) != MAGIC)
+		{
+			file.close();
+			throw new IOException(source + " is not a sweep file");
+		}
+		if(header.getInt(4) != VERSION)
+		{
+			file.close();
+			throw new IOException(source + " has unknown version " + header.getInt(4));
+		}
+		points = header.getInt(8);
+		count = header.getLong(COUNT);
+		if(channel.size() < offset(points, count))
+		{
+			file.close();
+			throw new IOException(source + " is shorter than its header says");
+		}
+		MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, 8L*points);
+		grid = mapped.order(ORDER).asDoubleBuffer();
+		perSegment = Math.max(1, SEGMENT/Math.max(16L*points, 1));
+		segments = new MappedByteBuffer[(int)((count + perSegment - 1)/perSegment)];
+	}
+
+	/**
+	 * Calculates where the blocks of a system start.
+	 *
+	 * @param points defines the amount of frequencies in the grid.
+	 * @param system defines the system.
+	 * @return position in bytes.
+	 */
+	static long offset(int points, long system)
+	{
+		return HEADER + 8L*points + 16L*points*system;
+	}
+
+	/**
+	 * Gets the amount of frequencies in the grid.
+	 *
+	 * @return amount of frequencies.
+	 */
+	public int getPoints()
+	{
+		return points;
+	}
+
+	/**
+	 * Gets the amount of systems in the file.
+	 *
+	 * @return amount of systems.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Gets the frequencies of the grid.
+	 *
+	 * @return a view of the frequencies in rad/s.
+	 */
+	public DoubleBuffer getGrid()
+	{
+		return grid.duplicate();
+	}
+
+	/**
+	 * Gets the module of a system.
+	 *
+	 * @param system defines the system, counting from zero.
+	 * @return a view of the module in dB for each frequency.
+	 * @throws IOException if the file could not be mapped.
+	 */
+	public DoubleBuffer getModule(long system) throws IOException
+	{
+		return block(system, 0);
+	}
+
+	/**
+	 * Gets the phase of a system.
+	 *
+	 * @param system defines the system, counting from zero.
+	 * @return a view of the phase in degrees for each frequency.
+	 * @throws IOException if the file could not be mapped.
+	 */
+	public DoubleBuffer getPhase(long system) throws IOException
+	{
+		return block(system, points);
+	}
+
+	/**
+	 * Gets a view of one block of a system, mapping its segment if needed.
+	 *
+	 * @param system defines the system, counting from zero.
+	 * @param skip defines the doubles skipped from the start of the system.
+	 * @return a view of the block.
+	 * @throws IOException if the file could not be mapped.
+	 */
+	private DoubleBuffer block(long system, int skip) throws IOException
+	{
+		if(system < 0 || system >= count)
+		{
+			throw new IndexOutOfBoundsException("System " + system + " of " + count);
+		}
+		int segment = (int)(system/perSegment);
+		ByteBuffer bytes = null;
+		synchronized(segments)
+		{
+			if(segments[segment] == null)
+			{
+				long first = segment*perSegment;
+				long systems = Math.min(perSegment, count - first);
+				segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY, offset(points, first), 16L*points*systems);
+			}
+			bytes = segments[segment].duplicate();
+		}
+		int start = (int)(16L*points*(system - segment*perSegment) + 8L*skip);
+		bytes.position(start);
+		bytes.limit(start + 8*points);
+		return bytes.slice().order(ORDER).asDoubleBuffer();
+	}
+
+	/**
+	 * Closes the file. Views already handed remain readable.
+	 *
+	 * @throws IOException if the file could not be closed.
+	 */
+	public void close() throws IOException
+	{
+		file.close();
+	}
+}
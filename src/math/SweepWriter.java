@@ -0,0 +1,184 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * The {@code SweepWriter} class writes sweep results in the binary format read by {@link SweepFile}.
+ * The file is mapped a window of systems at a time and the values are copied
+ * straight into the mapping, without any text or stream in between.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class SweepWriter
+{
+	/** Bytes mapped at a time, rounded down to whole systems **/
+	static final int WINDOW = 16 << 20;
+	/** Most frequencies in a grid, so the header and one system fit a single buffer **/
+	public static final int MAXIMUM = Integer.MAX_VALUE/16;
+
+	/** Path of the file being written **/
+	File target = null;
+	/** File being written **/
+	RandomAccessFile file = null;
+	/** Channel of the file **/
+	FileChannel channel = null;
+	/** Amount of frequencies in the grid **/
+	int points = 0;
+	/** Amount of systems written **/
+	long count = 0;
+	/** Mapping receiving the next systems **/
+	MappedByteBuffer window = null;
+	/** Doubles of the mapping receiving the next systems **/
+	DoubleBuffer values = null;
+
+	/**
+	 * Default constructor creating the file and writing its header.
+	 *
+	 * @param target specifies the file to be written, replaced if it exists.
+	 * @param grid specifies the frequencies every system is evaluated at.
+	 * @throws IOException if the file could not be written.
+	 * @throws IllegalArgumentException if the grid is empty or larger than {@link #MAXIMUM}.
+	 */
+	public SweepWriter(File target, double[] grid) throws IOException
+	{
+		check(grid.length);
+		this.target = target;
+		file = new RandomAccessFile(target, "rw");
+		file.setLength(0);
+		channel = file.getChannel();
+		points = grid.length;
+		ByteBuffer header = ByteBuffer.allocate(SweepFile.HEADER + 8*points).order(SweepFile.ORDER);
+		header.putInt(SweepFile.MAGIC).putInt(SweepFile.VERSION).putInt(points).putInt(0).putLong(0);
+		header.asDoubleBuffer().put(grid);
+		header.rewind();
+		channel.write(header, 0);
+	}
+
+	/**
+	 * Verifies if a grid can be written.
+	 *
+	 * @param points defines the amount of frequencies in the grid.
+	 * @throws IllegalArgumentException if the grid is empty or larger than {@link #MAXIMUM}.
+	 */
+	static void check(int points)
+	{
+		if(points < 1)
+		{
+			throw new IllegalArgumentException("Grid needs at least one frequency");
+		}
+		if(points > MAXIMUM)
+		{
+			throw new IllegalArgumentException("Grid of " + points + " frequencies exceeds " + MAXIMUM + " for the binary format");
+		}
+	}
+
+	/**
+	 * Appends the response of one system.
+	 *
+	 * @param module specifies the module in dB for each frequency of the grid.
+	 * @param phase specifies the phase in degrees for each frequency of the grid.
+	 * @throws IOException if the file could not be written.
+	 */
+	public void write(double[] module, double[] phase) throws IOException
+	{
+		write(module, 0, phase, 0);
+	}
+
+	/**
+	 * Appends the response of one system taken from larger arrays.
+	 *
+	 * @param module specifies the module in dB.
+	 * @param moduleOffset defines where the module of the system starts.
+	 * @param phase specifies the phase in degrees.
+	 * @param phaseOffset defines where the phase of the system starts.
+	 * @throws IOException if the file could not be written.
+	 */
+	public void write(double[] module, int moduleOffset, double[] phase, int phaseOffset) throws IOException
+	{
+		if(values == null || !values.hasRemaining())
+		{
+			long block = 16L*points;
+			long systems = Math.max(1, WINDOW/block);
+			window = channel.map(FileChannel.MapMode.READ_WRITE, SweepFile.offset(points, count), systems*block);
+			window.order(SweepFile.ORDER);
+			values = window.asDoubleBuffer();
+		}
+		values.put(module, moduleOffset, points);
+		values.put(phase, phaseOffset, points);
+		count++;
+	}
+
+	/**
+	 * Gets the amount of systems written.
+	 *
+	 * @return amount of systems.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Writes the amount of systems in the header and closes the file.
+	 * The file is cut right after the last system.
+	 *
+	 * @throws IOException if the file could not be written.
+	 */
+	public void close() throws IOException
+	{
+		if(window != null)
+		{
+			window.force();
+		}
+		ByteBuffer amount = ByteBuffer.allocate(8).order(SweepFile.ORDER);
+		amount.putLong(0, count);
+		channel.write(amount, SweepFile.COUNT);
+		channel.truncate(SweepFile.offset(points, count));
+		window = null;
+		values = null;
+		file.close();
+	}
+
+	/**
+	 * Closes the file without finishing it and deletes it.
+	 * Used when the run failed, so no partial file is left looking complete.
+	 *
+	 * @throws IOException if the file could not be closed or deleted.
+	 */
+	public void abort() throws IOException
+	{
+		window = null;
+		values = null;
+		file.close();
+		if(target.exists() && !target.delete())
+		{
+			throw new IOException("Could not delete " + target);
+		}
+	}
+}
@@ -0,0 +1,423 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+
+
+/**
+ * The {@code SystemParser} class reads systems from a channel, one at a time.
+ * Each line holds one system as {@code constant ; zeros ; poles}, roots
+ * being separated by spaces and written as {@code real,imaginary} or just {@code real}.
+ * Empty lines and lines starting with # are skipped.
+ * The same buffers are used for the whole input, so files of any size
+ * are read with the same memory.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class SystemParser
+{
+	/** Size of the byte and char buffers **/
+	static final int CAPACITY = 1 << 16;
+	/** Powers of ten represented exactly by a double **/
+	static final double[] POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/** Channel the text is read from **/
+	ReadableByteChannel channel = null;
+	/** Decoder of the text **/
+	CharsetDecoder decoder = null;
+	/** Bytes read but not decoded yet **/
+	ByteBuffer bytes = null;
+	/** Chars decoded but not parsed yet **/
+	CharBuffer chars = null;
+	/** Whether the channel has no more bytes **/
+	boolean exhausted = false;
+	/** Whether the last characters were decoded already **/
+	boolean finished = false;
+	/** Characters of the number being read **/
+	char[] number = new char[32];
+	/** Line being read, for error messages **/
+	int line = 1;
+
+	/**
+	 * Default constructor reading UTF-8 text.
+	 *
+	 * @param channel specifies where the systems are read from.
+	 */
+	public SystemParser(ReadableByteChannel channel)
+	{
+		this(channel, Charset.forName("UTF-8"));
+	}
+
+	/**
+	 * Constructor defining the charset of the text.
+	 *
+	 * @param channel specifies where the systems are read from.
+	 * @param charset specifies how the text is encoded.
+	 */
+	public SystemParser(ReadableByteChannel channel, Charset charset)
+	{
+		this.channel = channel;
+		decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+		bytes = ByteBuffer.allocateDirect(CAPACITY);
+		chars = CharBuffer.allocate(CAPACITY);
+		chars.flip();
+	}
+
+	/**
+	 * Reads the next system.
+	 *
+	 * @return the system, or null if there are no more systems.
+	 * @throws IOException if the channel could not be read.
+	 * @throws IllegalArgumentException if the text is not a system.
+	 */
+	public FrequencyResponse next() throws IOException
+	{
+		int c = peek();
+		while(c == '#' || Character.isWhitespace(c))
+		{
+			if(c == '#')
+			{
+				while(c != -1 && c != '\n')
+				{
+					read();
+					c = peek();
+				}
+			}
+			else
+			{
+				read();
+				if(c == '\n')
+				{
+					line++;
+				}
+				c = peek();
+			}
+		}
+		if(c == -1)
+		{
+			return null;
+		}
+		FrequencyResponse system = new FrequencyResponse();
+		system.setConstant(number());
+		expect(';');
+		while(blank() != ';')
+		{
+			double real = number();
+			system.addZero(new Zero(real, imaginary()));
+		}
+		read();
+		c = blank();
+		while(c != '\n' && c != -1)
+		{
+			double real = number();
+			system.addPole(new Pole(real, imaginary()));
+			c = blank();
+		}
+		return system;
+	}
+
+	/**
+	 * Reads every system into a queue, waiting whenever the queue is full.
+	 * The end marker is always put last, even if reading fails,
+	 * so whoever takes from the queue knows when to stop.
+	 * If the thread is interrupted nobody is taking anymore, so the systems
+	 * still queued are dropped and the marker is put without waiting.
+	 *
+	 * @param queue specifies where the systems are put.
+	 * @param end specifies the marker put after the last system.
+	 * @return how many systems were read.
+	 * @throws IOException if the channel could not be read.
+	 * @throws InterruptedException if the thread was interrupted while waiting.
+	 */
+	public int drainTo(BlockingQueue<FrequencyResponse> queue, FrequencyResponse end) throws IOException, InterruptedException
+	{
+		int count = 0;
+		boolean ended = false;
+		try
+		{
+			FrequencyResponse system = next();
+			while(system != null)
+			{
+				queue.put(system);
+				count++;
+				system = next();
+			}
+		}
+		catch(InterruptedException e)
+		{
+			queue.clear();
+			queue.offer(end);
+			ended = true;
+			throw e;
+		}
+		finally
+		{
+			if(!ended)
+			{
+				queue.put(end);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Reads the optional imaginary part of a root.
+	 *
+	 * @return the imaginary part, or zero if there is none.
+	 * @throws IOException if the channel could not be read.
+	 */
+	private double imaginary() throws IOException
+	{
+		if(peek() == ',')
+		{
+			read();
+			return number();
+		}
+		return 0;
+	}
+
+	/**
+	 * Reads a separator, skipping spaces before it.
+	 *
+	 * @param separator defines the separator expected.
+	 * @throws IOException if the channel could not be read.
+	 */
+	private void expect(char separator) throws IOException
+	{
+		if(blank() != separator)
+		{
+			throw new IllegalArgumentException("Line " + line + ": expected " + separator);
+		}
+		read();
+	}
+
+	/**
+	 * Skips spaces and tabs.
+	 *
+	 * @return the next character, not consumed.
+	 * @throws IOException if the channel could not be read.
+	 */
+	private int blank() throws IOException
+	{
+		int c = peek();
+		while(c == ' ' || c == '\t' || c == '\r')
+		{
+			read();
+			c = peek();
+		}
+		return c;
+	}
+
+	/**
+	 * Reads a number, skipping spaces before it.
+	 *
+	 * @return the value read.
+	 * @throws IOException if the channel could not be read.
+	 */
+	private double number() throws IOException
+	{
+		int c = blank();
+		int length = 0;
+		while((c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E')
+		{
+			if(length == number.length)
+			{
+				number = Arrays.copyOf(number, length*2);
+			}
+			number[length++] = (char)read();
+			c = peek();
+		}
+		try
+		{
+			return parse(number, length);
+		}
+		catch(NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Line " + line + ": expected a number but found " + new String(number, 0, length) + (c == -1 ? "" : String.valueOf((char)c)));
+		}
+	}
+
+	/**
+	 * Converts decimal text into a double.
+	 * Up to 15 significant digits with exponents up to 22 are converted
+	 * exactly with a single product or division, anything else
+	 * is left to {@link Double#parseDouble(String)}.
+	 *
+	 * @param text specifies the characters of the number.
+	 * @param length defines how many characters are used.
+	 * @return the value of the number.
+	 * @throws NumberFormatException if the text is not a number.
+	 */
+	static double parse(char[] text, int length)
+	{
+		int i = 0;
+		boolean negative = false;
+		if(i < length && (text[i] == '-' || text[i] == '+'))
+		{
+			negative = (text[i] == '-');
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean found = false;
+		while(i < length && text[i] >= '0' && text[i] <= '9')
+		{
+			if(digits < 18)
+			{
+				mantissa = mantissa*10 + (text[i] - '0');
+				digits += (mantissa != 0) ? 1 : 0;
+			}
+			else
+			{
+				exponent++;
+			}
+			found = true;
+			i++;
+		}
+		if(i < length && text[i] == '.')
+		{
+			i++;
+			while(i < length && text[i] >= '0' && text[i] <= '9')
+			{
+				if(digits < 18)
+				{
+					mantissa = mantissa*10 + (text[i] - '0');
+					digits += (mantissa != 0) ? 1 : 0;
+					exponent--;
+				}
+				found = true;
+				i++;
+			}
+		}
+		if(!found)
+		{
+			throw new NumberFormatException();
+		}
+		if(i < length && (text[i] == 'e' || text[i] == 'E'))
+		{
+			i++;
+			boolean below = false;
+			if(i < length && (text[i] == '-' || text[i] == '+'))
+			{
+				below = (text[i] == '-');
+				i++;
+			}
+			if(i == length)
+			{
+				throw new NumberFormatException();
+			}
+			int power = 0;
+			while(i < length && text[i] >= '0' && text[i] <= '9')
+			{
+				power = Math.min(power*10 + (text[i] - '0'), 100000);
+				i++;
+			}
+			exponent += below ? -power : power;
+		}
+		if(i != length)
+		{
+			throw new NumberFormatException();
+		}
+		if(digits > 15 || exponent < -22 || exponent > 22)
+		{
+			return Double.parseDouble(new String(text, 0, length));
+		}
+		double value = (exponent < 0) ? mantissa/POWERS[-exponent] : mantissa*POWERS[exponent];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Gets the next character without consuming it.
+	 *
+	 * @return the character, or -1 at the end of the text.
+	 * @throws IOException if the channel could not be read.
+	 */
+	private int peek() throws IOException
+	{
+		if(!chars.hasRemaining() && !fill())
+		{
+			return -1;
+		}
+		return chars.get(chars.position());
+	}
+
+	/**
+	 * Consumes the next character.
+	 *
+	 * @return the character, or -1 at the end of the text.
+	 * @throws IOException if the channel could not be read.
+	 */
+	private int read() throws IOException
+	{
+		if(!chars.hasRemaining() && !fill())
+		{
+			return -1;
+		}
+		return chars.get();
+	}
+
+	/**
+	 * Decodes more characters into the char buffer.
+	 *
+	 * @return false if there is nothing else to be read.
+	 * @throws IOException if the channel could not be read or the text is not valid.
+	 */
+	private boolean fill() throws IOException
+	{
+		if(finished)
+		{
+			return false;
+		}
+		chars.clear();
+		while(chars.position() == 0)
+		{
+			if(!exhausted && channel.read(bytes) < 0)
+			{
+				exhausted = true;
+			}
+			bytes.flip();
+			CoderResult result = decoder.decode(bytes, chars, exhausted);
+			bytes.compact();
+			if(result.isError())
+			{
+				result.throwException();
+			}
+			if(exhausted)
+			{
+				decoder.flush(chars);
+				finished = true;
+				break;
+			}
+		}
+		chars.flip();
+		return chars.hasRemaining();
+	}
+}
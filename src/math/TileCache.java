@@ -0,0 +1,256 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+
+/**
+ * The {@code TileCache} class keeps values of a function already computed, one decade per tile.
+ * Each decade is kept at several levels of detail, level L holding
+ * {@link #BASE}*2^L intervals per decade, so a tile can also be taken
+ * from any finer one just by skipping samples.
+ * Changing the bandwidth only computes the decades not seen before.
+ * The tiles used least recently are dropped once the memory budget is exceeded,
+ * and all of them are dropped when the function changes.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class TileCache
+{
+	/** Intervals per decade of the coarsest level **/
+	static final int BASE = 1;
+	/** Finest level kept **/
+	static final int MAXIMUM_LEVEL = 16;
+	/** Memory used for tiles when no budget is given, in bytes **/
+	static final long BUDGET = 8 << 20;
+
+	/** Function whose values are kept **/
+	Function function = null;
+	/** Revision of the function the tiles belong to **/
+	int revision = 0;
+	/** Largest memory used for tiles, in bytes **/
+	long budget = 0;
+	/** Memory currently used for tiles, in bytes **/
+	long usage = 0;
+	/** Tiles by decade and level, the least recently used first **/
+	LinkedHashMap<List<Integer>, double[]> tiles = null;
+
+	/**
+	 * Default constructor using the default memory budget.
+	 *
+	 * @param function specifies the function to be cached.
+	 */
+	public TileCache(Function function)
+	{
+		this(function, BUDGET);
+	}
+
+	/**
+	 * Constructor defining the memory budget.
+	 *
+	 * @param function specifies the function to be cached.
+	 * @param budget defines the largest memory used for tiles, in bytes.
+	 */
+	public TileCache(Function function, long budget)
+	{
+		this.function = function;
+		this.budget = budget;
+		revision = function.getRevision();
+		tiles = new LinkedHashMap<List<Integer>, double[]>(16, 0.75f, true);
+	}
+
+	/**
+	 * Finds the coarsest level with at least the given amount of samples per decade.
+	 *
+	 * @param perDecade defines the samples needed per decade.
+	 * @return level of detail, never above {@link #MAXIMUM_LEVEL}.
+	 */
+	public static int level(double perDecade)
+	{
+		int level = 0;
+		while(level < MAXIMUM_LEVEL && samples(level) < perDecade)
+		{
+			level++;
+		}
+		return level;
+	}
+
+	/**
+	 * Gets the amount of intervals per decade of a level.
+	 *
+	 * @param level defines the level of detail.
+	 * @return intervals per decade.
+	 */
+	public static int samples(int level)
+	{
+		return BASE << level;
+	}
+
+	/**
+	 * Gets the function values over whole decades.
+	 * Sample i is taken at 10^(first + i/n), n being the intervals per decade of the level,
+	 * so the result has (last - first)*n + 1 values.
+	 * Missing decades are computed together in a single batch.
+	 *
+	 * @param first defines the logarithm of the lowest frequency.
+	 * @param last defines the logarithm of the highest frequency.
+	 * @param level defines the level of detail.
+	 * @return values of the function.
+	 */
+	public double[] values(int first, int last, int level)
+	{
+		int n = samples(level);
+		double[] result = new double[(last - first)*n + 1];
+		synchronized(function.getLock())
+		{
+			if(function.getRevision() != revision)
+			{
+				clear();
+				revision = function.getRevision();
+			}
+			double[][] found = new double[last - first][];
+			int missing = 0;
+			for(int d = first; d < last; d++)
+			{
+				found[d - first] = lookup(d, level);
+				if(found[d - first] == null)
+				{
+					missing++;
+				}
+			}
+			if(missing > 0)
+			{
+				double[] frequencies = new double[missing*(n + 1)];
+				int k = 0;
+				for(int d = first; d < last; d++)
+				{
+					if(found[d - first] == null)
+					{
+						for(int i = 0; i <= n; i++)
+						{
+							frequencies[k++] = Math.pow(10, d + i/(double)n);
+						}
+					}
+				}
+				double[] computed = new double[frequencies.length];
+				function.getValues(frequencies, computed);
+				k = 0;
+				for(int d = first; d < last; d++)
+				{
+					if(found[d - first] == null)
+					{
+						found[d - first] = Arrays.copyOfRange(computed, k, k + n + 1);
+						store(d, level, found[d - first]);
+						k += n + 1;
+					}
+				}
+			}
+			for(int d = first; d < last; d++)
+			{
+				System.arraycopy(found[d - first], 0, result, (d - first)*n, n + 1);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds a tile, taking it from a finer level when only that one is kept.
+	 *
+	 * @param decade defines the decade of the tile.
+	 * @param level defines the level of detail.
+	 * @return values of the tile, or null if there is none.
+	 */
+	private double[] lookup(int decade, int level)
+	{
+		double[] tile = tiles.get(Arrays.asList(decade, level));
+		if(tile != null)
+		{
+			return tile;
+		}
+		for(int finer = level + 1; finer <= MAXIMUM_LEVEL; finer++)
+		{
+			double[] source = tiles.get(Arrays.asList(decade, finer));
+			if(source != null)
+			{
+				int step = 1 << (finer - level);
+				tile = new double[samples(level) + 1];
+				for(int i = 0; i < tile.length; i++)
+				{
+					tile[i] = source[i*step];
+				}
+				store(decade, level, tile);
+				return tile;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Keeps a tile, dropping the least recently used ones above the budget.
+	 *
+	 * @param decade defines the decade of the tile.
+	 * @param level defines the level of detail.
+	 * @param tile specifies the values of the tile.
+	 */
+	private void store(int decade, int level, double[] tile)
+	{
+		tiles.put(Arrays.asList(decade, level), tile);
+		usage += 8L*tile.length;
+		Iterator<double[]> iterator = tiles.values().iterator();
+		while(usage > budget && tiles.size() > 1)
+		{
+			usage -= 8L*iterator.next().length;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Drops all tiles.
+	 */
+	public void clear()
+	{
+		tiles.clear();
+		usage = 0;
+	}
+
+	/**
+	 * Gets the amount of tiles kept.
+	 *
+	 * @return amount of tiles.
+	 */
+	public int size()
+	{
+		return tiles.size();
+	}
+
+	/**
+	 * Gets the memory used by the tiles kept.
+	 *
+	 * @return memory used in bytes.
+	 */
+	public long getUsage()
+	{
+		return usage;
+	}
+}
@@ -18,6 +18,7 @@
  */
 package math;
 
+import java.util.Arrays;
 
 /**
  * The {@code TransferFunction} class computes the module component of the Bode Plot.
@@ -38,7 +39,11 @@ public class TransferFunction extends Function
 	 */
 	public void setConstant(double value)
 	{
-		constant = value;
+		synchronized(getLock())
+		{
+			constant = value;
+			revision++;
+		}
 	}
 	
 	/**
@@ -61,24 +66,59 @@ public class TransferFunction extends Function
 	public double getValue(double x) 
 	{
 		double result = 0;
-		for(Pole p: poles)
+		if(zeros.evaluation == Evaluation.PRODUCT)
 		{
-			result = result + p.dBValue(x);
+			result = RootProduct.value(zeros, poles, x, false);
 		}
-		for(Zero z: zeros)
+		else
 		{
-			result = result + z.dBValue(x);
+			result = zeros.module(x) - poles.module(x);
 		}
 		
 		result += 20*Math.log10(constant);
 		return result;
 	}
 	
+	/**
+	 * Calculates the module of the transfer function for a slice of a grid.
+	 * Each root is applied to the whole slice before moving to the next one.
+	 * 
+	 * @param frequencies specifies the frequencies to be used in rad/s.
+	 * @param offset defines the first frequency to be used.
+	 * @param values receives the module in dBs for each frequency.
+	 * @param valuesOffset defines where the first value is written.
+	 * @param length defines how many frequencies are calculated.
+	 */
+	@Override
+	public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		Arrays.fill(values, valuesOffset, valuesOffset + length, 20*Math.log10(constant));
+		if(zeros.evaluation == Evaluation.PRODUCT)
+		{
+			RootProduct.addResponse(zeros, poles, frequencies, offset, values, null, valuesOffset, length);
+		}
+		else
+		{
+			zeros.addModule(frequencies, offset, values, valuesOffset, length, 1);
+			poles.addModule(frequencies, offset, values, valuesOffset, length, -1);
+		}
+	}
+	
+	/** Evaluates without the lock, unless a subclass changed that **/
+	@Override
+	boolean isConcurrent()
+	{
+		return getClass() == TransferFunction.class;
+	}
+	
 	/** Needs to be overridden to handle the constant **/
 	@Override
 	public void removeAll()
 	{
-		super.removeAll();
-		constant = 1;
+		synchronized(getLock())
+		{
+			super.removeAll();
+			constant = 1;
+		}
 	}
 }
@@ -45,9 +45,7 @@ public class Zero extends Complex
 	 * @return value of the module for the given frequency in dB.
 	 */
 	public double dBValue(double x) {
-		Complex jw = new Complex(0,x);
-		Complex result = jw.minus(this);
-		return 20*Math.log10(result.getModule());
+		return dB(real, imaginary, x);
 	}
 	
 	/**
@@ -58,9 +56,42 @@ public class Zero extends Complex
 	 * @return value of the phase for the given frequency in rads.
 	 */
 	public double arcValue(double x) {
-		Complex jw = new Complex(0,x);
-		Complex result = jw.minus(this);
-		return result.getPhase();
+		return arc(real, imaginary, x);
 	}
 	
+	/**
+	 * Calculates the module of (jw - zero) in dB scale without creating objects.
+	 * Uses 20*log10(sqrt(m)) = 10*log10(m), so no square root is needed.
+	 * 
+	 * @param real defines the real part of the zero.
+	 * @param imaginary defines the imaginary part of the zero.
+	 * @param x specifies the frequency to be considered.
+	 * @return value of the module for the given frequency in dB.
+	 */
+	static double dB(double real, double imaginary, double x)
+	{
+		double im = x - imaginary;
+		return 10*Math.log10(real*real + im*im);
+	}
+	
+	/**
+	 * Calculates the phase of (jw - zero) in rad scale without creating objects.
+	 * Uses the arc tangent of the ratio, so the phase stays between -pi/2 and pi/2
+	 * as in the asymptotes of the plot, with pi/2 on the imaginary axis.
+	 * 
+	 * @param real defines the real part of the zero.
+	 * @param imaginary defines the imaginary part of the zero.
+	 * @param x specifies the frequency to be considered.
+	 * @return value of the phase for the given frequency in rads.
+	 */
+	static double arc(double real, double imaginary, double x)
+	{
+		double im = x - imaginary;
+		if(real != 0)
+		{
+			return Math.atan(im/(-real));
+		}
+		return (im >= 0) ? Math.PI/2 : -Math.PI/2;
+	}
+
 }
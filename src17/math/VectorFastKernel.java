@@ -0,0 +1,205 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * The {@code VectorFastKernel} class applies the approximations of {@link FastKernel} to several frequencies at once.
+ * The logarithm and arc tangent are evaluated with plain vector arithmetic and the bits
+ * of the doubles. Lanes the logarithm does not cover, such as zero, are calculated exactly instead.
+ * Loops are kept small and free of calls, otherwise the compiler boxes the vectors.
+ * It is compiled only for Java 17 and loaded by {@link RootKernel#getInstance(Precision)}.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class VectorFastKernel extends FastKernel
+{
+	/** Widest vector of doubles of the processor **/
+	static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	/** Bits of 2^52, whose last bits can hold a small integer exactly **/
+	static final long TWO52 = 0x4330000000000000L;
+	/** Value of 2^52 plus the bias of the exponent **/
+	static final double TWO52_BIASED = 4503599627370496.0 + 1023;
+
+	/**
+	 * Default constructor refusing processors without vectors of at least two doubles.
+	 *
+	 * @throws UnsupportedOperationException if vectors would hold a single double.
+	 */
+	public VectorFastKernel()
+	{
+		if(SPECIES.length() < 2)
+		{
+			throw new UnsupportedOperationException("No vectors of doubles");
+		}
+	}
+
+	@Override
+	public int getLanes()
+	{
+		return SPECIES.length();
+	}
+
+	@Override
+	public void addFirstModule(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		double square = re*re;
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector distance = DoubleVector.fromArray(SPECIES, frequencies, offset + k).sub(im);
+			DoubleVector m = distance.mul(distance).add(square);
+			DoubleVector.fromArray(SPECIES, values, valuesOffset + k).add(dB(m).mul(weight)).intoArray(values, valuesOffset + k);
+		}
+		super.addFirstModule(re, im, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addFirstPhase(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		if(re == 0)
+		{
+			/** Only a sign per frequency, nothing to approximate **/
+			super.addFirstPhase(re, im, weight, frequencies, offset, values, valuesOffset, length);
+			return;
+		}
+		int upper = SPECIES.loopBound(length);
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector t = DoubleVector.fromArray(SPECIES, frequencies, offset + k).sub(im).div(-re);
+			/** Tangents above 1 use atan(t) = sign(t)*pi/2 - atan(1/t), infinite ones giving exactly sign(t)*pi/2 **/
+			VectorMask<Double> large = t.abs().compare(VectorOperators.GT, 1);
+			DoubleVector angle = reduced(t.blend(DoubleVector.broadcast(SPECIES, 1).div(t), large));
+			DoubleVector quarter = DoubleVector.broadcast(SPECIES, Math.PI/2).blend(-Math.PI/2, t.compare(VectorOperators.LT, 0));
+			angle = angle.blend(quarter.sub(angle), large);
+			DoubleVector.fromArray(SPECIES, values, valuesOffset + k).add(angle.mul(weight)).intoArray(values, valuesOffset + k);
+		}
+		super.addFirstPhase(re, im, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	/** Two passes, one large loop would not be compiled into registers **/
+	@Override
+	public void addFirstResponse(double re, double im, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		addFirstModule(re, im, weight, frequencies, offset, module, valuesOffset, length);
+		addFirstPhase(re, im, weight, frequencies, offset, phase, valuesOffset, length);
+	}
+
+	@Override
+	public void addSectionModule(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector x = DoubleVector.fromArray(SPECIES, frequencies, offset + k);
+			DoubleVector re = x.mul(x).neg().add(square);
+			DoubleVector im = x.mul(twice);
+			DoubleVector m = re.mul(re).add(im.mul(im));
+			DoubleVector.fromArray(SPECIES, values, valuesOffset + k).add(dB(m).mul(weight)).intoArray(values, valuesOffset + k);
+		}
+		super.addSectionModule(square, twice, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addSectionPhase(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		if(twice == 0)
+		{
+			/** Undamped pair, only 0 or pi per frequency **/
+			super.addSectionPhase(square, twice, weight, frequencies, offset, values, valuesOffset, length);
+			return;
+		}
+		int upper = SPECIES.loopBound(length);
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector x = DoubleVector.fromArray(SPECIES, frequencies, offset + k);
+			DoubleVector re = x.mul(x).neg().add(square);
+			DoubleVector y = x.mul(twice);
+			DoubleVector ay = y.abs();
+			DoubleVector ax = re.abs();
+			/** Same quadrants as atan2, from the angle of the smaller side over the larger **/
+			VectorMask<Double> steep = ay.compare(VectorOperators.GT, ax);
+			DoubleVector angle = reduced(ay.blend(ax, steep).div(ax.blend(ay, steep)));
+			angle = angle.blend(angle.neg().add(Math.PI/2), steep);
+			angle = angle.blend(angle.neg().add(Math.PI), re.compare(VectorOperators.LT, 0));
+			/** Frequencies are not negative, so y is only a signed zero where the angle is zero **/
+			angle = angle.blend(angle.neg(), y.compare(VectorOperators.LT, 0));
+			DoubleVector.fromArray(SPECIES, values, valuesOffset + k).add(angle.mul(weight)).intoArray(values, valuesOffset + k);
+		}
+		super.addSectionPhase(square, twice, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	/** Two passes, one large loop would not be compiled into registers **/
+	@Override
+	public void addSectionResponse(double square, double twice, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		addSectionModule(square, twice, weight, frequencies, offset, module, valuesOffset, length);
+		addSectionPhase(square, twice, weight, frequencies, offset, phase, valuesOffset, length);
+	}
+
+	/**
+	 * Approximates 10*log10(m) for a lane of power ratios, as {@link FastKernel#dB(double)}.
+	 * Lanes outside the normal doubles are calculated exactly.
+	 *
+	 * @param m specifies the power ratios.
+	 * @return values in dB.
+	 */
+	private static DoubleVector dB(DoubleVector m)
+	{
+		LongVector bits = m.reinterpretAsLongs();
+		/** The biased exponent placed in the mantissa of 2^52, which is cheaper than converting longs **/
+		DoubleVector exponent = bits.lanewise(VectorOperators.LSHR, 52).or(TWO52).reinterpretAsDoubles().sub(TWO52_BIASED);
+		DoubleVector mantissa = bits.and(MANTISSA).or(ONE).reinterpretAsDoubles();
+		VectorMask<Double> above = mantissa.compare(VectorOperators.GT, SQRT2);
+		mantissa = mantissa.blend(mantissa.mul(0.5), above);
+		exponent = exponent.blend(exponent.add(1), above);
+		DoubleVector s = mantissa.sub(1).div(mantissa.add(1));
+		DoubleVector s2 = s.mul(s);
+		DoubleVector series = s2.mul(1.0/7).add(1.0/5).mul(s2).add(1.0/3).mul(s2).add(1).mul(s);
+		DoubleVector approximated = series.mul(LOG2_FACTOR).add(exponent).mul(DB_PER_OCTAVE);
+		VectorMask<Double> outside = m.compare(VectorOperators.GE, Double.MIN_NORMAL).and(m.compare(VectorOperators.LE, Double.MAX_VALUE)).not();
+		if(outside.anyTrue())
+		{
+			return approximated.blend(m.lanewise(VectorOperators.LOG10).mul(10), outside);
+		}
+		return approximated;
+	}
+
+	/**
+	 * Evaluates the arc tangent polynomial for a lane, as {@link FastKernel#atan(double)} does for one value.
+	 *
+	 * @param t specifies tangents between -1 and 1.
+	 * @return angles in rads.
+	 */
+	private static DoubleVector reduced(DoubleVector t)
+	{
+		/** Written out, a vector carried around a loop is not kept in registers **/
+		DoubleVector t2 = t.mul(t);
+		DoubleVector sum = t2.mul(ATAN[7]).add(ATAN[6]).mul(t2).add(ATAN[5]).mul(t2).add(ATAN[4]).mul(t2).add(ATAN[3]);
+		sum = sum.mul(t2).add(ATAN[2]).mul(t2).add(ATAN[1]).mul(t2).add(ATAN[0]);
+		return sum.mul(t2).add(1).mul(t);
+	}
+}
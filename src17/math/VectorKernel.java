@@ -0,0 +1,190 @@
+/**
+ *  Copyright (C) 2007 Matheus Borges Teixeira
+ *  
+ *  This file is part of Bode Plotter, a tool for plotting Bode graphs.
+ *
+ *  BodePlotter is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  BodePlotter is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+
+ *  You should have received a copy of the GNU General Public License
+ *  along with BodePlotter.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package math;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * The {@code VectorKernel} class applies the influence of one root to several frequencies at once.
+ * Frequencies are taken in lanes of the widest vector the processor supports,
+ * and whatever does not fill a whole vector is left to the scalar kernel.
+ * It is compiled only for Java 17 and loaded by {@link RootKernel#getInstance()}
+ * when the jdk.incubator.vector module is present.
+ *
+ * @author Matheus Borges Teixeira
+ * @version 1.0
+ */
+public class VectorKernel extends RootKernel
+{
+	/** Widest vector of doubles of the processor **/
+	static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * Default constructor refusing processors without vectors of at least two doubles.
+	 *
+	 * @throws UnsupportedOperationException if vectors would hold a single double.
+	 */
+	public VectorKernel()
+	{
+		if(SPECIES.length() < 2)
+		{
+			throw new UnsupportedOperationException("No vectors of doubles");
+		}
+	}
+
+	@Override
+	public int getLanes()
+	{
+		return SPECIES.length();
+	}
+
+	@Override
+	public void addFirstModule(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		double square = re*re;
+		double factor = weight*10;
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector distance = DoubleVector.fromArray(SPECIES, frequencies, offset + k).sub(im);
+			DoubleVector sum = DoubleVector.fromArray(SPECIES, values, valuesOffset + k);
+			sum.add(distance.mul(distance).add(square).lanewise(VectorOperators.LOG10).mul(factor)).intoArray(values, valuesOffset + k);
+		}
+		super.addFirstModule(re, im, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addFirstPhase(double re, double im, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector distance = DoubleVector.fromArray(SPECIES, frequencies, offset + k).sub(im);
+			DoubleVector sum = DoubleVector.fromArray(SPECIES, values, valuesOffset + k);
+			sum.add(arc(re, distance).mul(weight)).intoArray(values, valuesOffset + k);
+		}
+		super.addFirstPhase(re, im, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addFirstResponse(double re, double im, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		double square = re*re;
+		double factor = weight*10;
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector distance = DoubleVector.fromArray(SPECIES, frequencies, offset + k).sub(im);
+			DoubleVector sum = DoubleVector.fromArray(SPECIES, module, valuesOffset + k);
+			sum.add(distance.mul(distance).add(square).lanewise(VectorOperators.LOG10).mul(factor)).intoArray(module, valuesOffset + k);
+			sum = DoubleVector.fromArray(SPECIES, phase, valuesOffset + k);
+			sum.add(arc(re, distance).mul(weight)).intoArray(phase, valuesOffset + k);
+		}
+		super.addFirstResponse(re, im, weight, frequencies, offset + upper, module, phase, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addSectionModule(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		double factor = weight*10;
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector x = DoubleVector.fromArray(SPECIES, frequencies, offset + k);
+			DoubleVector re = x.mul(x).neg().add(square);
+			DoubleVector im = x.mul(twice);
+			DoubleVector sum = DoubleVector.fromArray(SPECIES, values, valuesOffset + k);
+			sum.add(re.mul(re).add(im.mul(im)).lanewise(VectorOperators.LOG10).mul(factor)).intoArray(values, valuesOffset + k);
+		}
+		super.addSectionModule(square, twice, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addSectionPhase(double square, double twice, double weight, double[] frequencies, int offset, double[] values, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector x = DoubleVector.fromArray(SPECIES, frequencies, offset + k);
+			DoubleVector re = x.mul(x).neg().add(square);
+			DoubleVector sum = DoubleVector.fromArray(SPECIES, values, valuesOffset + k);
+			sum.add(arc(twice, x, re).mul(weight)).intoArray(values, valuesOffset + k);
+		}
+		super.addSectionPhase(square, twice, weight, frequencies, offset + upper, values, valuesOffset + upper, length - upper);
+	}
+
+	@Override
+	public void addSectionResponse(double square, double twice, double weight, double[] frequencies, int offset, double[] module, double[] phase, int valuesOffset, int length)
+	{
+		int upper = SPECIES.loopBound(length);
+		double factor = weight*10;
+		for(int k = 0; k < upper; k += SPECIES.length())
+		{
+			DoubleVector x = DoubleVector.fromArray(SPECIES, frequencies, offset + k);
+			DoubleVector re = x.mul(x).neg().add(square);
+			DoubleVector im = x.mul(twice);
+			DoubleVector sum = DoubleVector.fromArray(SPECIES, module, valuesOffset + k);
+			sum.add(re.mul(re).add(im.mul(im)).lanewise(VectorOperators.LOG10).mul(factor)).intoArray(module, valuesOffset + k);
+			sum = DoubleVector.fromArray(SPECIES, phase, valuesOffset + k);
+			sum.add(arc(twice, x, re).mul(weight)).intoArray(phase, valuesOffset + k);
+		}
+		super.addSectionResponse(square, twice, weight, frequencies, offset + upper, module, phase, valuesOffset + upper, length - upper);
+	}
+
+	/**
+	 * Calculates the phase of (jw - root) for a lane of frequencies.
+	 * Follows the same convention as {@link Zero#arc(double, double, double)}.
+	 *
+	 * @param re defines the real part of the root.
+	 * @param distance specifies the frequencies minus the imaginary part of the root.
+	 * @return phase for each frequency in rads.
+	 */
+	private static DoubleVector arc(double re, DoubleVector distance)
+	{
+		if(re != 0)
+		{
+			return distance.div(-re).lanewise(VectorOperators.ATAN);
+		}
+		VectorMask<Double> above = distance.compare(VectorOperators.GE, 0);
+		return DoubleVector.broadcast(SPECIES, -Math.PI/2).blend(Math.PI/2, above);
+	}
+
+	/**
+	 * Calculates the phase of a second order section for a lane of frequencies.
+	 * Follows the same convention as {@link SecondOrderSection#arc(double, double, double)}.
+	 *
+	 * @param twice defines 2*zeta*wn.
+	 * @param x specifies the frequencies.
+	 * @param re specifies wn^2 minus the square of each frequency.
+	 * @return phase for each frequency in rads.
+	 */
+	private static DoubleVector arc(double twice, DoubleVector x, DoubleVector re)
+	{
+		if(twice != 0)
+		{
+			return x.mul(twice).lanewise(VectorOperators.ATAN2, re);
+		}
+		VectorMask<Double> above = re.compare(VectorOperators.GT, 0);
+		return DoubleVector.broadcast(SPECIES, Math.PI).blend(0, above);
+	}
+}
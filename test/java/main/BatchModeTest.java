@@ -0,0 +1,199 @@
+package main;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import math.FastKernel;
+import math.FrequencyResponse;
+import math.Pole;
+import math.SweepFile;
+import math.Zero;
+
+/**
+ * Tests for the {@code BatchMode} class.
+ */
+public class BatchModeTest {
+
+    @TempDir
+    File directory;
+
+    private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+    private String run(String input, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int status = BatchMode.run(args, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, new PrintStream(errors));
+        assertEquals(0, status, errors.toString());
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testIsBatch() {
+        assertTrue(BatchMode.isBatch(new String[] { "--batch" }));
+        assertFalse(BatchMode.isBatch(new String[0]));
+        assertFalse(BatchMode.isBatch(null));
+        assertFalse(BatchMode.isBatch(new String[] { "--other" }));
+    }
+
+    @Test
+    public void testSingleSystem() {
+        String text = run("# comment\n\n10 ; -1 ; -10,0 -100\n", "--batch", "--from", "1", "--to", "100", "--points", "3");
+        String[] lines = text.split("\n");
+        assertEquals(3, lines.length);
+        FrequencyResponse expected = new FrequencyResponse();
+        expected.setConstant(10);
+        expected.addZero(new Zero(-1.0, 0.0));
+        expected.addPole(new Pole(-10.0, 0.0));
+        expected.addPole(new Pole(-100.0, 0.0));
+        String[] columns = lines[1].split("\t");
+        assertEquals("0", columns[0]);
+        assertEquals(10.0, Double.parseDouble(columns[1]), 1e-9);
+        assertEquals(expected.getValue(10.0), Double.parseDouble(columns[2]), 1e-9);
+        assertEquals(expected.getPhaseFunction().getValue(10.0), Double.parseDouble(columns[3]), 1e-9);
+    }
+
+    @Test
+    public void testManySystemsKeepOrder() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            input.append("1 ; ; -").append(i + 1).append(",").append(i % 7).append('\n');
+        }
+        String text = run(input.toString(), "--batch", "--points", "4", "--threads", "3");
+        String[] lines = text.split("\n");
+        assertEquals(2000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(String.valueOf(i / 4), lines[i].substring(0, lines[i].indexOf('\t')));
+        }
+    }
+
+    @Test
+    public void testFiles() throws Exception {
+        File input = new File(directory, "systems.txt");
+        File output = new File(directory, "results.tsv");
+        Files.write(input.toPath(), "1;;-1\n2;;-2\n".getBytes(StandardCharsets.UTF_8));
+        run("", "--batch", "--input", input.getPath(), "--output", output.getPath(), "--points", "10");
+        assertEquals(20, Files.readAllLines(output.toPath()).size());
+    }
+
+    @Test
+    public void testLargeGrid() throws Exception {
+        File output = new File(directory, "large.tsv");
+        run("1;;-1\n2;;-2\n", "--batch", "--output", output.getPath(), "--from", "1", "--to", "10", "--points", "700000");
+        List<String> lines = Files.readAllLines(output.toPath());
+        assertEquals(1400000, lines.size());
+        String[] columns = lines.get(699999).split("\t");
+        assertEquals("0", columns[0]);
+        assertEquals(10.0, Double.parseDouble(columns[1]), 1e-9);
+        assertEquals(-10 * Math.log10(101), Double.parseDouble(columns[2]), 1e-9);
+        columns = lines.get(700000).split("\t");
+        assertEquals("1", columns[0]);
+        assertEquals(1.0, Double.parseDouble(columns[1]), 1e-9);
+        assertEquals(20 * Math.log10(2 / Math.hypot(1, 2)), Double.parseDouble(columns[2]), 1e-9);
+    }
+
+    @Test
+    public void testBinaryOutput() throws Exception {
+        File output = new File(directory, "results.bin");
+        run("1;;-1\n2;-3;-2,1 -2,-1\n", "--batch", "--output", output.getPath(), "--format", "binary", "--points", "50");
+        SweepFile sweep = new SweepFile(output);
+        assertEquals(2, sweep.getCount());
+        assertEquals(50, sweep.getPoints());
+        FrequencyResponse expected = new FrequencyResponse();
+        expected.setConstant(2);
+        expected.addZero(new Zero(-3.0, 0.0));
+        expected.addPole(new Pole(-2.0, 1.0));
+        expected.addPole(new Pole(-2.0, -1.0));
+        double x = sweep.getGrid().get(20);
+        assertEquals(expected.getValue(x), sweep.getModule(1).get(20), 1e-9);
+        assertEquals(expected.getPhaseFunction().getValue(x), sweep.getPhase(1).get(20), 1e-9);
+        sweep.close();
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--format", "binary" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--format", "xml" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+    }
+
+    @Test
+    public void testLargeBinaryGrid() throws Exception {
+        File output = new File(directory, "large.bin");
+        run("1;;-1\n2;;-2\n3;;-3\n", "--batch", "--output", output.getPath(), "--format", "binary", "--points", "200000");
+        SweepFile sweep = new SweepFile(output);
+        assertEquals(3, sweep.getCount());
+        assertEquals(200000, sweep.getPoints());
+        double x = sweep.getGrid().get(199999);
+        assertEquals(20 * Math.log10(3 / Math.hypot(x, 3)), sweep.getModule(2).get(199999), 1e-9);
+        sweep.close();
+
+        BatchMode batch = new BatchMode();
+        batch.configure(new String[] { "--batch", "--points", "200000" });
+        assertEquals(1, batch.chunk);
+        batch.configure(new String[] { "--batch", "--points", "100" });
+        assertEquals(BatchMode.CHUNK, batch.chunk);
+    }
+
+    @Test
+    public void testFailedBinaryOutput() {
+        File output = new File(directory, "failed.bin");
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            input.append("1 ; ; -").append(i + 1).append('\n');
+        }
+        input.append("1 ; a ; -1\n");
+        String[] args = { "--batch", "--output", output.getPath(), "--format", "binary", "--points", "10" };
+        assertEquals(1, BatchMode.run(args, new ByteArrayInputStream(input.toString().getBytes()), new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertFalse(output.exists());
+    }
+
+    @Test
+    public void testFastPrecision() {
+        String text = run("10 ; -1 ; -10,0 -100\n", "--batch", "--from", "1", "--to", "100", "--points", "3", "--precision", "fast");
+        FrequencyResponse expected = new FrequencyResponse();
+        expected.setConstant(10);
+        expected.addZero(new Zero(-1.0, 0.0));
+        expected.addPole(new Pole(-10.0, 0.0));
+        expected.addPole(new Pole(-100.0, 0.0));
+        String[] columns = text.split("\n")[1].split("\t");
+        assertEquals(expected.getValue(10.0), Double.parseDouble(columns[2]), 3 * FastKernel.MODULE_ERROR);
+        assertEquals(expected.getPhaseFunction().getValue(10.0), Double.parseDouble(columns[3]), 3 * FastKernel.PHASE_ERROR);
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--precision", "sloppy" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+    }
+
+    @Test
+    public void testProductEvaluation() {
+        String text = run("10 ; -1 ; -10,5 -10,-5 -100\n", "--batch", "--from", "1", "--to", "100", "--points", "3", "--evaluation", "product");
+        FrequencyResponse expected = new FrequencyResponse();
+        expected.setConstant(10);
+        expected.addZero(new Zero(-1.0, 0.0));
+        expected.addPole(new Pole(-10.0, 5.0));
+        expected.addPole(new Pole(-10.0, -5.0));
+        expected.addPole(new Pole(-100.0, 0.0));
+        String[] columns = text.split("\n")[1].split("\t");
+        assertEquals(expected.getValue(10.0), Double.parseDouble(columns[2]), 1e-9);
+        assertEquals(expected.getPhaseFunction().getValue(10.0), Double.parseDouble(columns[3]), 1e-9);
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--evaluation", "guess" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+    }
+
+    @Test
+    public void testWrongArguments() {
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--points" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--points", "x" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--colour", "red" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--from", "10", "--to", "1" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertEquals(2, BatchMode.run(new String[] { "--batch", "--format", "binary", "--output", "large.bin", "--points", "300000000" }, System.in, new ByteArrayOutputStream(), new PrintStream(errors)));
+        assertTrue(errors.toString().contains("Usage"));
+    }
+
+    @Test
+    public void testWrongSystems() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, BatchMode.run(new String[] { "--batch" }, new ByteArrayInputStream("1 ; -1".getBytes()), out, new PrintStream(errors)));
+        assertEquals(1, BatchMode.run(new String[] { "--batch" }, new ByteArrayInputStream("1 ; a ; -1".getBytes()), out, new PrintStream(errors)));
+        assertEquals(1, BatchMode.run(new String[] { "--batch", "--input", new File(directory, "missing").getPath() }, System.in, out, new PrintStream(errors)));
+    }
+}
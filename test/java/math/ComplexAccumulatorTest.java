@@ -0,0 +1,77 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code ComplexAccumulator} class.
+ */
+public class ComplexAccumulatorTest {
+
+    @Test
+    public void testDefaultIsZero() {
+        ComplexAccumulator a = new ComplexAccumulator();
+        assertEquals(0.0, a.getReal(), 0);
+        assertEquals(0.0, a.getImaginary(), 0);
+        assertEquals(0.0, a.getModule(), 0);
+        assertEquals(Math.PI / 2, a.getPhase(), 0);
+    }
+
+    @Test
+    public void testSetAndAdd() {
+        ComplexAccumulator a = new ComplexAccumulator().set(1.0, 2.0).add(3.0, 4.0).add(new Complex(-1.0, 1.0));
+        assertEquals(3.0, a.getReal(), 1e-12);
+        assertEquals(7.0, a.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testMultiplyMatchesComplex() {
+        Complex a = new Complex(1.0, 2.0);
+        Complex b = new Complex(3.0, 4.0);
+        Complex expected = a.multiply(b);
+        ComplexAccumulator result = new ComplexAccumulator(1.0, 2.0).multiply(b);
+        assertEquals(expected.getReal(), result.getReal(), 1e-12);
+        assertEquals(expected.getImaginary(), result.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testDivideBothBranches() {
+        // (3+4j)/(2+j) = 2+j and (3+4j)/(1+2j) = 2.2-0.4j
+        ComplexAccumulator wide = new ComplexAccumulator(3.0, 4.0).divide(2.0, 1.0);
+        assertEquals(2.0, wide.getReal(), 1e-12);
+        assertEquals(1.0, wide.getImaginary(), 1e-12);
+        ComplexAccumulator tall = new ComplexAccumulator(3.0, 4.0).divide(new Complex(1.0, 2.0));
+        assertEquals(2.2, tall.getReal(), 1e-12);
+        assertEquals(-0.4, tall.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testChainReturnsToStart() {
+        ComplexAccumulator a = new ComplexAccumulator(0.5, -1.5);
+        for (int i = 1; i <= 50; i++) {
+            a.multiply(i, -2.0 * i);
+        }
+        for (int i = 50; i >= 1; i--) {
+            a.divide(i, -2.0 * i);
+        }
+        assertEquals(0.5, a.getReal(), 1e-12);
+        assertEquals(-1.5, a.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testDivideByZeroIsNaN() {
+        ComplexAccumulator a = new ComplexAccumulator(1.0, 1.0).divide(0.0, 0.0);
+        assertTrue(Double.isNaN(a.getReal()));
+        assertTrue(Double.isNaN(a.getImaginary()));
+    }
+
+    @Test
+    public void testPhaseAndModule() {
+        ComplexAccumulator a = new ComplexAccumulator(-3.0, -4.0);
+        assertEquals(5.0, a.getModule(), 1e-12);
+        assertEquals(Math.atan2(-4.0, -3.0), a.getPhase(), 1e-12);
+        Complex copy = a.toComplex();
+        assertEquals(-3.0, copy.getReal(), 0);
+        assertEquals(-4.0, copy.getImaginary(), 0);
+    }
+}
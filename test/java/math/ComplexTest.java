@@ -51,6 +51,18 @@ public class ComplexTest {
         assertEquals(-Math.PI / 2, c.getPhase(), 1e-9);
     }
 
+    @Test
+    public void testGetPhaseSecondQuadrant() {
+        Complex c = new Complex(-1.0, 1.0);
+        assertEquals(3 * Math.PI / 4, c.getPhase(), 1e-9);
+    }
+
+    @Test
+    public void testGetPhaseThirdQuadrant() {
+        Complex c = new Complex(-1.0, -1.0);
+        assertEquals(-3 * Math.PI / 4, c.getPhase(), 1e-9);
+    }
+
     @Test
     public void testAdd() {
         Complex a = new Complex(1.0, 2.0);
@@ -95,6 +107,36 @@ public class ComplexTest {
         assertEquals(2.0, result.getModule(), 1e-9);
     }
 
+    @Test
+    public void testDivideAcrossQuadrants() {
+        // (-1+j)/(1+j) = j
+        Complex result = new Complex(-1.0, 1.0).divide(new Complex(1.0, 1.0));
+        assertEquals(0.0, result.getReal(), 1e-12);
+        assertEquals(1.0, result.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testDivideByLargerImaginary() {
+        // (3+4j)/(1+2j) = 2.2-0.4j
+        Complex result = new Complex(3.0, 4.0).divide(new Complex(1.0, 2.0));
+        assertEquals(2.2, result.getReal(), 1e-12);
+        assertEquals(-0.4, result.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testDivideHugeParts() {
+        Complex result = new Complex(1e300, 1e300).divide(new Complex(1e300, -1e300));
+        assertEquals(0.0, result.getReal(), 1e-12);
+        assertEquals(1.0, result.getImaginary(), 1e-12);
+    }
+
+    @Test
+    public void testDivideTinyParts() {
+        Complex result = new Complex(3e-300, 0.0).divide(new Complex(0.0, 1e-300));
+        assertEquals(0.0, result.getReal(), 1e-12);
+        assertEquals(-3.0, result.getImaginary(), 1e-12);
+    }
+
     @Test
     public void testIsNullTrue() {
         Complex c = new Complex(0.0, 0.0);
@@ -0,0 +1,99 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code Decimator} class.
+ */
+public class DecimatorTest {
+
+    private SampledCurve noisy(int count, int spike) {
+        SampledCurve series = new SampledCurve();
+        for (int i = 0; i < count; i++) {
+            series.add(-1 + 4.0 * i / (count - 1), i == spike ? 80.0 : Math.sin(i * 0.37));
+        }
+        return series;
+    }
+
+    @Test
+    public void testMinMaxBoundedByColumns() {
+        LogAxis axis = new LogAxis(0.1, 1000, 400);
+        SampledCurve reduced = Decimator.minMax(noisy(200000, 123457), axis);
+        assertTrue(reduced.getCount() <= 2 * 401, "Kept " + reduced.getCount());
+        double peak = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < reduced.getCount(); i++) {
+            peak = Math.max(peak, reduced.getValue(i));
+            if (i > 0) {
+                assertTrue(reduced.getPosition(i) > reduced.getPosition(i - 1));
+            }
+        }
+        assertEquals(80.0, peak, 0);
+    }
+
+    @Test
+    public void testMinMaxKeepsSparseSeries() {
+        LogAxis axis = new LogAxis(0.1, 1000, 400);
+        SampledCurve series = noisy(50, -1);
+        SampledCurve reduced = Decimator.minMax(series, axis);
+        assertEquals(50, reduced.getCount());
+        assertEquals(series.getValue(17), reduced.getValue(17), 0);
+    }
+
+    @Test
+    public void testOnlyVisiblePartIsKept() {
+        LogAxis axis = new LogAxis(1, 10, 400);
+        SampledCurve series = noisy(4001, -1);
+        int[] range = Decimator.visible(series, axis);
+        assertEquals(0.0, series.getPosition(range[0]), 1e-9);
+        assertEquals(1.0, series.getPosition(range[1] - 1), 1e-9);
+        assertTrue(Decimator.minMax(series, axis).getCount() <= 2 * 401 + 2);
+    }
+
+    @Test
+    public void testVisibleMatchesLinearScan() {
+        double[][] positions = { {}, { 0.5 }, { -3, -2 }, { 3, 4 }, { 0, 0, 0.5, 0.5, 1, 1 }, { -1, 0, 0, 0.2, 1, 1, 2 } };
+        double[][] axes = { { 1, 10 }, { 0.01, 0.1 }, { 100, 1000 }, { 0.5, 2 } };
+        for (double[] position : positions) {
+            SampledCurve series = new SampledCurve();
+            for (double where : position) {
+                series.add(where, 0);
+            }
+            for (double[] ends : axes) {
+                LogAxis axis = new LogAxis(ends[0], ends[1], 100);
+                int from = 0;
+                while (from < series.getCount() - 1 && series.getPosition(from + 1) <= axis.getFirst()) {
+                    from++;
+                }
+                int to = series.getCount();
+                while (to > from + 1 && series.getPosition(to - 2) >= axis.getLast()) {
+                    to--;
+                }
+                assertArrayEquals(new int[] { from, to }, Decimator.visible(series, axis));
+            }
+        }
+    }
+
+    @Test
+    public void testTriangles() {
+        LogAxis axis = new LogAxis(0.1, 1000, 400);
+        SampledCurve series = noisy(100000, 40000);
+        SampledCurve reduced = Decimator.triangles(series, axis, 300);
+        assertEquals(300, reduced.getCount());
+        assertEquals(series.getPosition(0), reduced.getPosition(0), 0);
+        assertEquals(series.getPosition(99999), reduced.getPosition(299), 0);
+        double peak = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < reduced.getCount(); i++) {
+            peak = Math.max(peak, reduced.getValue(i));
+        }
+        assertEquals(80.0, peak, 0);
+    }
+
+    @Test
+    public void testTrianglesKeepSmallSeries() {
+        LogAxis axis = new LogAxis(0.1, 1000, 400);
+        assertEquals(20, Decimator.triangles(noisy(20, -1), axis, 300).getCount());
+        assertEquals(0, Decimator.triangles(new SampledCurve(), axis, 300).getCount());
+        assertEquals(0, Decimator.minMax(new SampledCurve(), axis).getCount());
+    }
+}
@@ -0,0 +1,99 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Tests for the {@code FastKernel} class and, when loaded, its vectorized subclass.
+ */
+public class FastKernelTest {
+
+    private static final double PHASE_RADS = Math.toRadians(FastKernel.PHASE_ERROR);
+
+    @Test
+    public void testLogarithmBound() {
+        Random random = new Random(3);
+        for (int i = 0; i < 200000; i++) {
+            double m = Math.pow(10, -300 + 600 * random.nextDouble());
+            assertEquals(10 * Math.log10(m), FastKernel.dB(m), FastKernel.MODULE_ERROR);
+        }
+        assertEquals(0.0, FastKernel.dB(1.0), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, FastKernel.dB(0.0), 0);
+        assertEquals(Double.POSITIVE_INFINITY, FastKernel.dB(Double.POSITIVE_INFINITY), 0);
+        assertTrue(Double.isNaN(FastKernel.dB(Double.NaN)));
+        assertEquals(10 * Math.log10(Double.MIN_VALUE), FastKernel.dB(Double.MIN_VALUE), 0);
+    }
+
+    @Test
+    public void testArcTangentBound() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200000; i++) {
+            double t = random.nextGaussian() * Math.pow(10, random.nextInt(12) - 6);
+            assertEquals(Math.atan(t), FastKernel.atan(t), PHASE_RADS);
+            double y = random.nextGaussian() * Math.pow(10, random.nextInt(12) - 6);
+            assertEquals(Math.atan2(y, t), FastKernel.atan2(y, t), PHASE_RADS);
+        }
+        assertEquals(Math.PI / 2, FastKernel.atan(Double.POSITIVE_INFINITY), 0);
+        double[] sides = { 0.0, -0.0, 1.0, -1.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (double y : sides) {
+            for (double x : sides) {
+                assertEquals(Math.atan2(y, x), FastKernel.atan2(y, x), PHASE_RADS, y + ", " + x);
+            }
+        }
+        assertTrue(Double.isNaN(FastKernel.atan2(Double.NaN, 1.0)));
+    }
+
+    private static void assertKernelBound(RootKernel fast) {
+        RootKernel exact = new RootKernel();
+        double[][] firsts = { { -1.0, 0.0 }, { -0.3, 2.0 }, { 2.5, -4.0 }, { 0.0, 0.0 }, { 0.0, 3.0 } };
+        double[][] sections = { { 1.0, 0.2 }, { 25.0, 0.0 }, { 1e4, 1e-3 }, { 4.0, -4.0 } };
+        Random random = new Random(9);
+        for (int length = 1; length <= 41; length += 4) {
+            double[] grid = new double[length];
+            for (int k = 0; k < length; k++) {
+                grid[k] = Math.pow(10, -3 + 7 * random.nextDouble());
+            }
+            grid[0] = 0.0;
+            for (double[] root : firsts) {
+                double[][] expected = new double[4][length];
+                double[][] actual = new double[4][length];
+                exact.addFirstResponse(root[0], root[1], 2, grid, 0, expected[0], expected[1], 0, length);
+                fast.addFirstResponse(root[0], root[1], 2, grid, 0, actual[0], actual[1], 0, length);
+                fast.addFirstModule(root[0], root[1], 2, grid, 0, actual[2], 0, length);
+                fast.addFirstPhase(root[0], root[1], 2, grid, 0, actual[3], 0, length);
+                assertArrayEquals(expected[0], actual[0], 2 * FastKernel.MODULE_ERROR);
+                assertArrayEquals(expected[1], actual[1], 2 * PHASE_RADS);
+                assertArrayEquals(actual[0], actual[2], 0);
+                assertArrayEquals(actual[1], actual[3], 0);
+            }
+            for (double[] section : sections) {
+                double[][] expected = new double[4][length];
+                double[][] actual = new double[4][length];
+                exact.addSectionResponse(section[0], section[1], -1, grid, 0, expected[0], expected[1], 0, length);
+                fast.addSectionResponse(section[0], section[1], -1, grid, 0, actual[0], actual[1], 0, length);
+                fast.addSectionModule(section[0], section[1], -1, grid, 0, actual[2], 0, length);
+                fast.addSectionPhase(section[0], section[1], -1, grid, 0, actual[3], 0, length);
+                assertArrayEquals(expected[0], actual[0], FastKernel.MODULE_ERROR);
+                assertArrayEquals(expected[1], actual[1], PHASE_RADS);
+                assertArrayEquals(actual[0], actual[2], 0);
+                assertArrayEquals(actual[1], actual[3], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testScalarKernelBound() {
+        assertKernelBound(new FastKernel());
+    }
+
+    @Test
+    public void testLoadedKernelBound() {
+        RootKernel fast = RootKernel.getInstance(Precision.FAST);
+        assertTrue(fast instanceof FastKernel);
+        assertEquals(RootKernel.getInstance().getLanes(), fast.getLanes());
+        assertSame(RootKernel.getInstance(), RootKernel.getInstance(Precision.EXACT));
+        assertKernelBound(fast);
+    }
+}
@@ -0,0 +1,175 @@
+package math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code FrequencyResponse} class.
+ */
+public class FrequencyResponseTest {
+
+    private FrequencyResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        response = new FrequencyResponse();
+    }
+
+    @Test
+    public void testPhaseFunctionSharesRoots() {
+        PhaseFunction phase = response.getPhaseFunction();
+        response.addPole(new Pole(-1.0, 0.0));
+        phase.addZero(new Zero(-2.0, 0.0));
+        assertEquals(1, phase.getPoles().size());
+        assertEquals(1, response.getZeros().size());
+        response.removeAll();
+        assertTrue(phase.getPoles().isEmpty());
+        assertTrue(phase.getZeros().isEmpty());
+    }
+
+    @Test
+    public void testGetResponseMatchesSeparateFunctions() {
+        response.setConstant(4.0);
+        response.addPole(new Pole(-1.0, 3.0));
+        response.addPole(new Pole(-1.0, -3.0));
+        response.addZero(new Zero(-5.0, 0.0));
+        response.addZero(new Zero(0.0, 0.0));
+
+        TransferFunction module = new TransferFunction();
+        PhaseFunction phase = new PhaseFunction();
+        module.setConstant(4.0);
+        for (Pole p : response.getPoles()) {
+            module.addPole(p);
+            phase.addPole(p);
+        }
+        for (Zero z : response.getZeros()) {
+            module.addZero(z);
+            phase.addZero(z);
+        }
+
+        double[] frequencies = new double[40];
+        for (int k = 0; k < frequencies.length; k++) {
+            frequencies[k] = 0.01 * Math.pow(10, k / 8.0);
+        }
+        double[] modules = new double[frequencies.length];
+        double[] phases = new double[frequencies.length];
+        response.getResponse(frequencies, modules, phases);
+        for (int k = 0; k < frequencies.length; k++) {
+            assertEquals(module.getValue(frequencies[k]), modules[k], 1e-9);
+            assertEquals(phase.getValue(frequencies[k]), phases[k], 1e-9);
+            assertEquals(module.getValue(frequencies[k]), response.getValue(frequencies[k]), 1e-9);
+            assertEquals(phase.getValue(frequencies[k]), response.getPhaseFunction().getValue(frequencies[k]), 1e-9);
+        }
+    }
+
+    @Test
+    public void testGetComplexValue() {
+        response.setConstant(2.0);
+        response.addZero(new Zero(-1.0, 0.0));
+        response.addPole(new Pole(0.0, 0.0));
+        // H(j1) = 2*(1+j)/j = 2 - 2j
+        Complex value = response.getComplexValue(1.0);
+        assertEquals(2.0, value.getReal(), 1e-9);
+        assertEquals(-2.0, value.getImaginary(), 1e-9);
+        assertEquals(response.getValue(1.0), 20 * Math.log10(value.getModule()), 1e-9);
+        assertEquals(response.getPhaseFunction().getValue(1.0), Math.toDegrees(value.getPhase()), 1e-9);
+    }
+
+    @Test
+    public void testEditsKeepCachedGridConsistent() {
+        double[] frequencies = new double[30];
+        for (int k = 0; k < frequencies.length; k++) {
+            frequencies[k] = 0.1 * Math.pow(10, k / 10.0);
+        }
+        double[] modules = new double[frequencies.length];
+        double[] phases = new double[frequencies.length];
+        PhaseFunction phase = response.getPhaseFunction();
+        response.getValues(frequencies, modules);
+
+        Pole pole = new Pole(-2.0, 1.0);
+        response.addPole(pole);
+        phase.addZero(new Zero(-0.5, 0.0));
+        response.addPole(new Pole(-7.0, 0.0));
+        response.removePole(pole);
+        response.setConstant(3.0);
+
+        response.getValues(frequencies, modules);
+        phase.getValues(frequencies, phases);
+        for (int k = 0; k < frequencies.length; k++) {
+            assertEquals(response.getValue(frequencies[k]), modules[k], 1e-9);
+            assertEquals(phase.getValue(frequencies[k]), phases[k], 1e-9);
+        }
+
+        phase.removeAll();
+        response.getValues(frequencies, modules);
+        assertEquals(0.0, modules[0], 1e-9);
+    }
+
+    @Test
+    public void testRemoveUnknownRoot() {
+        response.addZero(new Zero(-1.0, 0.0));
+        assertFalse(response.removeZero(new Zero(-2.0, 0.0)));
+        assertTrue(response.getPhaseFunction().removeZero(new Zero(-1.0, 0.0)));
+        assertTrue(response.getZeros().isEmpty());
+    }
+
+    @Test
+    public void testPhaseFunctionFollowsRevision() {
+        PhaseFunction phase = response.getPhaseFunction();
+        int revision = phase.getRevision();
+        response.setConstant(2.0);
+        assertNotEquals(revision, phase.getRevision());
+        revision = response.getRevision();
+        phase.addZero(new Zero(-1.0, 0.0));
+        assertNotEquals(revision, response.getRevision());
+    }
+
+    @Test
+    public void testFastPrecision() {
+        PhaseFunction phase = response.getPhaseFunction();
+        response.addZero(new Zero(-2.0, 0.0));
+        response.addPole(new Pole(-1.0, 3.0));
+        response.addPole(new Pole(-1.0, -3.0));
+        response.addPole(new Pole(-50.0, 0.0));
+        double[] grid = { 0.1, 1.0, 3.0, 10.0, 100.0 };
+        double[] exact = new double[grid.length];
+        double[] exactPhase = new double[grid.length];
+        response.getValues(grid, exact);
+        phase.getValues(grid, exactPhase);
+        assertEquals(Precision.EXACT, response.getPrecision());
+
+        int revision = response.getRevision();
+        phase.setPrecision(Precision.FAST);
+        assertEquals(Precision.FAST, response.getPrecision());
+        assertEquals(Precision.FAST, phase.getPrecision());
+        assertNotEquals(revision, phase.getRevision());
+        assertSame(RootKernel.getInstance(Precision.FAST), response.poles.kernel);
+
+        double[] fast = new double[grid.length];
+        double[] fastPhase = new double[grid.length];
+        response.getValues(grid, fast);
+        phase.getValues(grid, fastPhase);
+        assertArrayEquals(exact, fast, 4 * FastKernel.MODULE_ERROR);
+        assertArrayEquals(exactPhase, fastPhase, 4 * FastKernel.PHASE_ERROR);
+        assertEquals(exact[2], response.getValue(3.0), 1e-12);
+    }
+
+    @Test
+    public void testResponseWaitsForTheLock() throws Exception {
+        response.addPole(new Pole(-1.0, 0.0));
+        final double[] module = new double[3];
+        final double[] phase = new double[3];
+        Thread reader = new Thread(() -> response.getResponse(new double[] { 0.1, 1.0, 10.0 }, module, phase));
+        synchronized (response.getLock()) {
+            reader.start();
+            while (reader.getState() != Thread.State.BLOCKED) {
+                assertTrue(reader.isAlive());
+                Thread.sleep(1);
+            }
+            response.addPole(new Pole(-2.0, 0.0));
+        }
+        reader.join();
+        assertEquals(response.getValue(1.0), module[1], 1e-12);
+    }
+}
@@ -0,0 +1,50 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code LogAxis} class.
+ */
+public class LogAxisTest {
+
+    @Test
+    public void testFractionalDecades() {
+        LogAxis axis = new LogAxis(0.5, 2000, 400);
+        assertEquals(Math.log10(0.5), axis.getFirst(), 1e-12);
+        assertEquals(Math.log10(2000), axis.getLast(), 1e-12);
+        assertEquals(Math.log10(4000), axis.getDecades(), 1e-12);
+        assertEquals(0, axis.toPixel(Math.log10(0.5)));
+        assertEquals(400, axis.toPixel(Math.log10(2000) + 1e-12));
+        assertTrue(axis.toPixel(-1) < 0);
+    }
+
+    @Test
+    public void testFewDecadesShowEverything() {
+        LogAxis axis = new LogAxis(0.1, 1000, 400);
+        assertEquals(100.0, axis.getPixelsPerDecade(), 1e-9);
+        assertEquals(1, axis.getTickStep());
+        assertEquals(1, axis.getLabelStep());
+        assertTrue(axis.hasMinorTicks());
+    }
+
+    @Test
+    public void testExtremeBandwidthIsThinned() {
+        LogAxis axis = new LogAxis(1e-12, 1e12, 400);
+        assertEquals(24.0, axis.getDecades(), 1e-9);
+        assertEquals(1, axis.getTickStep());
+        assertEquals(5, axis.getLabelStep());
+        assertFalse(axis.hasMinorTicks());
+
+        LogAxis huge = new LogAxis(1e-150, 1e150, 300);
+        assertEquals(5, huge.getTickStep());
+        assertEquals(50, huge.getLabelStep());
+        assertTrue(huge.getLabelStep() * huge.getPixelsPerDecade() >= LogAxis.LABEL_SPACING);
+    }
+
+    @Test
+    public void testEmptyAxis() {
+        LogAxis axis = new LogAxis(1, 10, 0);
+        assertEquals(Integer.MAX_VALUE, axis.getLabelStep());
+    }
+}
@@ -78,4 +78,34 @@ public class PhaseFunctionTest {
         // j*1000, phase = PI/2, degrees = 90
         assertEquals(90.0, result, 1e-9);
     }
+
+    @Test
+    public void testGetValuesMatchesGetValue() {
+        pf.addPole(new Pole(-1.0, 2.0));
+        pf.addPole(new Pole(-1.0, -2.0));
+        pf.addZero(new Zero(-10.0, 0.0));
+        pf.addZero(new Zero(0.0, 0.0));
+        double[] frequencies = new double[50];
+        for (int k = 0; k < frequencies.length; k++) {
+            frequencies[k] = 0.01 * Math.pow(10, k / 10.0);
+        }
+        double[] values = new double[frequencies.length];
+        pf.getValues(frequencies, values);
+        for (int k = 0; k < frequencies.length; k++) {
+            assertEquals(pf.getValue(frequencies[k]), values[k], 1e-9);
+        }
+    }
+
+    @Test
+    public void testGetValuesWithOffsets() {
+        pf.addPole(new Pole(-1.0, 0.0));
+        double[] frequencies = { 0.1, 1.0, 10.0, 100.0 };
+        double[] values = { 7.0, 7.0, 7.0, 7.0, 7.0 };
+        pf.getValues(frequencies, 1, values, 2, 2);
+        assertEquals(7.0, values[0], 1e-9);
+        assertEquals(7.0, values[1], 1e-9);
+        assertEquals(pf.getValue(1.0), values[2], 1e-9);
+        assertEquals(pf.getValue(10.0), values[3], 1e-9);
+        assertEquals(7.0, values[4], 1e-9);
+    }
 }
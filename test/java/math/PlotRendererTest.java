@@ -0,0 +1,72 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Tests for the {@code PlotRenderer} class.
+ */
+public class PlotRendererTest {
+
+    private static boolean hasColor(BufferedImage image, int rgb) {
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                if ((image.getRGB(x, y) & 0xFFFFFF) == rgb) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testRenderToImage() {
+        PlotRenderer renderer = new PlotRenderer(400, 300);
+        renderer.setViewRange(20, -60);
+        renderer.setBandwidth(0.01, 100);
+        renderer.setUnit(" dB");
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        BufferedImage image = renderer.render(tf);
+        assertEquals(400, image.getWidth());
+        assertEquals(300, image.getHeight());
+        assertEquals(0xFFFFFF, image.getRGB(200, 10) & 0xFFFFFF);
+        assertEquals(0x000000, image.getRGB(0, 150) & 0xFFFFFF);
+        assertTrue(hasColor(image, 0x0000FF));
+    }
+
+    @Test
+    public void testRenderAxesOnly() {
+        PlotRenderer renderer = new PlotRenderer(200, 100);
+        BufferedImage image = renderer.render((Function) null);
+        assertFalse(hasColor(image, 0x0000FF));
+    }
+
+    @Test
+    public void testReusedImageIsCleared() {
+        PlotRenderer renderer = new PlotRenderer(200, 100);
+        renderer.setViewRange(10, -10);
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        BufferedImage image = renderer.render(tf);
+        renderer.render(image, null);
+        assertFalse(hasColor(image, 0x0000FF));
+    }
+
+    @Test
+    public void testOverlays() {
+        PlotRenderer renderer = new PlotRenderer(200, 100);
+        renderer.setViewRange(10, -10);
+        renderer.setTriangleDecimation(true);
+        BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        SampledCurve series = new SampledCurve(new double[] { 0.1, 1.0, 1000.0 }, new double[] { 5.0, 5.0, 5.0 });
+        renderer.drawOverlays(g, Arrays.asList(series));
+        g.dispose();
+        assertEquals(0xFF0000, image.getRGB(100, 25) & 0xFFFFFF);
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.awt.image.BufferedImage;
+import java.awt.EventQueue;
 import java.awt.Graphics;
+import java.util.concurrent.Future;
 
 /**
  * Tests for the {@code PlottingCanvas} class.
@@ -116,4 +118,197 @@ public class PlottingCanvasTest {
         canvas.render(g);
         g.dispose();
     }
+
+    @Test
+    public void testRenderExtremeBandwidth() {
+        canvas.init();
+        canvas.setViewRange(100, -300);
+        canvas.setBandwidth(1e-12, 1e12);
+        canvas.setSize(400, 300);
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        tf.addPole(new Pole(-1e6, 0.0));
+        canvas.setPlotFunction(tf);
+        BufferedImage img = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+        canvas.render(g);
+        g.dispose();
+    }
+
+    @Test
+    public void testSampleFractionalBandwidth() {
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        TileCache tiles = new TileCache(tf);
+        SampledCurve wide = PlottingCanvas.sample(tf, tiles, new LogAxis(0.5, 2000, 400), 400, 0.1);
+        assertEquals(-1.0, wide.getPosition(0), 1e-12);
+        assertEquals(4.0, wide.getPosition(wide.getCount() - 1), 1e-12);
+        assertEquals(5, tiles.size());
+        SampledCurve narrow = PlottingCanvas.sample(tf, tiles, new LogAxis(2, 5, 400), 400, 0.1);
+        assertEquals(Math.log10(2), narrow.getPosition(0), 1e-12);
+        assertEquals(Math.log10(5), narrow.getPosition(narrow.getCount() - 1), 1e-12);
+    }
+
+    @Test
+    public void testOverlaysAreDrawn() {
+        canvas.init();
+        canvas.setViewRange(10, -10);
+        canvas.setBandwidth(0.1, 1000);
+        canvas.setSize(400, 300);
+        double[] frequencies = new double[100000];
+        double[] values = new double[frequencies.length];
+        for (int i = 0; i < frequencies.length; i++) {
+            frequencies[i] = Math.pow(10, -1 + 4.0 * i / frequencies.length);
+            values[i] = 5.0;
+        }
+        canvas.addOverlay(frequencies, values);
+        BufferedImage img = new BufferedImage(401, 301, BufferedImage.TYPE_INT_RGB);
+        Graphics g = img.getGraphics();
+        canvas.update(g);
+        Object key = canvas.curveKey;
+        assertEquals(0xFF0000, img.getRGB(200, 75) & 0xFFFFFF);
+
+        canvas.setTriangleDecimation(true);
+        canvas.update(g);
+        assertNotSame(key, canvas.curveKey);
+        assertEquals(0xFF0000, img.getRGB(200, 75) & 0xFFFFFF);
+
+        canvas.removeOverlays();
+        canvas.update(g);
+        assertEquals(0xFFFFFF, img.getRGB(200, 75) & 0xFFFFFF);
+        canvas.render(g);
+        g.dispose();
+    }
+
+    @Test
+    public void testUpdateKeepsBufferAndLayers() {
+        canvas.init();
+        canvas.setViewRange(100, -100);
+        canvas.setSize(400, 300);
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        canvas.setPlotFunction(tf);
+        BufferedImage img = new BufferedImage(401, 301, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+
+        canvas.update(g);
+        BufferedImage buffer = canvas.buffer;
+        Object axesKey = canvas.axesKey;
+        Object curveKey = canvas.curveKey;
+        assertNotNull(buffer);
+
+        canvas.update(g);
+        assertSame(buffer, canvas.buffer);
+        assertSame(axesKey, canvas.axesKey);
+        assertSame(curveKey, canvas.curveKey);
+
+        tf.addZero(new Zero(-10.0, 0.0));
+        canvas.update(g);
+        assertSame(axesKey, canvas.axesKey);
+        assertNotSame(curveKey, canvas.curveKey);
+
+        curveKey = canvas.curveKey;
+        canvas.setViewRange(50, -50);
+        canvas.paint(g);
+        assertNotSame(axesKey, canvas.axesKey);
+        assertNotSame(curveKey, canvas.curveKey);
+
+        canvas.setSize(200, 100);
+        canvas.update(g);
+        assertNotSame(buffer, canvas.buffer);
+        assertEquals(201, canvas.buffer.getWidth());
+        g.dispose();
+    }
+
+    /** Waits for the worker to hand a curve for the current inputs. */
+    private void awaitCurve(int minimumCount) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            EventQueue.invokeAndWait(new Runnable() {
+                public void run() {
+                }
+            });
+            SampledCurve curve = canvas.sampled;
+            if (curve != null && canvas.sampledKey.equals(canvas.jobKey) && curve.getCount() >= minimumCount) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("No curve was computed in time");
+    }
+
+    @Test
+    public void testUpdateComputesCurveInBackground() throws Exception {
+        canvas.init();
+        canvas.setViewRange(100, -100);
+        canvas.setSize(400, 300);
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-0.01, 1.0));
+        tf.addPole(new Pole(-0.01, -1.0));
+        canvas.setPlotFunction(tf);
+        BufferedImage img = new BufferedImage(401, 301, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+
+        canvas.update(g);
+        assertNotNull(canvas.job);
+        awaitCurve(401);
+        Object curveKey = canvas.curveKey;
+        canvas.update(g);
+        assertNotSame(curveKey, canvas.curveKey);
+        assertSame(canvas.sampled, ((java.util.List<?>) canvas.curveKey).get(4));
+        g.dispose();
+    }
+
+    @Test
+    public void testStaleJobsAreCancelled() throws Exception {
+        canvas.init();
+        canvas.setViewRange(100, -100);
+        canvas.setSize(400, 300);
+        TransferFunction tf = new TransferFunction();
+        for (int i = 1; i <= 200; i++) {
+            tf.addPole(new Pole(-0.001 * i, i));
+        }
+        canvas.setPlotFunction(tf);
+        BufferedImage img = new BufferedImage(401, 301, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+
+        canvas.update(g);
+        Future<?> first = canvas.job;
+        canvas.setBandwidth(1, 100);
+        canvas.update(g);
+        assertNotSame(first, canvas.job);
+        assertTrue(first.isCancelled() || first.isDone());
+        awaitCurve(1);
+        assertEquals(1.0, (Double) canvas.sampledKey.get(1), 1e-9);
+        g.dispose();
+    }
+
+    @Test
+    public void testViewChangesReuseSamples() throws Exception {
+        canvas.init();
+        canvas.setViewRange(100, -100);
+        canvas.setSize(400, 300);
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        canvas.setPlotFunction(tf);
+        BufferedImage img = new BufferedImage(401, 301, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+
+        canvas.update(g);
+        awaitCurve(401);
+        canvas.update(g);
+        Future<?> job = canvas.job;
+        SampledCurve samples = canvas.sampled;
+        Object curveKey = canvas.curveKey;
+
+        canvas.moveViewWindow(10);
+        canvas.update(g);
+        canvas.enlargeViewWindow(1.1);
+        canvas.update(g);
+        assertSame(job, canvas.job);
+        assertSame(samples, canvas.sampled);
+        assertNotSame(curveKey, canvas.curveKey);
+        assertSame(samples, ((java.util.List<?>) canvas.curveKey).get(4));
+        g.dispose();
+    }
 }
@@ -2,6 +2,9 @@ package math;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.lang.management.ManagementFactory;
 
 /**
  * Tests for the {@code Pole} class.
@@ -69,4 +72,41 @@ public class PoleTest {
         String s = p.toString();
         assertTrue(s.contains("2.0"));
     }
+
+    @Test
+    public void testMatchesNegatedZero() {
+        Pole p = new Pole(-2.0, 3.0);
+        Zero z = new Zero(-2.0, 3.0);
+        for (double x = 0.01; x < 1000; x *= 3.1) {
+            assertEquals(-z.dBValue(x), p.dBValue(x), 1e-12);
+            assertEquals(-z.arcValue(x), p.arcValue(x), 1e-12);
+        }
+    }
+
+    @Test
+    public void testEvaluationDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long id = Thread.currentThread().getId();
+
+        Pole p = new Pole(-1.0, 2.0);
+        Zero z = new Zero(-3.0, 0.5);
+        double sink = 0;
+        for (int i = 0; i < 20000; i++) {
+            sink += p.dBValue(i) + p.arcValue(i) + z.dBValue(i) + z.arcValue(i);
+        }
+
+        long overhead = -threads.getThreadAllocatedBytes(id) + threads.getThreadAllocatedBytes(id);
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100000; i++) {
+            sink += p.dBValue(i) + p.arcValue(i) + z.dBValue(i) + z.arcValue(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before - overhead;
+        assertFalse(Double.isNaN(sink));
+        // A single Complex per call would already be several megabytes here
+        assertTrue(allocated < 1024, "Evaluation allocated " + allocated + " bytes");
+    }
 }
@@ -0,0 +1,433 @@
+package math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for the {@code PolynomialTransferFunction} class.
+ */
+public class PolynomialTransferFunctionTest {
+
+    private FrequencyResponse roots;
+
+    @BeforeEach
+    public void setUp() {
+        roots = new FrequencyResponse();
+        roots.setConstant(3.0);
+        roots.addZero(new Zero(-2.0, 0.0));
+        roots.addZero(new Zero(-0.5, 4.0));
+        roots.addZero(new Zero(-0.5, -4.0));
+        roots.addPole(new Pole(-1.0, 0.0));
+        roots.addPole(new Pole(-1.0, 0.0));
+        roots.addPole(new Pole(-0.2, 1.5));
+        roots.addPole(new Pole(-0.2, -1.5));
+        roots.addPole(new Pole(-30.0, 0.0));
+        roots.addPole(new Pole(-7.0, 20.0));
+        roots.addPole(new Pole(-7.0, -20.0));
+    }
+
+    private static double wrap(double degrees) {
+        double wrapped = Math.IEEEremainder(degrees, 360.0);
+        return (wrapped == -180.0) ? 180.0 : wrapped;
+    }
+
+    private static double[] grid(int points) {
+        double[] grid = new double[points];
+        for (int k = 0; k < points; k++) {
+            grid[k] = Math.pow(10, -2 + 5.0 * k / (points - 1));
+        }
+        return grid;
+    }
+
+    @Test
+    public void testFirstOrder() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(new double[] { 10.0 }, new double[] { 10.0, 1.0 });
+        assertEquals(-10 * Math.log10(2), function.getValue(10.0), 1e-12);
+        assertEquals(-45.0, function.getPhaseFunction().getValue(10.0), 1e-12);
+        assertEquals(0.0, function.getValue(0.0), 1e-12);
+        assertEquals(-20 * Math.log10(Math.hypot(1, 0.1)), function.getValue(1.0), 1e-12);
+        assertEquals(-Math.toDegrees(Math.atan(0.1)), function.getPhaseFunction().getValue(1.0), 1e-12);
+    }
+
+    @Test
+    public void testHorner() {
+        double[] coefficients = { 1.0, 2.0, 3.0, 4.0, 5.0 };
+        // 1 + 3u + 5u^2 and 2 + 4u
+        assertEquals(1 + 3 * 2.0 + 5 * 4.0, PolynomialTransferFunction.horner(coefficients, 0, 2.0), 1e-12);
+        assertEquals(2 + 4 * 2.0, PolynomialTransferFunction.horner(coefficients, 1, 2.0), 1e-12);
+        assertEquals(0.0, PolynomialTransferFunction.horner(new double[] { 7.0 }, 1, 2.0), 0);
+    }
+
+    @Test
+    public void testMatchesRootForm() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(roots);
+        assertEquals(3.0, function.getConstant(), 0);
+        assertEquals(4, function.getNumerator().length);
+        assertEquals(8, function.getDenominator().length);
+        double[] grid = grid(200);
+        double[] expected = new double[grid.length];
+        double[] expectedPhase = new double[grid.length];
+        roots.getResponse(grid, expected, expectedPhase);
+        double[] module = new double[grid.length];
+        double[] phase = new double[grid.length];
+        function.getResponse(grid, module, phase);
+        double[] values = new double[grid.length];
+        double[] phases = new double[grid.length];
+        function.getValues(grid, values);
+        function.getPhaseFunction().getValues(grid, phases);
+        for (int k = 0; k < grid.length; k++) {
+            assertEquals(expected[k], module[k], 1e-9);
+            assertEquals(wrap(expectedPhase[k]), phase[k], 1e-9);
+            assertEquals(module[k], values[k], 0);
+            assertEquals(phase[k], phases[k], 0);
+            assertEquals(module[k], function.getValue(grid[k]), 0);
+        }
+    }
+
+    @Test
+    public void testRightHalfPlaneAndNegativeFrequencies() {
+        FrequencyResponse unstable = new FrequencyResponse();
+        unstable.addZero(new Zero(1.0, 0.0));
+        unstable.addPole(new Pole(-3.0, 0.0));
+        unstable.addPole(new Pole(2.0, 5.0));
+        unstable.addPole(new Pole(2.0, -5.0));
+        PolynomialTransferFunction function = new PolynomialTransferFunction(unstable);
+        assertEquals(-1.0, function.getConstant(), 0);
+        FrequencyResponse back = function.toResponse();
+        assertEquals(1.0, back.getConstant(), 1e-9);
+        for (double x : new double[] { 0.1, 0.3, 2.0, 40.0, -0.3, -40.0 }) {
+            double h = Math.abs(x);
+            assertEquals(unstable.getValue(h), function.getValue(x), 1e-9);
+            // The root form follows the convention of Zero#arc, taking (1 - s) for the zero
+            double phase = function.getPhaseFunction().getValue(h);
+            assertEquals(0.0, wrap(unstable.getPhaseFunction().getValue(h) - phase), 1e-9);
+            assertEquals(0.0, wrap(back.getPhaseFunction().getValue(h) - phase), 1e-9);
+            assertEquals(-phase, function.getPhaseFunction().getValue(-h), 1e-9);
+        }
+
+        FrequencyResponse mixed = new FrequencyResponse();
+        mixed.addZero(new Zero(1.0, 0.0));
+        mixed.addPole(new Pole(-2.0, 0.0));
+        PolynomialTransferFunction first = new PolynomialTransferFunction(mixed);
+        assertEquals(0.0, wrap(mixed.getPhaseFunction().getValue(0.1) - first.getPhaseFunction().getValue(0.1)), 1e-9);
+        assertEquals(0.0, wrap(first.toResponse().getPhaseFunction().getValue(0.1) - first.getPhaseFunction().getValue(0.1)), 1e-9);
+    }
+
+    @Test
+    public void testNegativeConstant() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(new double[] { -2.0 }, new double[] { 1.0, 1.0 });
+        assertEquals(20 * Math.log10(2 / Math.hypot(1, 3)), function.getValue(3.0), 1e-12);
+        assertEquals(180.0 - Math.toDegrees(Math.atan(3)), function.getPhaseFunction().getValue(3.0), 1e-12);
+        assertThrows(IllegalStateException.class, () -> function.toResponse());
+
+        // A negative constant and one zero in the right half plane are the root form (1 - s)/(s + 1)
+        function.setCoefficients(new double[] { -1.0, 1.0 }, new double[] { 1.0, 1.0 });
+        function.setConstant(-1.0);
+        FrequencyResponse response = function.toResponse();
+        assertEquals(1.0, response.getConstant(), 1e-12);
+        assertEquals(1.0, response.getZeros().get(0).getReal(), 1e-9);
+        for (double x : grid(20)) {
+            assertEquals(response.getValue(x), function.getValue(x), 1e-9);
+            assertEquals(0.0, wrap(response.getPhaseFunction().getValue(x) - function.getPhaseFunction().getValue(x)), 1e-9);
+        }
+    }
+
+    @Test
+    public void testHighOrder() {
+        FrequencyResponse butterworth = new FrequencyResponse();
+        int order = 40;
+        for (int i = 0; i < order / 2; i++) {
+            double angle = Math.PI / 2 + Math.PI * (2 * i + 1) / (2 * order);
+            butterworth.addPole(new Pole(2 * Math.cos(angle), 2 * Math.sin(angle)));
+            butterworth.addPole(new Pole(2 * Math.cos(angle), -2 * Math.sin(angle)));
+        }
+        PolynomialTransferFunction function = new PolynomialTransferFunction(butterworth);
+        double[] grid = grid(100);
+        double[] expected = new double[grid.length];
+        double[] module = new double[grid.length];
+        butterworth.getValues(grid, expected);
+        function.getValues(grid, module);
+        for (int k = 0; k < grid.length; k++) {
+            assertTrue(Double.isFinite(module[k]));
+            assertEquals(expected[k], module[k], 1e-6 * Math.max(1, Math.abs(expected[k])));
+        }
+    }
+
+    @Test
+    public void testToResponse() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(roots);
+        FrequencyResponse response = function.toResponse();
+        assertEquals(3.0, response.getConstant(), 1e-9);
+        Comparator<Complex> order = new Comparator<Complex>() {
+            public int compare(Complex a, Complex b) {
+                int real = Double.compare(a.getReal(), b.getReal());
+                return (real != 0) ? real : Double.compare(a.getImaginary(), b.getImaginary());
+            }
+        };
+        assertRoots(roots.getZeros(), response.getZeros(), order);
+        assertRoots(roots.getPoles(), response.getPoles(), order);
+        assertRoots(roots.getPoles(), function.getPoles(), order);
+        assertRoots(roots.getPoles(), function.getPhaseFunction().getPoles(), order);
+        assertRoots(roots.getZeros(), function.getPhaseFunction().getZeros(), order);
+        double[] grid = grid(50);
+        for (double x : grid) {
+            assertEquals(roots.getValue(x), response.getValue(x), 1e-6);
+            assertEquals(roots.getPhaseFunction().getValue(x), response.getPhaseFunction().getValue(x), 1e-6);
+        }
+    }
+
+    private static <T extends Complex> void assertRoots(Vector<T> expected, Vector<T> actual, Comparator<Complex> order) {
+        assertEquals(expected.size(), actual.size());
+        Complex[] a = expected.toArray(new Complex[0]);
+        Complex[] b = actual.toArray(new Complex[0]);
+        Arrays.sort(a, order);
+        Arrays.sort(b, order);
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(a[i].getReal(), b[i].getReal(), 1e-6);
+            assertEquals(a[i].getImaginary(), b[i].getImaginary(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testRootsAtOrigin() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(new double[] { 0.0, 0.0, 2.0, 0.0 }, new double[] { 1.0, 1.0 });
+        assertEquals(3, function.getNumerator().length);
+        Vector<Zero> zeros = function.getZeros();
+        assertEquals(2, zeros.size());
+        assertEquals(0.0, zeros.get(0).getModule(), 0);
+        assertEquals(0.0, zeros.get(1).getModule(), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, function.getValue(0.0), 0);
+        assertEquals(20 * Math.log10(2 * 100 / Math.hypot(1, 10)), function.getValue(10.0), 1e-9);
+        assertEquals(180.0 - Math.toDegrees(Math.atan(10)), function.getPhaseFunction().getValue(10.0), 1e-9);
+    }
+
+    @Test
+    public void testRandomRoundTrip() {
+        Random random = new Random(17);
+        for (int system = 0; system < 20; system++) {
+            FrequencyResponse response = new FrequencyResponse();
+            for (int i = 0; i < 6; i++) {
+                double re = -Math.pow(10, -1 + 2 * random.nextDouble());
+                if (random.nextBoolean()) {
+                    double im = Math.pow(10, -1 + 2 * random.nextDouble());
+                    response.addPole(new Pole(re, im));
+                    response.addPole(new Pole(re, -im));
+                } else {
+                    response.addPole(new Pole(re, 0.0));
+                }
+            }
+            FrequencyResponse back = new PolynomialTransferFunction(response).toResponse();
+            assertEquals(response.getPoles().size(), back.getPoles().size());
+            for (double x : grid(20)) {
+                assertEquals(response.getValue(x), back.getValue(x), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testCoefficientsAsAWhole() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction();
+        assertEquals(0.0, function.getValue(5.0), 0);
+        int revision = function.getRevision();
+        function.setCoefficients(new double[] { 1.0, 1.0 }, new double[] { 4.0 });
+        assertNotEquals(revision, function.getRevision());
+        assertEquals(function.getRevision(), function.getPhaseFunction().getRevision());
+        assertSame(function.getLock(), function.getPhaseFunction().getLock());
+        assertThrows(IllegalArgumentException.class, () -> function.setCoefficients(new double[] { 1.0 }, new double[] { 0.0, 0.0 }));
+        assertThrows(IllegalArgumentException.class, () -> function.setCoefficients(new double[] { 1.0 }, new double[0]));
+
+        function.setConstant(2.0);
+        function.getPhaseFunction().removeAll();
+        assertEquals(1.0, function.getConstant(), 0);
+        assertArrayEquals(new double[] { 1.0 }, function.getNumerator(), 0);
+        assertArrayEquals(new double[] { 1.0 }, function.getDenominator(), 0);
+    }
+
+    @Test
+    public void testCopies() {
+        PolynomialTransferFunction original = new PolynomialTransferFunction(roots);
+        original.addPole(new Pole(-3.0, 2.0));
+        roots.addPole(new Pole(-3.0, 2.0));
+        PolynomialTransferFunction copy = new PolynomialTransferFunction(original);
+        PolynomialTransferFunction view = new PolynomialTransferFunction(original.getPhaseFunction());
+        assertArrayEquals(original.getNumerator(), copy.getNumerator(), 0);
+        assertArrayEquals(original.getDenominator(), copy.getDenominator(), 0);
+        assertArrayEquals(original.getDenominator(), view.getDenominator(), 0);
+        assertEquals(3.0, copy.getConstant(), 0);
+        assertEquals(1.0, view.getConstant(), 0);
+        assertSameResponse(roots, copy, copy.getPhaseFunction());
+        assertSameResponse(roots, original, view.getPhaseFunction());
+
+        copy.addPole(new Pole(-3.0, -2.0));
+        assertEquals(original.getDenominator().length + 2, copy.getDenominator().length);
+        assertEquals(original.getPoles().size(), copy.getPoles().size() - 1);
+
+        FrequencyResponse unpaired = new FrequencyResponse();
+        unpaired.setConstant(2.0);
+        unpaired.addPole(new Pole(-1.0, 2.0));
+        unpaired.addZero(new Zero(-4.0, 0.0));
+        PolynomialTransferFunction function = new PolynomialTransferFunction(unpaired);
+        assertArrayEquals(new double[] { 4, 1 }, function.getNumerator(), 0);
+        assertArrayEquals(new double[] { 1 }, function.getDenominator(), 0);
+        assertSameResponse(unpaired, function, function.getPhaseFunction());
+        PolynomialTransferFunction shared = new PolynomialTransferFunction(unpaired.getPhaseFunction());
+        assertEquals(1.0, shared.getConstant(), 0);
+        assertEquals(1, shared.getPoles().size());
+    }
+
+    private static void assertSameResponse(FrequencyResponse expected, Function module, Function phase) {
+        for (double x : grid(40)) {
+            assertEquals(expected.getValue(x), module.getValue(x), 1e-9);
+            assertEquals(0.0, wrap(expected.getPhaseFunction().getValue(x) - phase.getValue(x)), 1e-9);
+        }
+    }
+
+    @Test
+    public void testRootsOneAtATime() {
+        FrequencyResponse expected = new FrequencyResponse();
+        PolynomialTransferFunction polynomial = new PolynomialTransferFunction();
+        Function function = polynomial;
+        Function phase = polynomial.getPhaseFunction();
+        Zero[] zeros = { new Zero(-2.0, 0.0), new Zero(-0.5, 4.0), new Zero(0.0, 0.0), new Zero(-0.5, -4.0) };
+        Pole[] poles = { new Pole(-1.0, 0.0), new Pole(-0.2, 1.5), new Pole(-1.0, 0.0), new Pole(-0.2, -1.5), new Pole(-30.0, 0.0) };
+        for (Zero zero : zeros) {
+            expected.addZero(zero);
+            function.addZero(zero);
+            assertSameResponse(expected, function, phase);
+        }
+        for (Pole pole : poles) {
+            expected.addPole(pole);
+            phase.addPole(pole);
+            assertSameResponse(expected, function, phase);
+        }
+        assertArrayEquals(new double[] { 0, 2 * 16.25, 16.25 + 2 * 1, 1 + 2, 1 }, polynomial.getNumerator(), 1e-12);
+        assertEquals(4, function.getZeros().size());
+        assertEquals(5, function.getPoles().size());
+
+        int revision = function.getRevision();
+        assertTrue(function.removeZero(new Zero(-0.5, 4.0)));
+        assertNotEquals(revision, function.getRevision());
+        expected.removeZero(new Zero(-0.5, 4.0));
+        assertSameResponse(expected, function, phase);
+        assertEquals(3, function.getZeros().size());
+        assertEquals(3, polynomial.toResponse().getZeros().size());
+        assertEquals(2, polynomial.getNumerator().length - 1);
+        assertEquals(polynomial.getNumerator().length + polynomial.getDenominator().length + 1, polynomial.terms());
+
+        assertFalse(function.removeZero(new Zero(-0.5, 4.0)));
+        assertFalse(function.removePole(new Pole(-5.0, 0.0)));
+        assertFalse(function.removePole(new Pole(-1.0, 3.0)));
+        assertTrue(phase.removeZero(new Zero(-0.5, -4.0)));
+        expected.removeZero(new Zero(-0.5, -4.0));
+        assertTrue(function.removeZero(new Zero(0.0, 0.0)));
+        expected.removeZero(new Zero(0.0, 0.0));
+        assertTrue(function.removePole(new Pole(-1.0, 0.0)));
+        assertTrue(phase.removePole(new Pole(-1.0, 0.0)));
+        assertFalse(function.removePole(new Pole(-1.0, 0.0)));
+        expected.removePole(new Pole(-1.0, 0.0));
+        expected.removePole(new Pole(-1.0, 0.0));
+        assertTrue(function.removePole(new Pole(-0.2, -1.5)));
+        expected.removePole(new Pole(-0.2, -1.5));
+        assertSameResponse(expected, function, phase);
+        assertArrayEquals(new double[] { 2, 1 }, polynomial.getNumerator(), 1e-12);
+
+        polynomial.setCoefficients(new double[] { 1 }, new double[] { 1 });
+        assertEquals(0, polynomial.getPoles().size());
+        assertEquals(0.0, function.getValue(3.0), 0);
+    }
+
+    @Test
+    public void testRightHalfPlaneOneAtATime() {
+        FrequencyResponse expected = new FrequencyResponse();
+        PolynomialTransferFunction polynomial = new PolynomialTransferFunction();
+        Function phase = polynomial.getPhaseFunction();
+        Zero[] zeros = { new Zero(1.0, 0.0), new Zero(2.0, 3.0), new Zero(-1.0, 0.0), new Zero(2.0, -3.0), new Zero(4.0, 0.0) };
+        Pole[] poles = { new Pole(0.5, 0.0), new Pole(-0.2, 1.5), new Pole(-0.2, -1.5), new Pole(-3.0, 0.0) };
+        for (Zero zero : zeros) {
+            expected.addZero(zero);
+            polynomial.addZero(zero);
+            assertSameResponse(expected, polynomial, phase);
+        }
+        for (Pole pole : poles) {
+            expected.addPole(pole);
+            phase.addPole(pole);
+            assertSameResponse(expected, polynomial, phase);
+        }
+        assertSameResponse(polynomial.toResponse(), polynomial, phase);
+
+        // Taking one root of a pair leaves its conjugate waiting, in the convention of the root form
+        assertTrue(polynomial.removeZero(new Zero(2.0, 3.0)));
+        expected.removeZero(new Zero(2.0, 3.0));
+        assertSameResponse(expected, polynomial, phase);
+        assertSameResponse(polynomial.toResponse(), polynomial, phase);
+        assertTrue(polynomial.removeZero(new Zero(1.0, 0.0)));
+        expected.removeZero(new Zero(1.0, 0.0));
+        assertTrue(phase.removePole(new Pole(0.5, 0.0)));
+        expected.removePole(new Pole(0.5, 0.0));
+        assertSameResponse(expected, polynomial, phase);
+        assertEquals(1.0, polynomial.toResponse().getConstant(), 1e-9);
+
+        int revision = polynomial.getRevision();
+        assertFalse(polynomial.removeZero(new Zero(7.0, 0.0)));
+        assertFalse(polynomial.removePole(new Pole(0.5, 0.0)));
+        assertEquals(revision, polynomial.getRevision());
+    }
+
+    @Test
+    public void testRootsFoundOncePerRevision() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(roots);
+        assertEquals(3, function.getZeros().size());
+        Complex[] numerator = function.numeratorRoots;
+        Complex[] denominator = function.denominatorRoots;
+        assertEquals(7, function.getPoles().size());
+        function.getPhaseFunction().getZeros();
+        function.toResponse();
+        assertSame(numerator, function.numeratorRoots);
+        assertSame(denominator, function.denominatorRoots);
+        function.addPole(new Pole(-4.0, 0.0));
+        assertEquals(8, function.getPoles().size());
+        assertNotSame(denominator, function.denominatorRoots);
+    }
+
+    @Test
+    public void testFastPrecision() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(roots);
+        double[] grid = grid(100);
+        double[] expected = new double[grid.length];
+        double[] expectedPhase = new double[grid.length];
+        function.getResponse(grid, expected, expectedPhase);
+        function.getPhaseFunction().setPrecision(Precision.FAST);
+        assertEquals(Precision.FAST, function.getPrecision());
+        double[] module = new double[grid.length];
+        double[] phase = new double[grid.length];
+        function.getResponse(grid, module, phase);
+        assertArrayEquals(expected, module, 3 * FastKernel.MODULE_ERROR);
+        assertArrayEquals(expectedPhase, phase, FastKernel.PHASE_ERROR);
+        assertEquals(Precision.FAST, function.toResponse().getPrecision());
+    }
+
+    @Test
+    public void testSweep() {
+        PolynomialTransferFunction function = new PolynomialTransferFunction(roots);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SweepEngine engine = new SweepEngine(pool, 64, 100);
+            double[] grid = grid(1000);
+            double[] expected = new double[grid.length];
+            double[] values = new double[grid.length];
+            function.getPhaseFunction().getValues(grid, expected);
+            engine.sweep(function.getPhaseFunction(), grid, values);
+            assertArrayEquals(expected, values, 0);
+            assertEquals(function.getNumerator().length + function.getDenominator().length, function.getPhaseFunction().terms());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Vector;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+/**
+ * Tests for the {@code RenderPipeline} class.
+ */
+public class RenderPipelineTest {
+
+    @TempDir
+    File directory;
+
+    private static FrequencyResponse system(double pole) {
+        FrequencyResponse system = new FrequencyResponse();
+        system.addPole(new Pole(-pole, 0.0));
+        return system;
+    }
+
+    private static RenderPipeline pipeline() {
+        PlotRenderer module = new PlotRenderer(320, 200);
+        module.setViewRange(20, -60);
+        PlotRenderer phase = new PlotRenderer(320, 200);
+        phase.setViewRange(90, -90);
+        return new RenderPipeline(3, module, phase);
+    }
+
+    @Test
+    public void testSubmitEncodesPng() throws Exception {
+        ImageIO.setUseCache(true);
+        RenderPipeline pipeline = pipeline();
+        assertTrue(ImageIO.getUseCache());
+        byte[][] plots = pipeline.submit(system(1.0)).get();
+        assertEquals(2, plots.length);
+        for (byte[] plot : plots) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(plot));
+            assertEquals(320, image.getWidth());
+            assertEquals(200, image.getHeight());
+        }
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testBatchWritesFiles() throws Exception {
+        RenderPipeline pipeline = pipeline();
+        Vector<FrequencyResponse> systems = new Vector<FrequencyResponse>();
+        for (int i = 0; i < 12; i++) {
+            systems.add(system(Math.pow(10, i / 4.0)));
+        }
+        Vector<Future<File[]>> pending = pipeline.submitAll(systems, directory);
+        assertEquals(12, pending.size());
+        for (Future<File[]> result : pending) {
+            for (File file : result.get()) {
+                assertTrue(file.length() > 0);
+                assertEquals(320, ImageIO.read(file).getWidth());
+            }
+        }
+        assertTrue(new File(directory, "system-11-phase.png").exists());
+        pipeline.shutdown();
+    }
+}
@@ -0,0 +1,92 @@
+package math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code ResponseCache} class.
+ */
+public class ResponseCacheTest {
+
+    private ResponseCache cache;
+    private RootSet<Zero> zeros;
+    private RootSet<Pole> poles;
+    private double[] grid = { 0.1, 1.0, 10.0 };
+
+    @BeforeEach
+    public void setUp() {
+        cache = new ResponseCache();
+        zeros = new RootSet<Zero>();
+        poles = new RootSet<Pole>();
+    }
+
+    @Test
+    public void testFind() {
+        assertNull(cache.find(grid, 0, 3));
+        ResponseCache.Entry entry = cache.rebuild(grid, 0, 3, zeros, poles);
+        assertSame(entry, cache.find(grid, 0, 3));
+        assertNull(cache.find(grid, 1, 2));
+        assertNull(cache.find(new double[] { 0.1, 1.0, 11.0 }, 0, 3));
+    }
+
+    @Test
+    public void testApplyMatchesRebuild() {
+        ResponseCache.Entry entry = cache.rebuild(grid, 0, 3, zeros, poles);
+        Pole p = new Pole(-1.0, 0.0);
+        poles.add(p);
+        cache.apply(p, -1, Precision.EXACT);
+        ResponseCache.Entry fresh = new ResponseCache().rebuild(grid, 0, 3, zeros, poles);
+        assertArrayEquals(fresh.module, entry.module, 1e-12);
+        assertArrayEquals(fresh.phase, entry.phase, 1e-12);
+    }
+
+    @Test
+    public void testApplyMatchesFastRebuild() {
+        zeros.setPrecision(Precision.FAST);
+        poles.setPrecision(Precision.FAST);
+        ResponseCache.Entry entry = cache.rebuild(grid, 0, 3, zeros, poles);
+        Pole p = new Pole(-0.7, 0.0);
+        poles.add(p);
+        cache.apply(p, -1, Precision.FAST);
+        ResponseCache.Entry fresh = new ResponseCache().rebuild(grid, 0, 3, zeros, poles);
+        assertArrayEquals(fresh.module, entry.module, 1e-12);
+        assertArrayEquals(fresh.phase, entry.phase, 1e-12);
+    }
+
+    @Test
+    public void testRootOnGridDropsGrid() {
+        cache.rebuild(grid, 0, 3, zeros, poles);
+        cache.rebuild(grid, 0, 2, zeros, poles);
+        cache.apply(new Zero(0.0, 10.0), 1, Precision.EXACT);
+        assertNull(cache.find(grid, 0, 3));
+        assertNotNull(cache.find(grid, 0, 2));
+    }
+
+    @Test
+    public void testClearKeepsGrid() {
+        ResponseCache.Entry entry = cache.rebuild(grid, 0, 3, zeros, poles);
+        cache.apply(new Zero(-1.0, 0.0), 1, Precision.EXACT);
+        cache.clear();
+        assertSame(entry, cache.find(grid, 0, 3));
+        assertArrayEquals(new double[3], entry.module, 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedGridIsDropped() {
+        double[] many = new double[ResponseCache.CAPACITY + 1];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = i + 1;
+        }
+        ResponseCache.Entry first = cache.rebuild(many, 0, 1, zeros, poles);
+        for (int i = 1; i < ResponseCache.CAPACITY; i++) {
+            cache.rebuild(many, i, 1, zeros, poles);
+        }
+        assertSame(first, cache.find(many, 0, 1));
+        cache.rebuild(many, ResponseCache.CAPACITY, 1, zeros, poles);
+        assertSame(first, cache.find(many, 0, 1));
+        assertNull(cache.find(many, 1, 1));
+        cache.invalidate();
+        assertNull(cache.find(many, 0, 1));
+    }
+}
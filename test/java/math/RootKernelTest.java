@@ -0,0 +1,128 @@
+package math;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Tests for the {@code RootKernel} class and, when loaded, its vectorized subclass.
+ */
+public class RootKernelTest {
+
+    private static final double[][] FIRSTS = {
+        { -1.0, 0.0 }, { -0.3, 2.0 }, { 2.5, -4.0 }, { 0.0, 0.0 }, { 0.0, 3.0 }, { -1e3, 1e-3 }
+    };
+    private static final double[][] SECTIONS = {
+        { 1.0, 0.2 }, { 25.0, 0.0 }, { 1e4, 1e-3 }, { 0.01, -0.5 }, { 4.0, 4.0 }
+    };
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(RootKernel.PROPERTY);
+    }
+
+    private static double[] grid(int length, long seed) {
+        Random random = new Random(seed);
+        double[] frequencies = new double[length];
+        for (int k = 0; k < length; k++) {
+            frequencies[k] = Math.pow(10, -3 + 7 * random.nextDouble());
+        }
+        frequencies[0] = 3.0;
+        return frequencies;
+    }
+
+    private static void assertClose(double expected, double actual) {
+        assertEquals(expected, actual, 1e-12 * Math.max(1, Math.abs(expected)));
+    }
+
+    @Test
+    public void testMatchesScalarValues() {
+        RootKernel kernel = RootKernel.getInstance();
+        for (int length = 1; length <= 37; length++) {
+            double[] frequencies = grid(length + 3, length);
+            for (double[] root : FIRSTS) {
+                double[] module = new double[length];
+                double[] phase = new double[length];
+                double[] fusedModule = new double[length];
+                double[] fusedPhase = new double[length];
+                kernel.addFirstModule(root[0], root[1], 2, frequencies, 3, module, 0, length);
+                kernel.addFirstPhase(root[0], root[1], 2, frequencies, 3, phase, 0, length);
+                kernel.addFirstResponse(root[0], root[1], 2, frequencies, 3, fusedModule, fusedPhase, 0, length);
+                for (int k = 0; k < length; k++) {
+                    double x = frequencies[k + 3];
+                    assertClose(2 * new Zero(root[0], root[1]).dBValue(x), module[k]);
+                    assertClose(2 * new Zero(root[0], root[1]).arcValue(x), phase[k]);
+                    assertClose(module[k], fusedModule[k]);
+                    assertClose(phase[k], fusedPhase[k]);
+                }
+            }
+            for (double[] section : SECTIONS) {
+                SecondOrderSection pair = new SecondOrderSection(-section[1] / 2, Math.sqrt(Math.max(0, section[0] - section[1] * section[1] / 4)));
+                double[] module = new double[length + 1];
+                double[] phase = new double[length + 1];
+                double[] fusedModule = new double[length + 1];
+                double[] fusedPhase = new double[length + 1];
+                kernel.addSectionModule(pair.square, pair.twice, -1, frequencies, 3, module, 1, length);
+                kernel.addSectionPhase(pair.square, pair.twice, -1, frequencies, 3, phase, 1, length);
+                kernel.addSectionResponse(pair.square, pair.twice, -1, frequencies, 3, fusedModule, fusedPhase, 1, length);
+                assertEquals(0.0, module[0], 0);
+                for (int k = 0; k < length; k++) {
+                    double x = frequencies[k + 3];
+                    assertClose(-pair.dBValue(x), module[k + 1]);
+                    assertClose(-pair.arcValue(x), phase[k + 1]);
+                    assertClose(module[k + 1], fusedModule[k + 1]);
+                    assertClose(phase[k + 1], fusedPhase[k + 1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRootSetMatchesScalarSums() {
+        RootSet<Pole> set = new RootSet<Pole>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            double re = -10 * random.nextDouble();
+            double im = 10 * random.nextDouble();
+            set.add(new Pole(re, im));
+            set.add(new Pole(re, -im));
+            set.add(new Pole(-random.nextDouble(), 0));
+        }
+        double[] frequencies = grid(1001, 11);
+        double[] module = new double[frequencies.length];
+        double[] phase = new double[frequencies.length];
+        set.addResponse(frequencies, 0, module, phase, 0, frequencies.length, 1);
+        for (int k = 0; k < frequencies.length; k++) {
+            assertEquals(set.module(frequencies[k]), module[k], 1e-9);
+            assertEquals(set.phase(frequencies[k]), phase[k], 1e-9);
+        }
+    }
+
+    @Test
+    public void testVectorizedWhenAvailable() {
+        boolean available;
+        try {
+            Class.forName("jdk.incubator.vector.DoubleVector");
+            available = true;
+        } catch (ClassNotFoundException e) {
+            available = false;
+        }
+        RootKernel kernel = RootKernel.getInstance();
+        if (available && kernel.getLanes() > 1) {
+            assertEquals(RootKernel.VECTORIZED, kernel.getClass().getName());
+        } else {
+            assertEquals(RootKernel.class, kernel.getClass());
+            assertEquals(1, kernel.getLanes());
+        }
+    }
+
+    @Test
+    public void testPropertyKeepsScalar() {
+        System.setProperty(RootKernel.PROPERTY, "scalar");
+        RootKernel kernel = RootKernel.load(RootKernel.VECTORIZED, new RootKernel());
+        assertEquals(RootKernel.class, kernel.getClass());
+        assertEquals(1, kernel.getLanes());
+    }
+}
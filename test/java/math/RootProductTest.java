@@ -0,0 +1,245 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Tests for the {@code RootProduct} class.
+ */
+public class RootProductTest {
+
+    private static FrequencyResponse randomSystem(Random random, int order) {
+        FrequencyResponse response = new FrequencyResponse();
+        response.setConstant(0.5 + random.nextDouble());
+        for (int i = 0; i < order; i++) {
+            double re = Math.pow(10, -2 + 4 * random.nextDouble()) * (random.nextInt(5) == 0 ? 1 : -1);
+            double im = random.nextInt(3) == 0 ? 0 : Math.pow(10, -2 + 4 * random.nextDouble());
+            if (random.nextBoolean()) {
+                response.addPole(new Pole(re, im));
+                if (im != 0) {
+                    response.addPole(new Pole(re, -im));
+                }
+            } else {
+                response.addZero(new Zero(re, im));
+                if (im != 0 && random.nextBoolean()) {
+                    response.addZero(new Zero(re, -im));
+                }
+            }
+        }
+        return response;
+    }
+
+    private static double[] grid(int points) {
+        double[] grid = new double[points];
+        for (int k = 0; k < points; k++) {
+            grid[k] = Math.pow(10, -3 + 7.0 * k / (points - 1));
+        }
+        return grid;
+    }
+
+    @Test
+    public void testMatchesSums() {
+        Random random = new Random(11);
+        double[] grid = grid(301);
+        for (int system = 0; system < 40; system++) {
+            FrequencyResponse response = randomSystem(random, 1 + random.nextInt(30));
+            double[] module = new double[grid.length];
+            double[] phase = new double[grid.length];
+            response.getResponse(grid, module, phase);
+
+            response.setEvaluation(Evaluation.PRODUCT);
+            double[] productModule = new double[grid.length];
+            double[] productPhase = new double[grid.length];
+            response.getResponse(grid, productModule, productPhase);
+            assertArrayEquals(module, productModule, 1e-8);
+            assertArrayEquals(phase, productPhase, 1e-8);
+        }
+    }
+
+    @Test
+    public void testHighOrderDoesNotOverflow() {
+        FrequencyResponse response = new FrequencyResponse();
+        for (int i = 0; i < 300; i++) {
+            response.addPole(new Pole(-1e3 * (1 + i), 0.0));
+            response.addZero(new Zero(-1e-3 * (1 + i), 1e-2));
+        }
+        double[] grid = grid(50);
+        double[] expected = new double[grid.length];
+        double[] expectedPhase = new double[grid.length];
+        response.getResponse(grid, expected, expectedPhase);
+
+        response.setEvaluation(Evaluation.PRODUCT);
+        double[] module = new double[grid.length];
+        double[] phase = new double[grid.length];
+        response.getResponse(grid, module, phase);
+        for (int k = 0; k < grid.length; k++) {
+            assertTrue(Double.isFinite(module[k]));
+            assertEquals(expected[k], module[k], 1e-7 * Math.abs(expected[k]) + 1e-8);
+            assertEquals(expectedPhase[k], phase[k], 1e-6);
+        }
+    }
+
+    @Test
+    public void testPhaseKeepsTurns() {
+        PhaseFunction phase = new PhaseFunction();
+        for (int i = 0; i < 10; i++) {
+            phase.addPole(new Pole(-1.0, 0.0));
+        }
+        phase.addPole(new Pole(0.0, 2.0));
+        phase.addPole(new Pole(0.0, -2.0));
+        phase.setEvaluation(Evaluation.PRODUCT);
+        assertEquals(Evaluation.PRODUCT, phase.getEvaluation());
+        assertEquals(-900.0 - 180.0, phase.getValue(1e6), 1e-3);
+        assertEquals(-450.0, phase.getValue(1.0), 1e-9);
+    }
+
+    @Test
+    public void testUndampedPairsOnly() {
+        PhaseFunction sum = new PhaseFunction();
+        PhaseFunction product = new PhaseFunction();
+        product.setEvaluation(Evaluation.PRODUCT);
+        double[][] pairs = { { 0.0, 2.0 }, { 0.0, 5.0 }, { 0.0, 2.0 } };
+        for (double[] pair : pairs) {
+            sum.addPole(new Pole(pair[0], pair[1]));
+            sum.addPole(new Pole(pair[0], -pair[1]));
+            product.addPole(new Pole(pair[0], pair[1]));
+            product.addPole(new Pole(pair[0], -pair[1]));
+            for (double x : new double[] { 1.0, 3.0, 10.0 }) {
+                assertEquals(sum.getValue(x), product.getValue(x), 1e-9);
+            }
+        }
+        assertEquals(-540.0, product.getValue(10.0), 1e-9);
+        product.removeAll();
+        product.addZero(new Zero(0.0, 1.0));
+        product.addZero(new Zero(0.0, -1.0));
+        assertEquals(180.0, product.getValue(3.0), 1e-9);
+        assertEquals(0.0, product.getValue(0.5), 1e-9);
+    }
+
+    @Test
+    public void testRightHalfPlaneAndImaginaryRoots() {
+        FrequencyResponse response = new FrequencyResponse();
+        response.addZero(new Zero(2.0, 0.0));
+        response.addZero(new Zero(0.0, 0.0));
+        response.addZero(new Zero(1.0, 3.0));
+        response.addZero(new Zero(1.0, -3.0));
+        response.addPole(new Pole(0.0, 5.0));
+        response.addPole(new Pole(0.0, -5.0));
+        response.addPole(new Pole(-0.5, 0.0));
+        response.addPole(new Pole(-0.5, 0.0));
+        PhaseFunction phase = response.getPhaseFunction();
+        double[] grid = { 0.0, 0.1, 1.0, 3.0, 4.9, 5.1, 30.0 };
+        double[] expected = new double[grid.length];
+        double[] expectedPhase = new double[grid.length];
+        response.getValues(grid, expected);
+        phase.getValues(grid, expectedPhase);
+
+        phase.setEvaluation(Evaluation.PRODUCT);
+        double[] values = new double[grid.length];
+        double[] phases = new double[grid.length];
+        response.getValues(grid, values);
+        phase.getValues(grid, phases);
+        for (int k = 1; k < grid.length; k++) {
+            assertEquals(expected[k], values[k], 1e-9);
+            assertEquals(expectedPhase[k], phases[k], 1e-9);
+            assertEquals(expected[k], response.getValue(grid[k]), 1e-9);
+            assertEquals(expectedPhase[k], phase.getValue(grid[k]), 1e-9);
+        }
+        assertEquals(Double.NEGATIVE_INFINITY, values[0], 0);
+    }
+
+    @Test
+    public void testFastPrecision() {
+        Random random = new Random(13);
+        double[] grid = grid(101);
+        FrequencyResponse response = randomSystem(random, 40);
+        double[] expected = new double[grid.length];
+        double[] expectedPhase = new double[grid.length];
+        response.getResponse(grid, expected, expectedPhase);
+
+        response.setEvaluation(Evaluation.PRODUCT);
+        response.setPrecision(Precision.FAST);
+        double[] module = new double[grid.length];
+        double[] phase = new double[grid.length];
+        response.getResponse(grid, module, phase);
+        assertArrayEquals(expected, module, 2 * FastKernel.MODULE_ERROR);
+        assertArrayEquals(expectedPhase, phase, 2 * FastKernel.PHASE_ERROR);
+    }
+
+    @Test
+    public void testRescalesBothWays() {
+        RootSet<Zero> zeros = new RootSet<Zero>();
+        RootSet<Pole> poles = new RootSet<Pole>();
+        for (int i = 0; i < 100; i++) {
+            zeros.add(new Zero(-1e10 - i, 0.0));
+        }
+        RootProduct product = new RootProduct(1);
+        double[] grid = { 1.0 };
+        product.evaluate(zeros, poles, grid, 0, 1);
+        assertTrue(product.exponent[0] > 0);
+        assertEquals(zeros.module(1.0), product.getDecibels(0), 1e-9);
+
+        product.evaluate(poles, zeros, grid, 0, 1);
+        assertTrue(product.exponent[0] < 0);
+        assertEquals(-zeros.module(1.0), product.getDecibels(0), 1e-9);
+        assertEquals(-zeros.phase(1.0), product.getPhase(0), 1e-12);
+    }
+
+    @Test
+    public void testSingleFrequencyMatchesSlice() {
+        Random random = new Random(23);
+        double[] grid = grid(97);
+        for (int system = 0; system < 20; system++) {
+            FrequencyResponse response = randomSystem(random, 1 + random.nextInt(30));
+            response.addZero(new Zero(0.0, 3.0));
+            response.addZero(new Zero(0.0, -3.0));
+            response.addPole(new Pole(0.0, 0.2));
+            response.addPole(new Pole(0.0, -0.2));
+            response.setEvaluation(Evaluation.PRODUCT);
+            double[] module = new double[grid.length];
+            double[] phase = new double[grid.length];
+            response.getResponse(grid, module, phase);
+            for (int k = 0; k < grid.length; k++) {
+                assertEquals(module[k], response.getValue(grid[k]), 1e-9);
+                assertEquals(phase[k], response.getPhaseFunction().getValue(grid[k]), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleFrequencyDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long id = Thread.currentThread().getId();
+
+        TransferFunction module = new TransferFunction();
+        module.setEvaluation(Evaluation.PRODUCT);
+        module.addPole(new Pole(-1.0, 2.0));
+        module.addPole(new Pole(-1.0, -2.0));
+        module.addZero(new Zero(-3.0, 0.0));
+        PhaseFunction phase = new PhaseFunction();
+        phase.setEvaluation(Evaluation.PRODUCT);
+        phase.addPole(new Pole(-1.0, 2.0));
+        phase.addZero(new Zero(0.5, 0.0));
+        double sink = 0;
+        for (int i = 0; i < 20000; i++) {
+            sink += module.getValue(i) + phase.getValue(i);
+        }
+
+        long overhead = -threads.getThreadAllocatedBytes(id) + threads.getThreadAllocatedBytes(id);
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100000; i++) {
+            sink += module.getValue(i) + phase.getValue(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before - overhead;
+        assertFalse(Double.isNaN(sink));
+        assertTrue(allocated < 1024, "Evaluation allocated " + allocated + " bytes");
+    }
+}
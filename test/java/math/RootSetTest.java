@@ -0,0 +1,177 @@
+package math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code RootSet} class.
+ */
+public class RootSetTest {
+
+    private RootSet<Zero> set;
+
+    @BeforeEach
+    public void setUp() {
+        set = new RootSet<Zero>();
+    }
+
+    @Test
+    public void testEmptySet() {
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.count());
+        assertEquals(0.0, set.module(1.0), 1e-9);
+        assertEquals(0.0, set.phase(1.0), 1e-9);
+    }
+
+    @Test
+    public void testViewKeepsOriginalObjects() {
+        Zero a = new Zero(-1.0, 0.0);
+        Zero b = new Zero(-2.0, 1.0);
+        set.add(a);
+        set.add(b);
+        assertEquals(2, set.toVector().size());
+        assertSame(a, set.toVector().get(0));
+        assertSame(b, set.toVector().get(1));
+    }
+
+    @Test
+    public void testViewIsACopy() {
+        set.add(new Zero(-1.0, 0.0));
+        set.toVector().clear();
+        assertEquals(1, set.count());
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        double expected = 0;
+        for (int i = 0; i < 100; i++) {
+            set.add(new Zero(-i, 0.0));
+            expected += Zero.dB(-i, 0.0, 10.0);
+        }
+        assertEquals(100, set.count());
+        assertEquals(100, set.distinct());
+        assertEquals(expected, set.module(10.0), 1e-6);
+    }
+
+    @Test
+    public void testMatchesIndividualRoots() {
+        Zero[] roots = { new Zero(-1.0, 2.0), new Zero(-3.0, -0.5), new Zero(0.0, 4.0), new Zero(2.0, 0.0) };
+        for (Zero z : roots) {
+            set.add(z);
+        }
+        for (double x = 0.01; x < 1000; x *= 1.7) {
+            double module = 0;
+            double phase = 0;
+            for (Zero z : roots) {
+                module += z.dBValue(x);
+                phase += z.arcValue(x);
+            }
+            assertEquals(module, set.module(x), 1e-9);
+            assertEquals(phase, set.phase(x), 1e-9);
+        }
+    }
+
+    @Test
+    public void testClear() {
+        set.add(new Zero(-1.0, 0.0));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0.0, set.module(1.0), 1e-9);
+    }
+
+    @Test
+    public void testConjugatePairsAreFolded() {
+        set.add(new Zero(-1.0, 2.0));
+        set.add(new Zero(-3.0, 0.0));
+        set.add(new Zero(-1.0, -2.0));
+        set.add(new Zero(-5.0, 4.0));
+        set.compile();
+        assertEquals(1, set.sections);
+        assertEquals(2, set.firsts);
+    }
+
+    @Test
+    public void testFoldedPairsMatchIndividualRoots() {
+        Zero[] roots = {
+            new Zero(-1.0, 2.0), new Zero(-1.0, -2.0),
+            new Zero(0.0, 3.0), new Zero(0.0, -3.0),
+            new Zero(2.0, 0.5), new Zero(2.0, -0.5),
+            new Zero(-0.01, 10.0), new Zero(-0.01, -10.0)
+        };
+        for (Zero z : roots) {
+            set.add(z);
+        }
+        set.compile();
+        assertEquals(4, set.sections);
+        double[] frequencies = { 0.0, 0.1, 0.5, 1.0, 2.0, 2.2360679775, 3.0, 5.0, 9.99, 10.0, 10.01, 100.0 };
+        double[] module = new double[frequencies.length];
+        double[] phase = new double[frequencies.length];
+        set.addResponse(frequencies, 0, module, phase, 0, frequencies.length, 1);
+        for (int k = 0; k < frequencies.length; k++) {
+            double x = frequencies[k];
+            double expectedModule = 0;
+            double expectedPhase = 0;
+            for (Zero z : roots) {
+                expectedModule += z.dBValue(x);
+                expectedPhase += z.arcValue(x);
+            }
+            assertEquals(expectedModule, set.module(x), 1e-9);
+            assertEquals(expectedPhase, set.phase(x), 1e-9);
+            assertEquals(expectedModule, module[k], 1e-9);
+            assertEquals(expectedPhase, phase[k], 1e-9);
+        }
+    }
+
+    @Test
+    public void testPairsWithinTolerance() {
+        set.add(new Zero(-1.0, 2.0));
+        set.add(new Zero(-1.0 + 1e-12, -2.0 - 1e-12));
+        set.add(new Zero(-1.0, -2.1));
+        set.compile();
+        assertEquals(1, set.sections);
+        assertEquals(1, set.firsts);
+    }
+
+    @Test
+    public void testUnevenPairsLeaveFirstOrderTerms() {
+        set.add(new Zero(-1.0, 2.0));
+        set.add(new Zero(-1.0, 2.0));
+        set.add(new Zero(-1.0, -2.0));
+        set.compile();
+        assertEquals(1, set.sections);
+        assertEquals(1, set.firsts);
+        double expected = 2 * Zero.dB(-1.0, 2.0, 3.0) + Zero.dB(-1.0, -2.0, 3.0);
+        assertEquals(expected, set.module(3.0), 1e-9);
+    }
+
+    @Test
+    public void testRepeatedRootsAreCompressed() {
+        for (int i = 0; i < 20; i++) {
+            set.add(new Zero(-1.0, 0.0));
+        }
+        set.add(new Zero(-2.0, 0.0));
+        assertEquals(21, set.count());
+        assertEquals(2, set.distinct());
+        assertEquals(20, set.multiplicityOf(new Zero(-1.0, 0.0)));
+        assertEquals(0, set.multiplicityOf(new Zero(-3.0, 0.0)));
+        assertEquals(20 * Zero.dB(-1.0, 0.0, 2.0) + Zero.dB(-2.0, 0.0, 2.0), set.module(2.0), 1e-9);
+        assertEquals(20 * Zero.arc(-1.0, 0.0, 2.0) + Zero.arc(-2.0, 0.0, 2.0), set.phase(2.0), 1e-9);
+    }
+
+    @Test
+    public void testRemoveRepeatedRoot() {
+        Zero a = new Zero(-1.0, 0.0);
+        Zero b = new Zero(-1.0, 0.0);
+        set.add(a);
+        set.add(b);
+        assertTrue(set.remove(b));
+        assertEquals(1, set.distinct());
+        assertEquals(1, set.multiplicityOf(a));
+        assertSame(a, set.toVector().get(0));
+        assertTrue(set.remove(new Zero(-1.0, 0.0)));
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.distinct());
+        assertFalse(set.remove(a));
+    }
+}
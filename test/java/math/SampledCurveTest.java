@@ -0,0 +1,118 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code SampledCurve} class.
+ */
+public class SampledCurveTest {
+
+    @Test
+    public void testStraightLineIsNotRefined() {
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(0.0, 0.0));
+        SampledCurve curve = SampledCurve.sample(tf, -1, 3, 400, 0.01);
+        assertEquals(401, curve.getCount());
+        assertEquals(-1.0, curve.getPosition(0), 1e-12);
+        assertEquals(3.0, curve.getPosition(400), 1e-12);
+        assertEquals(tf.getValue(1000.0), curve.getValue(400), 1e-9);
+    }
+
+    @Test
+    public void testResonanceIsRefined() {
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-0.001, 1.0));
+        tf.addPole(new Pole(-0.001, -1.0));
+        SampledCurve curve = SampledCurve.sample(tf, -1, 1, 20, 0.05);
+        assertTrue(curve.getCount() > 21);
+        double peak = Double.NEGATIVE_INFINITY;
+        for (int i = 1; i < curve.getCount(); i++) {
+            assertTrue(curve.getPosition(i) > curve.getPosition(i - 1));
+            peak = Math.max(peak, curve.getValue(i));
+        }
+        // 1/(2*zeta) = 500, about 54 dB; plain columns would only reach about 1 dB
+        assertTrue(peak > 40.0, "Peak found was " + peak);
+    }
+
+    @Test
+    public void testSampleFromTiles() {
+        TransferFunction tf = new TransferFunction();
+        tf.addPole(new Pole(-0.01, 1.0));
+        tf.addPole(new Pole(-0.01, -1.0));
+        TileCache tiles = new TileCache(tf);
+        SampledCurve curve = SampledCurve.sample(tf, tiles, -1, 2, 100, 0.05);
+        assertTrue(curve.getCount() >= 3 * TileCache.samples(TileCache.level(100 / 3.0)) + 1);
+        assertEquals(-1.0, curve.getPosition(0), 1e-12);
+        assertEquals(2.0, curve.getPosition(curve.getCount() - 1), 1e-12);
+        for (int i = 0; i < curve.getCount(); i++) {
+            assertEquals(tf.getValue(Math.pow(10, curve.getPosition(i))), curve.getValue(i), 1e-9);
+        }
+        assertEquals(3, tiles.size());
+        assertEquals(0, SampledCurve.sample(tf, tiles, 2, 2, 100, 0.05).getCount());
+    }
+
+    @Test
+    public void testRefinementStaysWithinBudget() {
+        TransferFunction tf = new TransferFunction();
+        for (int d = -12; d < 12; d++) {
+            tf.addPole(new Pole(-0.0001 * Math.pow(10, d), Math.pow(10, d)));
+            tf.addPole(new Pole(-0.0001 * Math.pow(10, d), -Math.pow(10, d)));
+        }
+        int[] evaluated = { 0 };
+        Function counting = new Function() {
+            @Override
+            public double getValue(double x) {
+                evaluated[0]++;
+                return tf.getValue(x);
+            }
+        };
+        SampledCurve curve = SampledCurve.sample(counting, -12, 12, 200, 1e-6);
+        assertTrue(evaluated[0] <= 201 + SampledCurve.BUDGET * 200, "Evaluated " + evaluated[0]);
+        assertEquals(12.0, curve.getPosition(curve.getCount() - 1), 1e-9);
+    }
+
+    @Test
+    public void testCoarseCurveOnlyTakesColumns() {
+        int[] evaluated = { 0 };
+        Function counting = new Function() {
+            @Override
+            public double getValue(double x) {
+                evaluated[0]++;
+                return Math.sin(x);
+            }
+        };
+        SampledCurve curve = SampledCurve.sample(counting, -2, 2, 50, Double.POSITIVE_INFINITY);
+        assertEquals(51, evaluated[0]);
+        assertEquals(51, curve.getCount());
+    }
+
+    @Test
+    public void testNoColumns() {
+        SampledCurve curve = SampledCurve.sample(new TransferFunction(), 0, 1, 0, 0.1);
+        assertEquals(0, curve.getCount());
+    }
+
+    @Test
+    public void testMeasuredSeries() {
+        SampledCurve curve = new SampledCurve(new double[] { 0.1, 1.0, 100.0 }, new double[] { 3.0, 2.0, 1.0 });
+        assertEquals(3, curve.getCount());
+        assertEquals(-1.0, curve.getPosition(0), 1e-12);
+        assertEquals(2.0, curve.getPosition(2), 1e-12);
+        assertEquals(1.0, curve.getValue(2), 0);
+        curve.add(3.0, 0.0);
+        assertEquals(4, curve.getCount());
+        assertEquals(0, new SampledCurve(new double[0], new double[0]).getCount());
+    }
+
+    @Test
+    public void testAddGrows() {
+        SampledCurve curve = new SampledCurve();
+        for (int i = 0; i < 200; i++) {
+            curve.add(i, -i);
+        }
+        assertEquals(200, curve.getCount());
+        assertEquals(199.0, curve.getPosition(199), 0);
+        assertEquals(-199.0, curve.getValue(199), 0);
+    }
+}
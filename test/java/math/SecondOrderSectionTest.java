@@ -0,0 +1,36 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code SecondOrderSection} class.
+ */
+public class SecondOrderSectionTest {
+
+    @Test
+    public void testNaturalFrequencyAndDamping() {
+        SecondOrderSection section = new SecondOrderSection(-3.0, 4.0);
+        assertEquals(5.0, section.getNaturalFrequency(), 1e-9);
+        assertEquals(0.6, section.getDamping(), 1e-9);
+    }
+
+    @Test
+    public void testMatchesBothRoots() {
+        SecondOrderSection section = new SecondOrderSection(-0.5, 2.0);
+        Zero upper = new Zero(-0.5, 2.0);
+        Zero lower = new Zero(-0.5, -2.0);
+        for (double x = 0.01; x < 1000; x *= 1.3) {
+            assertEquals(upper.dBValue(x) + lower.dBValue(x), section.dBValue(x), 1e-9);
+            assertEquals(upper.arcValue(x) + lower.arcValue(x), section.arcValue(x), 1e-9);
+        }
+    }
+
+    @Test
+    public void testUndampedPair() {
+        SecondOrderSection section = new SecondOrderSection(0.0, 2.0);
+        assertEquals(0.0, section.arcValue(1.0), 1e-9);
+        assertEquals(Math.PI, section.arcValue(2.0), 1e-9);
+        assertEquals(Math.PI, section.arcValue(3.0), 1e-9);
+    }
+}
@@ -0,0 +1,149 @@
+package math;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Tests for the {@code SweepEngine} class.
+ */
+public class SweepEngineTest {
+
+    private ForkJoinPool pool;
+    private SweepEngine engine;
+    private double[] grid;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        engine = new SweepEngine(pool, 256, 1000);
+        grid = new double[20000];
+        for (int k = 0; k < grid.length; k++) {
+            grid[k] = Math.pow(10, -3 + 6.0 * k / grid.length);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static <T extends Function> T fill(T function) {
+        for (int i = 1; i <= 30; i++) {
+            function.addZero(new Zero(-i * 0.7, (i % 3) * 0.5));
+            function.addPole(new Pole(-i * 0.3, i * 0.9));
+            function.addPole(new Pole(-i * 0.3, -i * 0.9));
+        }
+        return function;
+    }
+
+    private void assertSameAsSequential(Function function) {
+        double[] expected = new double[grid.length];
+        double[] values = new double[grid.length];
+        function.getValues(grid, expected);
+        engine.sweep(function, grid, values);
+        assertArrayEquals(expected, values, 1e-9);
+    }
+
+    @Test
+    public void testMatchesSequential() {
+        TransferFunction tf = fill(new TransferFunction());
+        tf.setConstant(3);
+        assertSameAsSequential(tf);
+        assertSameAsSequential(fill(new PhaseFunction()));
+        FrequencyResponse response = fill(new FrequencyResponse());
+        assertSameAsSequential(response);
+        assertSameAsSequential(response.getPhaseFunction());
+    }
+
+    @Test
+    public void testFusedResponse() {
+        FrequencyResponse response = fill(new FrequencyResponse());
+        double[] module = new double[grid.length];
+        double[] phase = new double[grid.length];
+        engine.sweep(response, grid, module, phase);
+        for (int k = 0; k < grid.length; k += 101) {
+            assertEquals(response.getValue(grid[k]), module[k], 1e-9);
+            assertEquals(response.getPhaseFunction().getValue(grid[k]), phase[k], 1e-9);
+        }
+        double[] few = { 1.0, 2.0 };
+        double[] fewModule = new double[2];
+        double[] fewPhase = new double[2];
+        engine.sweep(response, few, fewModule, fewPhase);
+        assertEquals(response.getValue(2.0), fewModule[1], 1e-9);
+    }
+
+    @Test
+    public void testSmallSweepsStayInCallingThread() {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        Function plain = new Function() {
+            @Override
+            public double getValue(double x) {
+                threads.add(Thread.currentThread());
+                return x;
+            }
+        };
+        double[] small = new double[200];
+        engine.sweep(plain, small, new double[200]);
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+
+        double[] values = new double[grid.length];
+        engine.sweep(plain, grid, values);
+        assertEquals(grid[12345], values[12345], 0);
+    }
+
+    @Test
+    public void testLockedSubclassesStayInCallingThread() {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        final Function locked = new Function() {
+            @Override
+            public double getValue(double x) {
+                synchronized (getLock()) {
+                    threads.add(Thread.currentThread());
+                    return x;
+                }
+            }
+        };
+        final TransferFunction cached = new TransferFunction() {
+            @Override
+            public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length) {
+                synchronized (getLock()) {
+                    threads.add(Thread.currentThread());
+                    super.getValues(frequencies, offset, values, valuesOffset, length);
+                }
+            }
+        };
+        fill(cached);
+        assertFalse(locked.isConcurrent());
+        assertFalse(cached.isConcurrent());
+        assertTrue(fill(new TransferFunction()).isConcurrent());
+        assertTrue(new FrequencyResponse().getPhaseFunction().isConcurrent());
+        final double[] values = new double[grid.length];
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> engine.sweep(locked, grid, values));
+        assertEquals(grid[12345], values[12345], 0);
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> engine.sweep(cached, grid, values));
+        for (Thread thread : threads) {
+            assertFalse(thread instanceof ForkJoinWorkerThread);
+        }
+    }
+
+    @Test
+    public void testDefaults() {
+        SweepEngine defaults = new SweepEngine();
+        assertEquals(SweepEngine.GRANULARITY, defaults.getGranularity());
+        assertEquals(SweepEngine.CUTOFF, defaults.getCutoff());
+        assertThrows(IllegalArgumentException.class, () -> new SweepEngine(pool, 0, 1));
+        TransferFunction tf = fill(new TransferFunction());
+        double[] values = new double[grid.length];
+        defaults.sweep(tf, grid, values);
+        assertEquals(tf.getValue(grid[777]), values[777], 1e-9);
+    }
+}
@@ -0,0 +1,110 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+
+/**
+ * Tests for the {@code SweepFile} and {@code SweepWriter} classes.
+ */
+public class SweepFileTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        File file = new File(directory, "sweep.bin");
+        double[] grid = { 0.1, 1.0, 10.0 };
+        SweepWriter writer = new SweepWriter(file, grid);
+        for (int s = 0; s < 5; s++) {
+            writer.write(new double[] { s, s + 0.5, s + 0.25 }, new double[] { -s, -s - 0.5, -s - 0.25 });
+        }
+        assertEquals(5, writer.getCount());
+        writer.close();
+        assertEquals(SweepFile.offset(3, 5), file.length());
+
+        SweepFile sweep = new SweepFile(file);
+        assertEquals(3, sweep.getPoints());
+        assertEquals(5, sweep.getCount());
+        DoubleBuffer read = sweep.getGrid();
+        assertEquals(3, read.remaining());
+        assertEquals(10.0, read.get(2), 0);
+        DoubleBuffer module = sweep.getModule(3);
+        DoubleBuffer phase = sweep.getPhase(3);
+        assertEquals(3, module.remaining());
+        assertEquals(3.5, module.get(1), 0);
+        assertEquals(-3.25, phase.get(2), 0);
+        assertTrue(module.isReadOnly());
+        sweep.close();
+        assertEquals(3.0, module.get(0), 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> sweep.getModule(5));
+    }
+
+    @Test
+    public void testManyWindows() throws Exception {
+        File file = new File(directory, "large.bin");
+        int points = 5000;
+        double[] grid = new double[points];
+        double[] module = new double[2 * points];
+        double[] phase = new double[points];
+        SweepWriter writer = new SweepWriter(file, grid);
+        int systems = 2 * (int) (SweepWriter.WINDOW / (16L * points)) + 3;
+        for (int s = 0; s < systems; s++) {
+            module[points + points - 1] = s;
+            phase[0] = -s;
+            writer.write(module, points, phase, 0);
+        }
+        writer.close();
+
+        SweepFile sweep = new SweepFile(file);
+        assertEquals(systems, sweep.getCount());
+        for (int s = 0; s < systems; s += 97) {
+            assertEquals(s, sweep.getModule(s).get(points - 1), 0);
+            assertEquals(-s, sweep.getPhase(s).get(0), 0);
+        }
+        assertEquals(systems - 1, sweep.getModule(systems - 1).get(points - 1), 0);
+        sweep.close();
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        File file = new File(directory, "aborted.bin");
+        SweepWriter writer = new SweepWriter(file, new double[] { 1.0, 2.0 });
+        writer.write(new double[2], new double[2]);
+        writer.abort();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testWrongFiles() throws Exception {
+        File text = new File(directory, "text.bin");
+        Files.write(text.toPath(), "not a sweep file at all".getBytes());
+        assertThrows(IOException.class, () -> new SweepFile(text));
+
+        File cut = new File(directory, "cut.bin");
+        SweepWriter writer = new SweepWriter(cut, new double[] { 1.0, 2.0 });
+        writer.write(new double[2], new double[2]);
+        writer.close();
+        RandomAccessFile file = new RandomAccessFile(cut, "rw");
+        file.setLength(file.length() - 8);
+        file.close();
+        assertThrows(IOException.class, () -> new SweepFile(cut));
+
+        RandomAccessFile version = new RandomAccessFile(text, "rw");
+        version.seek(0);
+        version.write(new byte[] { 'B', 'O', 'D', 'E', 9, 0, 0, 0 });
+        version.close();
+        assertThrows(IOException.class, () -> new SweepFile(text));
+        assertThrows(IllegalArgumentException.class, () -> new SweepWriter(new File(directory, "empty.bin"), new double[0]));
+        SweepWriter.check(SweepWriter.MAXIMUM);
+        assertThrows(IllegalArgumentException.class, () -> SweepWriter.check(SweepWriter.MAXIMUM + 1));
+        assertThrows(IllegalArgumentException.class, () -> SweepWriter.check(Integer.MAX_VALUE));
+    }
+}
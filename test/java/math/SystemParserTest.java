@@ -0,0 +1,149 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Tests for the {@code SystemParser} class.
+ */
+public class SystemParserTest {
+
+    private static SystemParser parser(String text) {
+        return new SystemParser(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static double parse(String text) {
+        return SystemParser.parse(text.toCharArray(), text.length());
+    }
+
+    @Test
+    public void testNumbers() {
+        assertEquals(0.0, parse("0"), 0);
+        assertEquals(-1.5, parse("-1.5"), 0);
+        assertEquals(2.0, parse("+2"), 0);
+        assertEquals(0.001, parse(".001"), 0);
+        assertEquals(10.0, parse("10."), 0);
+        assertEquals(1.25e-7, parse("1.25E-7"), 0);
+        assertEquals(1e300, parse("1e300"), 0);
+        assertEquals(0.1234567890123456789, parse("0.1234567890123456789"), 0);
+        assertEquals(12345678901234567890.0, parse("12345678901234567890"), 0);
+        assertThrows(NumberFormatException.class, () -> parse(""));
+        assertThrows(NumberFormatException.class, () -> parse("-"));
+        assertThrows(NumberFormatException.class, () -> parse("1e"));
+        assertThrows(NumberFormatException.class, () -> parse("1-2"));
+    }
+
+    @Test
+    public void testNumbersMatchJava() {
+        Random random = new Random(17);
+        for (int i = 0; i < 10000; i++) {
+            String text = String.valueOf((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20));
+            assertEquals(Double.parseDouble(text), parse(text), 0, text);
+            text = String.format("%.6f", random.nextDouble() * 1000);
+            assertEquals(Double.parseDouble(text), parse(text), 0, text);
+        }
+    }
+
+    @Test
+    public void testSystems() throws Exception {
+        SystemParser parser = parser("# header\n\n  2.5 ; -1,2 -1,-2 ; -10\r\n1;;\n3 ; 0 ;\n");
+        FrequencyResponse first = parser.next();
+        assertEquals(2.5, first.getConstant(), 0);
+        assertEquals(2, first.getZeros().size());
+        assertEquals(-2.0, first.getZeros().get(1).getImaginary(), 0);
+        assertEquals(1, first.getPoles().size());
+        assertEquals(-10.0, first.getPoles().get(0).getReal(), 0);
+        FrequencyResponse second = parser.next();
+        assertEquals(1.0, second.getConstant(), 0);
+        assertTrue(second.getZeros().isEmpty());
+        assertTrue(second.getPoles().isEmpty());
+        FrequencyResponse third = parser.next();
+        assertEquals(1, third.getZeros().size());
+        assertNull(parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void testErrorsTellTheLine() throws Exception {
+        SystemParser parser = parser("1;;-1\n\n1 ; x ; -1\n");
+        parser.next();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, parser::next);
+        assertTrue(error.getMessage().startsWith("Line 3"), error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> parser("1 -1").next());
+        assertThrows(IllegalArgumentException.class, () -> parser("1 ; -1\n").next());
+    }
+
+    @Test
+    public void testInputLargerThanBuffers() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append(i).append(" ; -").append(i % 10).append(".125,0.5 ; -3.75e-1\n");
+        }
+        assertTrue(text.length() > 4 * SystemParser.CAPACITY);
+        SystemParser parser = parser(text.toString());
+        for (int i = 0; i < 20000; i++) {
+            FrequencyResponse system = parser.next();
+            assertEquals(i, system.getConstant(), 0);
+            assertEquals(-(i % 10) - 0.125, system.getZeros().get(0).getReal(), 0);
+            assertEquals(-0.375, system.getPoles().get(0).getReal(), 0);
+        }
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void testDrainToBoundedQueue() throws Exception {
+        final BlockingQueue<FrequencyResponse> queue = new ArrayBlockingQueue<FrequencyResponse>(2);
+        final FrequencyResponse end = new FrequencyResponse();
+        final int[] count = { -1 };
+        Thread reader = new Thread(() -> {
+            try {
+                count[0] = parser("1;;-1\n2;;-2\n3;;-3\n4;;-4\n5;;-5\n").drainTo(queue, end);
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        reader.start();
+        double sum = 0;
+        FrequencyResponse system = queue.take();
+        while (system != end) {
+            assertTrue(queue.size() <= 2);
+            sum += system.getConstant();
+            system = queue.take();
+        }
+        reader.join();
+        assertEquals(15.0, sum, 0);
+        assertEquals(5, count[0]);
+    }
+
+    @Test
+    public void testDrainToInterrupted() throws Exception {
+        final BlockingQueue<FrequencyResponse> queue = new ArrayBlockingQueue<FrequencyResponse>(1);
+        final FrequencyResponse end = new FrequencyResponse();
+        final boolean[] interrupted = { false };
+        Thread reader = new Thread(() -> {
+            try {
+                parser("1;;-1\n2;;-2\n3;;-3\n").drainTo(queue, end);
+            } catch (InterruptedException e) {
+                interrupted[0] = true;
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        reader.start();
+        while (queue.remainingCapacity() > 0 || reader.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        reader.interrupt();
+        reader.join(5000);
+        assertFalse(reader.isAlive());
+        assertTrue(interrupted[0]);
+        assertSame(end, queue.poll());
+    }
+}
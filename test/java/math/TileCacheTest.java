@@ -0,0 +1,108 @@
+package math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code TileCache} class.
+ */
+public class TileCacheTest {
+
+    /** Counts how many frequencies were evaluated. */
+    static class CountingFunction extends TransferFunction {
+        int evaluated = 0;
+
+        @Override
+        public void getValues(double[] frequencies, int offset, double[] values, int valuesOffset, int length) {
+            evaluated += length;
+            super.getValues(frequencies, offset, values, valuesOffset, length);
+        }
+    }
+
+    private CountingFunction tf;
+
+    @BeforeEach
+    public void setUp() {
+        tf = new CountingFunction();
+        tf.addPole(new Pole(-1.0, 0.0));
+        tf.addZero(new Zero(-100.0, 0.0));
+    }
+
+    @Test
+    public void testLevels() {
+        assertEquals(0, TileCache.level(0.1));
+        assertEquals(0, TileCache.level(1));
+        assertEquals(4, TileCache.level(16));
+        assertEquals(5, TileCache.level(17));
+        assertEquals(TileCache.MAXIMUM_LEVEL, TileCache.level(1e12));
+        assertEquals(4, TileCache.samples(2));
+    }
+
+    @Test
+    public void testValuesMatchFunction() {
+        TileCache cache = new TileCache(tf);
+        double[] values = cache.values(-1, 2, 1);
+        int n = TileCache.samples(1);
+        assertEquals(3 * n + 1, values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(tf.getValue(Math.pow(10, -1 + i / (double) n)), values[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void testOverlappingRangeComputesOnlyNewDecades() {
+        TileCache cache = new TileCache(tf);
+        int n = TileCache.samples(0);
+        cache.values(0, 3, 0);
+        assertEquals(3 * (n + 1), tf.evaluated);
+        tf.evaluated = 0;
+        double[] values = cache.values(1, 4, 0);
+        assertEquals(n + 1, tf.evaluated);
+        assertEquals(tf.getValue(1000.0), values[2 * n], 1e-9);
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testFinerTilesServeCoarserLevels() {
+        TileCache cache = new TileCache(tf);
+        cache.values(0, 2, 3);
+        tf.evaluated = 0;
+        double[] values = cache.values(0, 2, 1);
+        assertEquals(0, tf.evaluated);
+        int n = TileCache.samples(1);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(tf.getValue(Math.pow(10, i / (double) n)), values[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void testChangedFunctionDropsTiles() {
+        TileCache cache = new TileCache(tf);
+        cache.values(0, 1, 0);
+        tf.addPole(new Pole(-10.0, 0.0));
+        tf.evaluated = 0;
+        double[] values = cache.values(0, 1, 0);
+        assertEquals(TileCache.samples(0) + 1, tf.evaluated);
+        assertEquals(tf.getValue(10.0), values[values.length - 1], 1e-9);
+    }
+
+    @Test
+    public void testBudgetEvictsLeastRecentlyUsed() {
+        int tile = 8 * (TileCache.samples(0) + 1);
+        TileCache cache = new TileCache(tf, 2 * tile);
+        cache.values(0, 1, 0);
+        cache.values(1, 2, 0);
+        cache.values(0, 1, 0);
+        cache.values(2, 3, 0);
+        assertEquals(2, cache.size());
+        assertEquals(2 * tile, cache.getUsage());
+        tf.evaluated = 0;
+        cache.values(0, 1, 0);
+        assertEquals(0, tf.evaluated);
+        cache.values(1, 2, 0);
+        assertEquals(TileCache.samples(0) + 1, tf.evaluated);
+        cache.clear();
+        assertEquals(0, cache.getUsage());
+    }
+}
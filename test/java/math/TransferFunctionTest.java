@@ -100,4 +100,66 @@ public class TransferFunctionTest {
         // Two poles at origin: -40 dB at w=10
         assertEquals(-40.0, result, 1e-6);
     }
+
+    @Test
+    public void testGetValuesMatchesGetValue() {
+        tf.setConstant(3.0);
+        tf.addPole(new Pole(-1.0, 2.0));
+        tf.addPole(new Pole(-1.0, -2.0));
+        tf.addZero(new Zero(-10.0, 0.0));
+        tf.addZero(new Zero(0.0, 0.0));
+        double[] frequencies = new double[50];
+        for (int k = 0; k < frequencies.length; k++) {
+            frequencies[k] = 0.01 * Math.pow(10, k / 10.0);
+        }
+        double[] values = new double[frequencies.length];
+        tf.getValues(frequencies, values);
+        for (int k = 0; k < frequencies.length; k++) {
+            assertEquals(tf.getValue(frequencies[k]), values[k], 1e-9);
+        }
+    }
+
+    @Test
+    public void testGetValuesWithOffsets() {
+        tf.addPole(new Pole(-1.0, 0.0));
+        double[] frequencies = { 0.1, 1.0, 10.0, 100.0 };
+        double[] values = { 7.0, 7.0, 7.0, 7.0, 7.0 };
+        tf.getValues(frequencies, 1, values, 2, 2);
+        assertEquals(7.0, values[0], 1e-9);
+        assertEquals(7.0, values[1], 1e-9);
+        assertEquals(tf.getValue(1.0), values[2], 1e-9);
+        assertEquals(tf.getValue(10.0), values[3], 1e-9);
+        assertEquals(7.0, values[4], 1e-9);
+    }
+
+    @Test
+    public void testRevisionChangesOnEdits() {
+        int revision = tf.getRevision();
+        tf.addPole(new Pole(-1.0, 0.0));
+        assertNotEquals(revision, tf.getRevision());
+        revision = tf.getRevision();
+        tf.setConstant(2.0);
+        assertNotEquals(revision, tf.getRevision());
+        revision = tf.getRevision();
+        tf.removeAll();
+        assertNotEquals(revision, tf.getRevision());
+        revision = tf.getRevision();
+        tf.getValue(1.0);
+        assertEquals(revision, tf.getRevision());
+    }
+
+    @Test
+    public void testRevisionKeptOnMissedRemoves() {
+        tf.addPole(new Pole(-1.0, 0.0));
+        tf.addZero(new Zero(-2.0, 0.0));
+        int revision = tf.getRevision();
+        assertFalse(tf.removePole(new Pole(-3.0, 0.0)));
+        assertFalse(tf.removeZero(new Zero(-3.0, 0.0)));
+        assertEquals(revision, tf.getRevision());
+        assertTrue(tf.removePole(new Pole(-1.0, 0.0)));
+        assertNotEquals(revision, tf.getRevision());
+        revision = tf.getRevision();
+        assertTrue(tf.removeZero(new Zero(-2.0, 0.0)));
+        assertNotEquals(revision, tf.getRevision());
+    }
 }